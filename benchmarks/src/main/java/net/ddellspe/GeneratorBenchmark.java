@@ -0,0 +1,149 @@
+package net.ddellspe;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Resource;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.project.MavenProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the generation goals from {@code execute()} down to the files on disk. The project is a
+ * plain {@link MavenProject} pointing into a temporary directory, on {@code /dev/shm} when it
+ * exists so the disk is not what gets measured, which can be moved with {@code -Daoc.bench.dir}.
+ *
+ * <p>The season benchmarks count one operation per day, so the {@code gc.alloc.rate.norm} reported
+ * by the GC profiler, which {@link #main} always adds, is the allocation of a single generated day.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorBenchmark {
+  static final int SEASON_DAYS = 25;
+
+  /** Threads of the season goal, 1 keeps the allocation per day free of pool overhead. */
+  @Param({"1"})
+  private int threads;
+
+  private Path root;
+  private Path regenerated;
+  private Path workspace;
+
+  @Setup(Level.Trial)
+  public void createRoot() throws IOException, MojoExecutionException, MojoFailureException {
+    Path shm = Paths.get("/dev/shm");
+    String parent =
+        System.getProperty(
+            "aoc.bench.dir",
+            Files.isDirectory(shm) ? shm.toString() : System.getProperty("java.io.tmpdir"));
+    root = Files.createTempDirectory(Paths.get(parent), "aoc-generator-bench");
+    regenerated = root.resolve("regenerated");
+    workspace = root.resolve("workspace");
+    season(regenerated, false).execute();
+  }
+
+  /** Every invocation generates into an emptied workspace, so no file exists beforehand. */
+  @TearDown(Level.Invocation)
+  public void clearWorkspace() throws IOException {
+    FileUtils.deleteDirectory(workspace.toFile());
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteRoot() throws IOException {
+    FileUtils.deleteDirectory(root.toFile());
+  }
+
+  @Benchmark
+  public void singleDay() throws MojoExecutionException, MojoFailureException {
+    AocGeneratorMojo mojo = new AocGeneratorMojo();
+    mojo.setProject(project(workspace));
+    mojo.setDay(1);
+    mojo.setLog(SilentLog.INSTANCE);
+    mojo.execute();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SEASON_DAYS)
+  public void fullSeason() throws MojoExecutionException, MojoFailureException {
+    season(workspace, false).execute();
+  }
+
+  /** Forces the whole season over an identical one, where every file is found unchanged. */
+  @Benchmark
+  @OperationsPerInvocation(SEASON_DAYS)
+  public void forceRegeneration() throws MojoExecutionException, MojoFailureException {
+    season(regenerated, true).execute();
+  }
+
+  private AocSeasonGeneratorMojo season(Path directory, boolean force) {
+    AocSeasonGeneratorMojo mojo = new AocSeasonGeneratorMojo();
+    mojo.setProject(project(directory));
+    mojo.setStartDay(1);
+    mojo.setEndDay(SEASON_DAYS);
+    mojo.setForce(force);
+    mojo.setThreads(threads);
+    mojo.setLog(SilentLog.INSTANCE);
+    return mojo;
+  }
+
+  /** The standard layout of a project in {@code directory}, without any Maven container. */
+  static MavenProject project(Path directory) {
+    MavenProject project = new MavenProject();
+    project.setGroupId("net.ddellspe.bench");
+    Build build = project.getBuild();
+    build.setDirectory(directory.resolve("target").toString());
+    build.setSourceDirectory(directory.resolve("src/main/java").toString());
+    build.setTestSourceDirectory(directory.resolve("src/test/java").toString());
+    build.setResources(
+        Collections.singletonList(resource(directory.resolve("src/main/resources"))));
+    build.setTestResources(
+        Collections.singletonList(resource(directory.resolve("src/test/resources"))));
+    return project;
+  }
+
+  private static Resource resource(Path directory) {
+    Resource resource = new Resource();
+    resource.setDirectory(directory.toString());
+    return resource;
+  }
+
+  /** Runs the benchmarks matching the JMH command line, with the GC profiler always on. */
+  public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+    new Runner(
+            new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(GeneratorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+        .run();
+  }
+}
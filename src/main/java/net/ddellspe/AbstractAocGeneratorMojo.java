@@ -0,0 +1,387 @@
+package net.ddellspe;
+
+import java.io.File;
+import java.io.IOException;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.sonatype.plexus.build.incremental.BuildContext;
+import org.sonatype.plexus.build.incremental.DefaultBuildContext;
+
+/** Parameters and helpers shared by the goals which generate day files. */
+public abstract class AbstractAocGeneratorMojo extends AbstractMojo {
+  static final String JMH_GROUP_ID = "org.openjdk.jmh";
+  static final String JUNIT_JUPITER_GROUP_ID = "org.junit.jupiter";
+
+  @Parameter(defaultValue = "${project}", required = true, readonly = true)
+  private MavenProject project = null;
+
+  @Component private BuildContext buildContext = new DefaultBuildContext();
+
+  @Parameter(defaultValue = "false", property = "force", readonly = true)
+  private boolean force = false;
+
+  @Parameter(defaultValue = "true", property = "useDayPackage", readonly = true)
+  private boolean useDayPackage = true;
+
+  /** Log the files which would be written, with their size, without writing anything. */
+  @Parameter(defaultValue = "false", property = "dryRun", readonly = true)
+  private boolean dryRun = false;
+
+  /**
+   * Also generate the {@code <groupId>.utils.InputUtils} class the generated days read input with.
+   */
+  @Parameter(defaultValue = "false", property = "generateInputUtils", readonly = true)
+  private boolean generateInputUtils = false;
+
+  /**
+   * Also generate a JMH {@code DayXXBenchmark} class in the test sources of every day, measuring
+   * parsing and each part separately against {@code input.txt}.
+   */
+  @Parameter(defaultValue = "false", property = "generateBenchmark", readonly = true)
+  private boolean generateBenchmark = false;
+
+  /**
+   * Route the generated solution tests through a generated {@code <groupId>.utils.AnswerCache},
+   * which returns the previous answer without solving again while the input and the compiled day
+   * class are unchanged. Run the tests with {@code -Daoc.cache.bypass=true} to always solve.
+   */
+  @Parameter(defaultValue = "false", property = "cacheAnswers", readonly = true)
+  private boolean cacheAnswers = false;
+
+  /**
+   * The form the generated parts take their input in: {@code lines} ({@code List<String>}), {@code
+   * grid} (a flat {@code byte[]} with width and height), {@code ints} ({@code int[]}), {@code
+   * longs} ({@code long[]}), {@code blocks} (buffers split on blank lines) or {@code stream}
+   * ({@code Stream<String>}).
+   */
+  @Parameter(defaultValue = "lines", property = "inputShape", readonly = true)
+  private String inputShape = "lines";
+
+  /**
+   * Measure the generated solution tests through a generated {@code
+   * <groupId>.utils.SolutionMetrics}, recording thread CPU time, allocated bytes and garbage
+   * collections of every part for the {@code metrics-report} goal.
+   */
+  @Parameter(defaultValue = "false", property = "instrumentTests", readonly = true)
+  private boolean instrumentTests = false;
+
+  /**
+   * Register the input and example of every day in a single {@code aoc-inputs.pack} archive at the
+   * root of the resources and test resources instead of creating loose files. The generated {@code
+   * InputUtils} reads archived inputs through a memory mapped slice of the archive, and the {@code
+   * input-archive} goal moves inputs between loose files and the archives. Resource filtering must
+   * stay disabled for the archives.
+   */
+  @Parameter(defaultValue = "false", property = "packInputs", readonly = true)
+  private boolean packInputs = false;
+
+  /**
+   * Generate the parts as a sum of a stub per-item solver over the parsed input, run on a fork-join
+   * pool through a generated {@code <groupId>.utils.Parallel}. The generated tests check that the
+   * parallel answer matches a sequential run over the example. Only suited to puzzles whose items
+   * can be solved independently.
+   */
+  @Parameter(defaultValue = "false", property = "parallelScaffold", readonly = true)
+  private boolean parallelScaffold = false;
+
+  /**
+   * Create or merge a {@code junit-platform.properties} at the root of the test resources which
+   * runs test classes concurrently, keeping the methods of each class on a single thread. Only the
+   * parallel execution keys are changed in an existing file.
+   */
+  @Parameter(defaultValue = "false", property = "parallelTests", readonly = true)
+  private boolean parallelTests = false;
+
+  /**
+   * Number of threads running test classes with {@code parallelTests}, or 0 for one thread per
+   * available processor.
+   */
+  @Parameter(defaultValue = "0", property = "testParallelism", readonly = true)
+  private int testParallelism = 0;
+
+  /**
+   * Generate the provided input tests as {@code @ParameterizedTest}s over every {@code
+   * example*.txt} of the day, each checked against the answers in its {@code .answers} sidecar
+   * file. A part without an answer in the sidecar is skipped for that example. With {@code
+   * parallelTests} the examples of a part run concurrently.
+   */
+  @Parameter(defaultValue = "false", property = "parameterizedExamples", readonly = true)
+  private boolean parameterizedExamples = false;
+
+  /**
+   * Directory of user templates replacing the built-in file shapes: {@code Day.java.tpl}, {@code
+   * DayTest.java.tpl} and {@code DayBenchmark.java.tpl} for the files of every day, and {@code
+   * utils/<Name>.java.tpl} for extra classes of the {@code <groupId>.utils} package. Day templates
+   * can use the variables {@code ${groupId}}, {@code ${utilsPackage}}, {@code ${package}}, {@code
+   * ${className}}, {@code ${day}}, {@code ${paddedDay}} and {@code ${year}}, utils templates the
+   * first four. A variable preceded by an extra {@code $} is written literally. Templates are
+   * compiled once and reused while their content is unchanged, also across builds of a persistent
+   * Maven daemon.
+   */
+  @Parameter(
+      defaultValue = "${project.basedir}/src/aoc-templates",
+      property = "templateDirectory",
+      readonly = true)
+  private File templateDirectory = null;
+
+  protected AbstractAocGeneratorMojo() {}
+
+  protected AbstractAocGeneratorMojo(MavenProject project, boolean force, boolean useDayPackage) {
+    this.project = project;
+    this.force = force;
+    this.useDayPackage = useDayPackage;
+  }
+
+  /** Creates a generator for the configured options, logging any missing build setup. */
+  protected DayGenerator createGenerator(FileManifest manifest) throws MojoExecutionException {
+    GenerationOptions options = new GenerationOptions();
+    options.setGenerateBenchmark(generateBenchmark);
+    options.setCacheAnswers(cacheAnswers);
+    options.setInstrumentTests(instrumentTests);
+    options.setPackInputs(packInputs);
+    options.setParallelScaffold(parallelScaffold);
+    options.setParallelTests(parallelTests);
+    options.setTestParallelism(testParallelism);
+    options.setParameterizedExamples(parameterizedExamples);
+    try {
+      options.setInputShape(InputShape.fromValue(inputShape));
+      options.setTemplates(TemplateSet.load(templateDirectory));
+    } catch (IllegalArgumentException e) {
+      throw new MojoExecutionException(e.getMessage(), e);
+    } catch (IOException e) {
+      throw new MojoExecutionException("Unable to read templates from " + templateDirectory, e);
+    }
+    if (options.getInputShape() != InputShape.LINES && !generateInputUtils) {
+      getLog()
+          .warn(
+              "The "
+                  + inputShape
+                  + " input shape reads input with helpers of the generated InputUtils, enable"
+                  + " generateInputUtils if the project does not have them yet");
+    }
+    if (parameterizedExamples && !generateInputUtils) {
+      getLog()
+          .warn(
+              "The parameterized examples find examples and their answers with helpers of the"
+                  + " generated InputUtils, enable generateInputUtils if the project does not have"
+                  + " them yet");
+    }
+    if (generateBenchmark) {
+      checkBenchmarkDependencies();
+    }
+    if (parameterizedExamples) {
+      checkParamsDependency();
+    }
+    return new DayGenerator(project, force, buildContext, manifest, options);
+  }
+
+  protected FileManifest loadManifest() throws MojoExecutionException {
+    try {
+      return FileManifest.load(project.getBuild().getDirectory());
+    } catch (IOException e) {
+      throw new MojoExecutionException("Unable to read generated file manifest", e);
+    }
+  }
+
+  /** Writes every file the generator planned, or only logs them with {@code dryRun}. */
+  protected void applyPlan(DayGenerator generator) {
+    if (dryRun) {
+      getLog()
+          .info(
+              String.format("Dry run, %d file(s) would be written:", generator.getPlannedFiles()));
+      for (String line : generator.describePlan()) {
+        getLog().info("  " + line);
+      }
+      return;
+    }
+    generator.applyPlan();
+  }
+
+  protected void saveManifest(FileManifest manifest) {
+    if (dryRun) {
+      return;
+    }
+    try {
+      manifest.save();
+    } catch (IOException e) {
+      getLog().warn("Unable to write generated file manifest: " + e.getMessage());
+    }
+  }
+
+  /**
+   * The generated benchmarks need JMH and its annotation processor on the test classpath. The
+   * project model is left alone, the snippet to add is logged instead when they are missing.
+   */
+  private void checkBenchmarkDependencies() {
+    boolean core = false;
+    boolean processor = false;
+    for (Dependency dependency : project.getDependencies()) {
+      if (JMH_GROUP_ID.equals(dependency.getGroupId())) {
+        core |= "jmh-core".equals(dependency.getArtifactId());
+        processor |= "jmh-generator-annprocess".equals(dependency.getArtifactId());
+      }
+    }
+    if (!core || !processor) {
+      getLog()
+          .warn(
+              "The generated benchmarks require JMH, add the following test dependencies to the"
+                  + " project:\n"
+                  + "<dependency>\n"
+                  + "  <groupId>org.openjdk.jmh</groupId>\n"
+                  + "  <artifactId>jmh-core</artifactId>\n"
+                  + "  <version>1.37</version>\n"
+                  + "  <scope>test</scope>\n"
+                  + "</dependency>\n"
+                  + "<dependency>\n"
+                  + "  <groupId>org.openjdk.jmh</groupId>\n"
+                  + "  <artifactId>jmh-generator-annprocess</artifactId>\n"
+                  + "  <version>1.37</version>\n"
+                  + "  <scope>test</scope>\n"
+                  + "</dependency>");
+    }
+  }
+
+  /** Parameterized tests need junit-jupiter-params, which the junit-jupiter aggregate includes. */
+  private void checkParamsDependency() {
+    for (Dependency dependency : project.getDependencies()) {
+      if (JUNIT_JUPITER_GROUP_ID.equals(dependency.getGroupId())
+          && ("junit-jupiter".equals(dependency.getArtifactId())
+              || "junit-jupiter-params".equals(dependency.getArtifactId()))) {
+        return;
+      }
+    }
+    getLog()
+        .warn(
+            "The parameterized examples require junit-jupiter-params, add the following test"
+                + " dependency to the project:\n"
+                + "<dependency>\n"
+                + "  <groupId>org.junit.jupiter</groupId>\n"
+                + "  <artifactId>junit-jupiter-params</artifactId>\n"
+                + "  <scope>test</scope>\n"
+                + "</dependency>");
+  }
+
+  public MavenProject getProject() {
+    return project;
+  }
+
+  public boolean isForce() {
+    return force;
+  }
+
+  public boolean isUseDayPackage() {
+    return useDayPackage;
+  }
+
+  public boolean isDryRun() {
+    return dryRun;
+  }
+
+  public boolean isGenerateInputUtils() {
+    return generateInputUtils;
+  }
+
+  public boolean isGenerateBenchmark() {
+    return generateBenchmark;
+  }
+
+  public boolean isCacheAnswers() {
+    return cacheAnswers;
+  }
+
+  public String getInputShape() {
+    return inputShape;
+  }
+
+  public boolean isInstrumentTests() {
+    return instrumentTests;
+  }
+
+  public boolean isPackInputs() {
+    return packInputs;
+  }
+
+  public boolean isParallelScaffold() {
+    return parallelScaffold;
+  }
+
+  public boolean isParallelTests() {
+    return parallelTests;
+  }
+
+  public int getTestParallelism() {
+    return testParallelism;
+  }
+
+  public boolean isParameterizedExamples() {
+    return parameterizedExamples;
+  }
+
+  public File getTemplateDirectory() {
+    return templateDirectory;
+  }
+
+  public void setProject(MavenProject project) {
+    this.project = project;
+  }
+
+  public void setForce(boolean force) {
+    this.force = force;
+  }
+
+  public void setUseDayPackage(boolean useDayPackage) {
+    this.useDayPackage = useDayPackage;
+  }
+
+  public void setDryRun(boolean dryRun) {
+    this.dryRun = dryRun;
+  }
+
+  public void setGenerateInputUtils(boolean generateInputUtils) {
+    this.generateInputUtils = generateInputUtils;
+  }
+
+  public void setGenerateBenchmark(boolean generateBenchmark) {
+    this.generateBenchmark = generateBenchmark;
+  }
+
+  public void setCacheAnswers(boolean cacheAnswers) {
+    this.cacheAnswers = cacheAnswers;
+  }
+
+  public void setInputShape(String inputShape) {
+    this.inputShape = inputShape;
+  }
+
+  public void setInstrumentTests(boolean instrumentTests) {
+    this.instrumentTests = instrumentTests;
+  }
+
+  public void setPackInputs(boolean packInputs) {
+    this.packInputs = packInputs;
+  }
+
+  public void setParallelScaffold(boolean parallelScaffold) {
+    this.parallelScaffold = parallelScaffold;
+  }
+
+  public void setParallelTests(boolean parallelTests) {
+    this.parallelTests = parallelTests;
+  }
+
+  public void setTestParallelism(int testParallelism) {
+    this.testParallelism = testParallelism;
+  }
+
+  public void setParameterizedExamples(boolean parameterizedExamples) {
+    this.parameterizedExamples = parameterizedExamples;
+  }
+
+  public void setTemplateDirectory(File templateDirectory) {
+    this.templateDirectory = templateDirectory;
+  }
+}
@@ -0,0 +1,132 @@
+package net.ddellspe;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent cache of part answers keyed by {@code <class>#<part>}. An entry is only used while
+ * both the SHA-256 of the input resource and of the compiled day class still match, so editing
+ * either re-solves the part. Each entry is stored as {@code inputHash:classHash:answer:lastUsed},
+ * the same format the generated {@code utils.AnswerCache} uses from the day tests.
+ *
+ * <p>Entries not used for longer than the maximum age are evicted on save, as are the least
+ * recently used entries beyond the maximum number of entries. The file is replaced atomically, as
+ * the generated class does, so neither sees the other's partial writes.
+ */
+final class AnswerCache {
+  static final String FILE = "answers.properties";
+
+  /** Entries kept by default, by both this cache and the generated {@code utils.AnswerCache}. */
+  static final int DEFAULT_MAX_ENTRIES = 1000;
+
+  private final Path file;
+  private final long maxAgeMillis;
+  private final int maxEntries;
+  private final Properties entries = new Properties();
+
+  /** Indexes of the input archives read while hashing, kept for the run this cache lives for. */
+  private final Map<String, Map<String, int[]>> archiveIndexes = new ConcurrentHashMap<>();
+
+  private AnswerCache(Path file, long maxAgeMillis, int maxEntries) {
+    this.file = file;
+    this.maxAgeMillis = maxAgeMillis;
+    this.maxEntries = maxEntries;
+  }
+
+  static AnswerCache load(Path file, long maxAgeMillis, int maxEntries) throws IOException {
+    AnswerCache cache = new AnswerCache(file, maxAgeMillis, maxEntries);
+    if (Files.isRegularFile(file)) {
+      try (InputStream in = Files.newInputStream(file)) {
+        cache.entries.load(in);
+      }
+    }
+    return cache;
+  }
+
+  /** Returns the cached answer when the hashes still match, refreshing its last use. */
+  synchronized Long lookup(String key, String hashes) {
+    String entry = entries.getProperty(key);
+    if (entry == null || !entry.startsWith(hashes + ":")) {
+      return null;
+    }
+    String[] fields = entry.split(":");
+    try {
+      long answer = Long.parseLong(fields[2]);
+      store(key, hashes, answer);
+      return answer;
+    } catch (RuntimeException e) {
+      entries.remove(key);
+      return null;
+    }
+  }
+
+  synchronized void store(String key, String hashes, long answer) {
+    entries.setProperty(key, hashes + ":" + answer + ":" + System.currentTimeMillis());
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  synchronized void save() throws IOException {
+    long now = System.currentTimeMillis();
+    entries.stringPropertyNames().stream()
+        .filter(key -> now - lastUsed(key) > maxAgeMillis)
+        .forEach(entries::remove);
+    if (entries.size() > maxEntries) {
+      List<String> oldest =
+          entries.stringPropertyNames().stream()
+              .sorted(Comparator.comparingLong(this::lastUsed))
+              .limit(entries.size() - (long) maxEntries)
+              .collect(Collectors.toList());
+      oldest.forEach(entries::remove);
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    entries.store(out, "Advent of Code answers, inputHash:classHash:answer:lastUsed");
+    Files.createDirectories(file.getParent());
+    GenerationPlan.writeAtomically(file, out.toByteArray(), true);
+  }
+
+  private long lastUsed(String key) {
+    String entry = entries.getProperty(key);
+    try {
+      return Long.parseLong(entry.substring(entry.lastIndexOf(':') + 1));
+    } catch (RuntimeException e) {
+      return 0L;
+    }
+  }
+
+  /**
+   * Returns {@code inputHash:classHash} for the given part, or null when either resource cannot be
+   * found through the class loader or in its input archives.
+   */
+  String hashes(ClassLoader loader, DaySolution solution, String inputName) throws IOException {
+    String classResource = solution.getClassName().replace('.', '/');
+    String packagePath = classResource.substring(0, classResource.lastIndexOf('/') + 1);
+    String inputHash = hash(loader, packagePath + inputName);
+    String classHash = hash(loader, classResource + ".class");
+    if (inputHash == null || classHash == null) {
+      return null;
+    }
+    return inputHash + ":" + classHash;
+  }
+
+  private String hash(ClassLoader loader, String resource) throws IOException {
+    try (InputStream in = loader.getResourceAsStream(resource)) {
+      if (in != null) {
+        return FileManifest.hash(in.readAllBytes());
+      }
+    }
+    byte[] archived = InputArchive.find(loader, resource, archiveIndexes);
+    return archived == null ? null : FileManifest.hash(archived);
+  }
+}
@@ -0,0 +1,346 @@
+package net.ddellspe;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.lang.model.element.Modifier;
+
+/**
+ * Builds the {@code <groupId>.utils.AnswerCache} class the generated solution tests go through. It
+ * reads and writes the same {@code answers.properties} file as the {@code run-solutions} goal, so
+ * an answer found by either is reused by both while the input and compiled class are unchanged.
+ */
+final class AnswerCacheGenerator {
+  static final String CLASS_NAME = "AnswerCache";
+  static final String DEFAULT_FILE = "target/aoc-generator/" + AnswerCache.FILE;
+
+  private static final TypeName CLASS_PARAM =
+      ParameterizedTypeName.get(
+          ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class));
+
+  private final ClassName answerCache;
+
+  AnswerCacheGenerator(String groupId) {
+    this.answerCache = ClassName.get(InputUtilsGenerator.utilsPackage(groupId), CLASS_NAME);
+  }
+
+  ClassName getClassName() {
+    return answerCache;
+  }
+
+  JavaFile build() {
+    TypeSpec type =
+        TypeSpec.classBuilder(answerCache)
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .addJavadoc(
+                "Caches part answers keyed by the SHA-256 of the input and of the compiled day"
+                    + " class.\n\n<p>The cache file defaults to {@code $L} and can be moved with"
+                    + " {@code -Daoc.cache.file},\n{@code -Daoc.cache.bypass=true} always runs the"
+                    + " part and entries unused for\n{@code -Daoc.cache.maxAgeDays} (30 by default)"
+                    + " are evicted, as are the least recently used\nentries beyond {@code"
+                    + " -Daoc.cache.maxEntries} ($L by default). The file is replaced atomically,"
+                    + " so\nconcurrent readers never see it partially written.\n",
+                DEFAULT_FILE,
+                AnswerCache.DEFAULT_MAX_ENTRIES)
+            .addField(
+                FieldSpec.builder(Path.class, "FILE", Modifier.PRIVATE, Modifier.STATIC)
+                    .addModifiers(Modifier.FINAL)
+                    .initializer(
+                        "$T.get(System.getProperty($S, $S))",
+                        Paths.class,
+                        "aoc.cache.file",
+                        DEFAULT_FILE)
+                    .build())
+            .addField(
+                FieldSpec.builder(long.class, "MAX_AGE_MILLIS", Modifier.PRIVATE, Modifier.STATIC)
+                    .addModifiers(Modifier.FINAL)
+                    .initializer(
+                        "$T.DAYS.toMillis(Long.getLong($S, 30L))",
+                        TimeUnit.class,
+                        "aoc.cache.maxAgeDays")
+                    .build())
+            .addField(
+                FieldSpec.builder(int.class, "MAX_ENTRIES", Modifier.PRIVATE, Modifier.STATIC)
+                    .addModifiers(Modifier.FINAL)
+                    .initializer(
+                        "Integer.getInteger($S, $L)",
+                        "aoc.cache.maxEntries",
+                        AnswerCache.DEFAULT_MAX_ENTRIES)
+                    .build())
+            .addField(
+                FieldSpec.builder(String.class, "ARCHIVE", Modifier.PRIVATE, Modifier.STATIC)
+                    .addModifiers(Modifier.FINAL)
+                    .initializer("$S", InputArchive.FILE_NAME)
+                    .build())
+            .addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build())
+            .addMethod(solve())
+            .addMethod(lookup())
+            .addMethod(store())
+            .addMethod(hash())
+            .addMethod(archived())
+            .addMethod(load())
+            .addMethod(save())
+            .addMethod(lastUsed())
+            .build();
+    return JavaFile.builder(answerCache.packageName(), type).skipJavaLangImports(true).build();
+  }
+
+  private MethodSpec solve() {
+    return MethodSpec.methodBuilder("solve")
+        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+        .addJavadoc(
+            "Returns the cached answer for the part when neither the input nor the compiled class"
+                + " changed\nsince it was last solved, otherwise runs {@code solver} and caches its"
+                + " answer. Only reading\nand writing the cache file is synchronized, so tests"
+                + " running concurrently solve in parallel.\n")
+        .returns(long.class)
+        .addParameter(CLASS_PARAM, "cls")
+        .addParameter(int.class, "part")
+        .addParameter(String.class, "filename")
+        .addParameter(LongSupplier.class, "solver")
+        .beginControlFlow("if (Boolean.getBoolean($S))", "aoc.cache.bypass")
+        .addStatement("return solver.getAsLong()")
+        .endControlFlow()
+        .addStatement("String key = cls.getName() + \"#\" + part")
+        .addStatement(
+            "String hashes = hash(cls, filename) + \":\" + hash(cls, cls.getSimpleName() +"
+                + " \".class\")")
+        .addStatement("String[] fields = lookup(key).split(\":\")")
+        .addStatement("long answer")
+        .beginControlFlow("if (fields.length == 4 && hashes.equals(fields[0] + \":\" + fields[1]))")
+        .addStatement("answer = Long.parseLong(fields[2])")
+        .nextControlFlow("else")
+        .addStatement("answer = solver.getAsLong()")
+        .endControlFlow()
+        .addStatement("store(key, hashes + \":\" + answer + \":\" + System.currentTimeMillis())")
+        .addStatement("return answer")
+        .build();
+  }
+
+  private static MethodSpec lookup() {
+    return MethodSpec.methodBuilder("lookup")
+        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.SYNCHRONIZED)
+        .returns(String.class)
+        .addParameter(String.class, "key")
+        .addStatement("return load().getProperty(key, \"\")")
+        .build();
+  }
+
+  private static MethodSpec store() {
+    return MethodSpec.methodBuilder("store")
+        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.SYNCHRONIZED)
+        .addParameter(String.class, "key")
+        .addParameter(String.class, "entry")
+        .addStatement("$T entries = load()", Properties.class)
+        .addStatement("entries.setProperty(key, entry)")
+        .addStatement("save(entries)")
+        .build();
+  }
+
+  /** Inputs which are not a resource of their own are read from the input archives. */
+  private static MethodSpec hash() {
+    return MethodSpec.methodBuilder("hash")
+        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+        .returns(String.class)
+        .addParameter(CLASS_PARAM, "cls")
+        .addParameter(String.class, "resource")
+        .beginControlFlow("try ($T in = cls.getResourceAsStream(resource))", InputStream.class)
+        .addStatement("byte[] content = in == null ? archived(cls, resource) : in.readAllBytes()")
+        .addStatement(
+            "byte[] digest = $T.getInstance($S).digest(content)", MessageDigest.class, "SHA-256")
+        .addStatement("StringBuilder builder = new StringBuilder(digest.length * 2)")
+        .beginControlFlow("for (byte b : digest)")
+        .addStatement("builder.append(String.format($S, b))", "%02x")
+        .endControlFlow()
+        .addStatement("return builder.toString()")
+        .nextControlFlow("catch ($T e)", IOException.class)
+        .addStatement("throw new $T(e)", UncheckedIOException.class)
+        .nextControlFlow("catch ($T e)", NoSuchAlgorithmException.class)
+        .addStatement(
+            "throw new $T($S, e)", IllegalStateException.class, "SHA-256 is not available")
+        .endControlFlow()
+        .build();
+  }
+
+  /** Looked up here rather than in InputUtils, which a project may have written itself. */
+  private static MethodSpec archived() {
+    return MethodSpec.methodBuilder("archived")
+        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+        .addJavadoc(
+            "Reads the resource from the input archives on the classpath, resolving the name the"
+                + " same way\nas {@link Class#getResource}. Only the index up to the entry and the"
+                + " entry itself are read.\n")
+        .returns(byte[].class)
+        .addParameter(CLASS_PARAM, "cls")
+        .addParameter(String.class, "resource")
+        .addException(IOException.class)
+        .addStatement(
+            "String name = resource.startsWith($S) ? resource.substring(1) :"
+                + " cls.getPackageName().replace('.', '/') + $S + resource",
+            "/",
+            "/")
+        .addStatement(
+            "$T<$T> archives = cls.getClassLoader().getResources(ARCHIVE)",
+            Enumeration.class,
+            URL.class)
+        .beginControlFlow("while (archives.hasMoreElements())")
+        .addStatement("$T url = archives.nextElement()", URL.class)
+        .beginControlFlow(
+            "try ($T in = new $T(new $T(url.openStream())))",
+            DataInputStream.class,
+            DataInputStream.class,
+            BufferedInputStream.class)
+        .beginControlFlow(
+            "if (in.readInt() != 0x$L || in.readInt() != $L)",
+            Integer.toHexString(InputArchive.MAGIC),
+            InputArchive.VERSION)
+        .addStatement("throw new $T($S + url)", IOException.class, "Unsupported input archive ")
+        .endControlFlow()
+        .addStatement("int count = in.readInt()")
+        .addStatement("long position = 12")
+        .beginControlFlow("for (int i = 0; i < count; i++)")
+        .addStatement("byte[] entry = new byte[in.readInt()]")
+        .addStatement("in.readFully(entry)")
+        .addStatement("int offset = in.readInt()")
+        .addStatement("int length = in.readInt()")
+        .addStatement("position += 12 + entry.length")
+        .beginControlFlow("if (name.equals(new String(entry, $T.UTF_8)))", StandardCharsets.class)
+        .beginControlFlow("while (position < offset)")
+        .addStatement("long skipped = in.skip(offset - position)")
+        .beginControlFlow("if (skipped <= 0)")
+        .addStatement("throw new $T($S + url)", EOFException.class, "Truncated input archive ")
+        .endControlFlow()
+        .addStatement("position += skipped")
+        .endControlFlow()
+        .addStatement("byte[] content = in.readNBytes(length)")
+        .beginControlFlow("if (content.length < length)")
+        .addStatement("throw new $T($S + url)", EOFException.class, "Truncated input archive ")
+        .endControlFlow()
+        .addStatement("return content")
+        .endControlFlow()
+        .endControlFlow()
+        .endControlFlow()
+        .endControlFlow()
+        .addStatement(
+            "throw new $T($S + resource + $S + cls.getName())",
+            IllegalArgumentException.class,
+            "Unable to find input ",
+            " for ")
+        .build();
+  }
+
+  private MethodSpec load() {
+    return MethodSpec.methodBuilder("load")
+        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+        .returns(Properties.class)
+        .addStatement("$T entries = new $T()", Properties.class, Properties.class)
+        .beginControlFlow("if ($T.isRegularFile(FILE))", Files.class)
+        .beginControlFlow("try ($T in = $T.newInputStream(FILE))", InputStream.class, Files.class)
+        .addStatement("entries.load(in)")
+        .nextControlFlow("catch ($T e)", IOException.class)
+        .addStatement("entries.clear()")
+        .endControlFlow()
+        .endControlFlow()
+        .addStatement("return entries")
+        .build();
+  }
+
+  private MethodSpec save() {
+    return MethodSpec.methodBuilder("save")
+        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+        .addJavadoc(
+            "Evicts expired and least recently used entries and writes the cache to a temporary"
+                + " file\nmoved over it, which is best effort only.\n")
+        .addParameter(Properties.class, "entries")
+        .addStatement("long now = System.currentTimeMillis()")
+        .beginControlFlow("for (String key : entries.stringPropertyNames())")
+        .beginControlFlow("try")
+        .beginControlFlow("if (now - lastUsed(entries, key) > MAX_AGE_MILLIS)")
+        .addStatement("entries.remove(key)")
+        .endControlFlow()
+        .nextControlFlow("catch ($T e)", NumberFormatException.class)
+        .addStatement("entries.remove(key)")
+        .endControlFlow()
+        .endControlFlow()
+        .beginControlFlow("if (entries.size() > MAX_ENTRIES)")
+        .addStatement(
+            "$T<String> keys = new $T<>(entries.stringPropertyNames())",
+            List.class,
+            ArrayList.class)
+        .addStatement(
+            "keys.sort($T.comparingLong(key -> lastUsed(entries, key)))", Comparator.class)
+        .beginControlFlow("for (String key : keys.subList(0, keys.size() - MAX_ENTRIES))")
+        .addStatement("entries.remove(key)")
+        .endControlFlow()
+        .endControlFlow()
+        .beginControlFlow("try")
+        .addStatement("$T directory = FILE.toAbsolutePath().getParent()", Path.class)
+        .addStatement("$T.createDirectories(directory)", Files.class)
+        .addStatement(
+            "$T temp = $T.createTempFile(directory, \".\" + FILE.getFileName(), \".tmp\")",
+            Path.class,
+            Files.class)
+        .beginControlFlow("try")
+        .beginControlFlow(
+            "try ($T out = $T.newOutputStream(temp))", OutputStream.class, Files.class)
+        .addStatement(
+            "entries.store(out, $S)", "Advent of Code answers, inputHash:classHash:answer:lastUsed")
+        .endControlFlow()
+        .beginControlFlow("try")
+        .addStatement(
+            "$T.move(temp, FILE, $T.REPLACE_EXISTING, $T.ATOMIC_MOVE)",
+            Files.class,
+            StandardCopyOption.class,
+            StandardCopyOption.class)
+        .nextControlFlow("catch ($T e)", AtomicMoveNotSupportedException.class)
+        .addStatement(
+            "$T.move(temp, FILE, $T.REPLACE_EXISTING)", Files.class, StandardCopyOption.class)
+        .endControlFlow()
+        .nextControlFlow("finally")
+        .addStatement("$T.deleteIfExists(temp)", Files.class)
+        .endControlFlow()
+        .nextControlFlow("catch ($T e)", IOException.class)
+        .addComment("an unwritable cache only means the part is solved again next time")
+        .endControlFlow()
+        .build();
+  }
+
+  private static MethodSpec lastUsed() {
+    return MethodSpec.methodBuilder("lastUsed")
+        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+        .returns(long.class)
+        .addParameter(Properties.class, "entries")
+        .addParameter(String.class, "key")
+        .addStatement("String entry = entries.getProperty(key)")
+        .addStatement("return Long.parseLong(entry.substring(entry.lastIndexOf(':') + 1))")
+        .build();
+  }
+}
@@ -0,0 +1,319 @@
+package net.ddellspe;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Goal which dumps an application Class Data Sharing archive of the compiled day classes, their
+ * dependencies and the solution runner with {@code -XX:ArchiveClassesAtExit}, so that short running
+ * days do not spend most of their time starting the JVM and loading classes. The archive is trained
+ * by running both parts of every day once in a forked JVM, and is only dumped again when the JVM,
+ * the runtime classpath or the content of its directories change. The project must be compiled
+ * before this goal runs.
+ *
+ * <p>Only a JVM launched on the archived classpath uses the archive, which is what {@code java
+ * @target/aoc-generator/cds/launch.args} does to run every day on it. The {@code run-solutions}
+ * goal solves inside the Maven JVM and does not use the archive. The default Surefire booter does
+ * not either, since its classpath is a manifest-only jar rather than the archived one. The startup
+ * of the solutions with and without the archive is timed and reported.
+ */
+@Mojo(
+    name = "cds-archive",
+    defaultPhase = LifecyclePhase.NONE,
+    requiresDependencyResolution = ResolutionScope.RUNTIME)
+public class AocCdsArchiveMojo extends AbstractMojo {
+  /** The first JDK with dynamic archives, {@code -XX:ArchiveClassesAtExit}. */
+  static final int MINIMUM_JAVA_VERSION = 13;
+
+  @Parameter(defaultValue = "${project}", required = true, readonly = true)
+  private MavenProject project = null;
+
+  /** Name of the input resource the training run passes to every part. */
+  @Parameter(defaultValue = "input.txt", property = "inputName", readonly = true)
+  private String inputName = "input.txt";
+
+  /** Dump the archive again even when it is up to date. */
+  @Parameter(defaultValue = "false", property = "force", readonly = true)
+  private boolean force = false;
+
+  /** Number of timed launches with and without the archive, 0 to skip reporting startup times. */
+  @Parameter(defaultValue = "3", property = "startupRuns", readonly = true)
+  private int startupRuns = 3;
+
+  /**
+   * Project property set to the JVM options which use the archive. A JVM given them only uses the
+   * archive when its classpath starts with the one in {@code launch.args}, otherwise it silently
+   * runs without it, as the default Surefire booter does.
+   */
+  @Parameter(defaultValue = "aoc.cds.argLine", property = "argLineProperty", readonly = true)
+  private String argLineProperty = "aoc.cds.argLine";
+
+  /** Directory the archive, its fingerprint, the packed classpath and the argument file go to. */
+  @Parameter(
+      defaultValue = "${project.build.directory}/aoc-generator/cds",
+      property = "cdsDirectory",
+      readonly = true)
+  private File cdsDirectory = null;
+
+  public AocCdsArchiveMojo() {}
+
+  @VisibleForTesting
+  protected AocCdsArchiveMojo(MavenProject project, int startupRuns) {
+    this.project = project;
+    this.startupRuns = startupRuns;
+  }
+
+  @Override
+  public void execute() throws MojoExecutionException {
+    if (Runtime.version().feature() < MINIMUM_JAVA_VERSION) {
+      throw new MojoExecutionException(
+          "Dynamic CDS archives require Java "
+              + MINIMUM_JAVA_VERSION
+              + " or newer, Maven runs on Java "
+              + Runtime.version().feature());
+    }
+    List<DaySolution> solutions;
+    try {
+      solutions =
+          SolutionScanner.scan(
+              Paths.get(project.getBuild().getOutputDirectory()), project.getGroupId());
+    } catch (IOException e) {
+      throw new MojoExecutionException("Unable to scan for compiled solutions", e);
+    }
+    if (solutions.isEmpty()) {
+      getLog()
+          .warn(
+              "No compiled solutions found in "
+                  + project.getBuild().getOutputDirectory()
+                  + ", compile the project before running this goal");
+      return;
+    }
+    CdsArchive archive = new CdsArchive(getCdsDirectory().toPath());
+    List<Path> classpath = classpath();
+    List<String> launch = new ArrayList<>();
+    launch.add(SolutionLauncher.class.getName());
+    launch.add(inputName);
+    launch.addAll(solutions.stream().map(DaySolution::getClassName).collect(Collectors.toList()));
+    List<Path> archivable;
+    try {
+      String fingerprint = archive.fingerprint(classpath);
+      archivable = archive.archivableClasspath(classpath, false);
+      if (!force
+          && archive.isUpToDate(fingerprint)
+          && archivable.stream().allMatch(Files::isRegularFile)) {
+        getLog().info("CDS archive is up to date: " + archive.getArchive());
+      } else {
+        archivable = archive.archivableClasspath(classpath, true);
+        train(archive, archivable, launch, solutions.size());
+        archive.saveFingerprint(fingerprint);
+      }
+      List<String> arguments = new ArrayList<>();
+      arguments.add("-XX:SharedArchiveFile=" + archive.getArchive());
+      arguments.add("-cp");
+      arguments.add(join(archivable));
+      arguments.addAll(launch);
+      archive.writeArgsFile(arguments);
+    } catch (IOException e) {
+      throw new MojoExecutionException(
+          "Unable to write the CDS archive to " + getCdsDirectory(), e);
+    }
+    String argLine = "-XX:SharedArchiveFile=" + archive.getArchive() + " -Xshare:auto";
+    project.getProperties().setProperty(argLineProperty, argLine);
+    getLog().info(String.format("Set %s to: %s", argLineProperty, argLine));
+    getLog().info("Run the solutions on the archive with: java @" + archive.getArgsFile());
+    if (startupRuns > 0) {
+      reportStartup(archive, archivable, launch, solutions.size());
+    }
+  }
+
+  /** Runs every day once in a JVM which dumps the loaded classes to the archive on exit. */
+  private void train(CdsArchive archive, List<Path> archivable, List<String> launch, int days)
+      throws MojoExecutionException, IOException {
+    getLog().info(String.format("Training the CDS archive on %d day(s)", days));
+    Path dumped = archive.getArchive().resolveSibling(archive.getArchive().getFileName() + ".tmp");
+    Files.deleteIfExists(dumped);
+    List<String> command = new ArrayList<>();
+    command.add(java());
+    command.add("-XX:ArchiveClassesAtExit=" + dumped);
+    command.add("-cp");
+    command.add(join(archivable));
+    command.addAll(launch);
+    Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+    int exitCode = waitFor(process);
+    for (String line : output.split("\\R")) {
+      getLog().debug(line);
+    }
+    if (exitCode != 0 || !Files.isRegularFile(dumped)) {
+      throw new MojoExecutionException(
+          "The CDS training run exited with code " + exitCode + ":\n" + output.trim());
+    }
+    Files.move(dumped, archive.getArchive(), StandardCopyOption.REPLACE_EXISTING);
+    getLog().info("CDS archive written to: " + archive.getArchive());
+  }
+
+  /** Times the solutions launched alternately without and with the archive. */
+  private void reportStartup(
+      CdsArchive archive, List<Path> archivable, List<String> launch, int days)
+      throws MojoExecutionException {
+    long[] without = new long[startupRuns];
+    long[] with = new long[startupRuns];
+    for (int i = 0; i < startupRuns; i++) {
+      without[i] = time(archivable, launch, null);
+      with[i] = time(archivable, launch, archive.getArchive());
+    }
+    Arrays.sort(without);
+    Arrays.sort(with);
+    long medianWithout = without[startupRuns / 2];
+    long medianWith = with[startupRuns / 2];
+    getLog()
+        .info(
+            String.format(
+                "Startup and run of %d day(s), median of %d launch(es): %s without the CDS"
+                    + " archive, %s with it (%.2fx)",
+                days,
+                startupRuns,
+                SolutionReport.formatNanos(medianWithout),
+                SolutionReport.formatNanos(medianWith),
+                (double) medianWithout / Math.max(1L, medianWith)));
+  }
+
+  /** Wall clock nanoseconds of one launch, on the archive unless it is null. */
+  private long time(List<Path> archivable, List<String> launch, Path sharedArchive)
+      throws MojoExecutionException {
+    List<String> command = new ArrayList<>();
+    command.add(java());
+    if (sharedArchive != null) {
+      command.add("-XX:SharedArchiveFile=" + sharedArchive);
+    }
+    command.add("-cp");
+    command.add(join(archivable));
+    command.addAll(launch);
+    long start = System.nanoTime();
+    try {
+      Process process =
+          new ProcessBuilder(command)
+              .redirectErrorStream(true)
+              .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+              .start();
+      int exitCode = waitFor(process);
+      if (exitCode != 0) {
+        throw new MojoExecutionException("The timed launch exited with code " + exitCode);
+      }
+    } catch (IOException e) {
+      throw new MojoExecutionException("Unable to launch " + java(), e);
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static int waitFor(Process process) throws MojoExecutionException {
+    try {
+      return process.waitFor();
+    } catch (InterruptedException e) {
+      process.destroyForcibly();
+      Thread.currentThread().interrupt();
+      throw new MojoExecutionException("Interrupted while waiting for a forked JVM", e);
+    }
+  }
+
+  /** The project runtime classpath followed by the plugin classes the launcher runs from. */
+  private List<Path> classpath() throws MojoExecutionException {
+    List<Path> classpath = new ArrayList<>();
+    try {
+      for (String element : project.getRuntimeClasspathElements()) {
+        Path path = Paths.get(element);
+        if (Files.exists(path)) {
+          classpath.add(path);
+        }
+      }
+      classpath.add(
+          Paths.get(
+              SolutionLauncher.class.getProtectionDomain().getCodeSource().getLocation().toURI()));
+    } catch (DependencyResolutionRequiredException | URISyntaxException e) {
+      throw new MojoExecutionException("Unable to resolve the project runtime classpath", e);
+    }
+    return classpath;
+  }
+
+  private static String join(List<Path> classpath) {
+    return classpath.stream().map(Path::toString).collect(Collectors.joining(File.pathSeparator));
+  }
+
+  private static String java() {
+    return Paths.get(
+            System.getProperty("java.home"),
+            "bin",
+            File.separatorChar == '\\' ? "java.exe" : "java")
+        .toString();
+  }
+
+  public MavenProject getProject() {
+    return project;
+  }
+
+  public String getInputName() {
+    return inputName;
+  }
+
+  public boolean isForce() {
+    return force;
+  }
+
+  public int getStartupRuns() {
+    return startupRuns;
+  }
+
+  public String getArgLineProperty() {
+    return argLineProperty;
+  }
+
+  public File getCdsDirectory() {
+    if (cdsDirectory == null) {
+      return Paths.get(project.getBuild().getDirectory(), "aoc-generator", "cds").toFile();
+    }
+    return cdsDirectory;
+  }
+
+  public void setProject(MavenProject project) {
+    this.project = project;
+  }
+
+  public void setInputName(String inputName) {
+    this.inputName = inputName;
+  }
+
+  public void setForce(boolean force) {
+    this.force = force;
+  }
+
+  public void setStartupRuns(int startupRuns) {
+    this.startupRuns = startupRuns;
+  }
+
+  public void setArgLineProperty(String argLineProperty) {
+    this.argLineProperty = argLineProperty;
+  }
+
+  public void setCdsDirectory(File cdsDirectory) {
+    this.cdsDirectory = cdsDirectory;
+  }
+}
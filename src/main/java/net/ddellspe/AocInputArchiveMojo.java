@@ -0,0 +1,189 @@
+package net.ddellspe;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Goal which moves the inputs of every day between loose files and the {@code aoc-inputs.pack}
+ * archives used with {@code packInputs}. Importing adds every {@code .txt} file under the group id
+ * package of the resources and test resources to the archive at the root of that directory,
+ * exporting writes the entries of each archive back out as loose files.
+ */
+@Mojo(name = "input-archive", defaultPhase = LifecyclePhase.NONE)
+public class AocInputArchiveMojo extends AbstractMojo {
+  static final String IMPORT = "import";
+  static final String EXPORT = "export";
+
+  @Parameter(defaultValue = "${project}", required = true, readonly = true)
+  private MavenProject project = null;
+
+  /** Either {@code import} (loose files into the archives) or {@code export} (the reverse). */
+  @Parameter(defaultValue = IMPORT, property = "aoc.archive.action", readonly = true)
+  private String action = IMPORT;
+
+  /** Remove the loose files after importing them, or the archives after exporting them. */
+  @Parameter(defaultValue = "false", property = "aoc.archive.deleteSource", readonly = true)
+  private boolean deleteSource = false;
+
+  /** Overwrite loose files which already exist with different content when exporting. */
+  @Parameter(defaultValue = "false", property = "force", readonly = true)
+  private boolean force = false;
+
+  public AocInputArchiveMojo() {}
+
+  @VisibleForTesting
+  protected AocInputArchiveMojo(MavenProject project, String action) {
+    this.project = project;
+    this.action = action;
+  }
+
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    String normalized = action == null ? "" : action.toLowerCase(Locale.ROOT);
+    if (!IMPORT.equals(normalized) && !EXPORT.equals(normalized)) {
+      throw new MojoExecutionException(
+          "Unknown archive action: " + action + ", expected " + IMPORT + " or " + EXPORT);
+    }
+    List<String> directories =
+        Arrays.asList(
+            project.getBuild().getResources().get(0).getDirectory(),
+            project.getBuild().getTestResources().get(0).getDirectory());
+    for (String directory : directories) {
+      InputArchive archive = InputArchive.in(directory);
+      try {
+        if (IMPORT.equals(normalized)) {
+          importFiles(Paths.get(directory), archive);
+        } else {
+          exportFiles(Paths.get(directory), archive);
+        }
+      } catch (IOException e) {
+        throw new MojoExecutionException(
+            "Unable to " + normalized + " inputs of " + archive.getLocation(), e);
+      }
+    }
+  }
+
+  private void importFiles(Path root, InputArchive archive) throws IOException {
+    Path groupRoot = root.resolve(project.getGroupId().replace('.', '/'));
+    List<Path> files = new ArrayList<>();
+    if (Files.isDirectory(groupRoot)) {
+      try (Stream<Path> walk = Files.walk(groupRoot)) {
+        files =
+            walk.filter(Files::isRegularFile)
+                .filter(file -> file.getFileName().toString().endsWith(".txt"))
+                .sorted()
+                .collect(Collectors.toList());
+      }
+    }
+    int changed = 0;
+    for (Path file : files) {
+      if (archive.put(resourceName(root, file), Files.readAllBytes(file))) {
+        changed++;
+      }
+    }
+    archive.save();
+    if (deleteSource) {
+      for (Path file : files) {
+        Files.delete(file);
+      }
+    }
+    getLog()
+        .info(
+            String.format(
+                "Imported %d file(s) into %s, %d changed",
+                files.size(), archive.getLocation(), changed));
+  }
+
+  private void exportFiles(Path root, InputArchive archive) throws IOException {
+    if (!Files.isRegularFile(archive.getLocation())) {
+      getLog().info("No input archive found at: " + archive.getLocation() + ". Skipping export");
+      return;
+    }
+    int written = 0;
+    for (String name : archive.names()) {
+      Path file = root.resolve(name);
+      byte[] content = archive.get(name);
+      if (Files.isRegularFile(file)) {
+        if (Arrays.equals(Files.readAllBytes(file), content)) {
+          continue;
+        }
+        if (!force) {
+          getLog()
+              .warn(
+                  "File already exists with different content at: "
+                      + file
+                      + ". Skipping export, use force to overwrite");
+          continue;
+        }
+      }
+      Files.createDirectories(file.getParent());
+      Files.write(file, content);
+      written++;
+    }
+    if (deleteSource) {
+      Files.delete(archive.getLocation());
+    }
+    getLog()
+        .info(
+            String.format(
+                "Exported %d of %d entries from %s",
+                written, archive.names().size(), archive.getLocation()));
+  }
+
+  /** The resource name of a file below the resource root, always separated by slashes. */
+  private static String resourceName(Path root, Path file) {
+    List<String> segments = new ArrayList<>();
+    for (Path segment : root.relativize(file)) {
+      segments.add(segment.toString());
+    }
+    return String.join("/", segments);
+  }
+
+  public MavenProject getProject() {
+    return project;
+  }
+
+  public String getAction() {
+    return action;
+  }
+
+  public boolean isDeleteSource() {
+    return deleteSource;
+  }
+
+  public boolean isForce() {
+    return force;
+  }
+
+  public void setProject(MavenProject project) {
+    this.project = project;
+  }
+
+  public void setAction(String action) {
+    this.action = action;
+  }
+
+  public void setDeleteSource(boolean deleteSource) {
+    this.deleteSource = deleteSource;
+  }
+
+  public void setForce(boolean force) {
+    this.force = force;
+  }
+}
@@ -0,0 +1,114 @@
+package net.ddellspe;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Goal which aggregates the measurements recorded by tests generated with {@code instrumentTests}
+ * into one table across all days, showing the median wall and CPU time, allocated bytes and garbage
+ * collections of every part, and writes the table as CSV.
+ */
+@Mojo(name = "metrics-report", defaultPhase = LifecyclePhase.NONE, threadSafe = true)
+public class AocMetricsReportMojo extends AbstractMojo {
+
+  @Parameter(defaultValue = "${project}", required = true, readonly = true)
+  private MavenProject project = null;
+
+  /** Directory the instrumented tests append their per-run metrics files to. */
+  @Parameter(
+      defaultValue = "${project.build.directory}/aoc-generator/metrics",
+      property = "metricsDirectory",
+      readonly = true)
+  private File metricsDirectory = null;
+
+  /** Directory the aggregated summary is written to. */
+  @Parameter(
+      defaultValue = "${project.build.directory}/aoc-generator",
+      property = "reportDirectory",
+      readonly = true)
+  private File reportDirectory = null;
+
+  public AocMetricsReportMojo() {}
+
+  @VisibleForTesting
+  protected AocMetricsReportMojo(MavenProject project) {
+    this.project = project;
+  }
+
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    Path metricsRoot = getMetricsDirectory().toPath();
+    List<MetricsReport.Summary> summaries;
+    int files;
+    try {
+      List<Path> metricsFiles = MetricsReport.files(metricsRoot);
+      files = metricsFiles.size();
+      summaries = MetricsReport.read(metricsFiles);
+    } catch (IOException e) {
+      throw new MojoExecutionException("Unable to read solution metrics", e);
+    }
+    if (summaries.isEmpty()) {
+      getLog()
+          .warn(
+              "No solution metrics found in "
+                  + metricsRoot
+                  + ", run the tests generated with instrumentTests first");
+      return;
+    }
+    getLog()
+        .info(
+            String.format(
+                "Aggregated metrics of %d part(s) from %d run file(s)", summaries.size(), files));
+    for (String line : MetricsReport.table(summaries)) {
+      getLog().info(line);
+    }
+    Path summary = getReportDirectory().toPath().resolve(MetricsReport.SUMMARY_FILE);
+    try {
+      MetricsReport.writeCsv(summary, summaries);
+    } catch (IOException e) {
+      throw new MojoExecutionException("Unable to write metrics summary", e);
+    }
+    getLog().info("Metrics summary written to: " + summary);
+  }
+
+  public MavenProject getProject() {
+    return project;
+  }
+
+  public File getMetricsDirectory() {
+    if (metricsDirectory == null) {
+      return Paths.get(project.getBuild().getDirectory(), "aoc-generator", "metrics").toFile();
+    }
+    return metricsDirectory;
+  }
+
+  public File getReportDirectory() {
+    if (reportDirectory == null) {
+      return Paths.get(project.getBuild().getDirectory(), "aoc-generator").toFile();
+    }
+    return reportDirectory;
+  }
+
+  public void setProject(MavenProject project) {
+    this.project = project;
+  }
+
+  public void setMetricsDirectory(File metricsDirectory) {
+    this.metricsDirectory = metricsDirectory;
+  }
+
+  public void setReportDirectory(File reportDirectory) {
+    this.reportDirectory = reportDirectory;
+  }
+}
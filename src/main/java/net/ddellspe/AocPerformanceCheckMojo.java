@@ -0,0 +1,313 @@
+package net.ddellspe;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Goal which compares the median time and allocations per operation of the last {@code
+ * run-solutions} report against a committed baseline, failing the build (or warning) when a part
+ * regressed past the configured thresholds. Parts that failed in the report are not compared, and
+ * cached parts are compared with the timings of the run that solved them.
+ *
+ * <p>Timings of parts run concurrently depend on what else was running, so a part is only compared
+ * when it was measured with the parallelism recorded in the baseline. Otherwise the check is
+ * refused rather than reporting noise as regressions. Only a parallelism set explicitly is
+ * recorded, so runs with the default, the number of processors, compare across machines.
+ */
+@Mojo(name = "check-performance", defaultPhase = LifecyclePhase.VERIFY, threadSafe = true)
+public class AocPerformanceCheckMojo extends AbstractMojo {
+
+  @Parameter(defaultValue = "${project}", required = true, readonly = true)
+  private MavenProject project = null;
+
+  /** The CSV report of the run to check, as written by {@code run-solutions}. */
+  @Parameter(
+      defaultValue = "${project.build.directory}/aoc-generator/solutions.csv",
+      property = "reportFile",
+      readonly = true)
+  private File reportFile = null;
+
+  /** The committed baseline to compare against. */
+  @Parameter(
+      defaultValue = "${project.basedir}/aoc-baseline.csv",
+      property = "baselineFile",
+      readonly = true)
+  private File baselineFile = null;
+
+  /** A part regresses when its median time exceeds the baseline times this ratio, 0 to disable. */
+  @Parameter(defaultValue = "1.25", property = "maxTimeRatio", readonly = true)
+  private double maxTimeRatio = 1.25;
+
+  /** A part regresses when its median time grows by more than this, 0 to disable. */
+  @Parameter(defaultValue = "0", property = "maxTimeIncreaseMillis", readonly = true)
+  private double maxTimeIncreaseMillis = 0;
+
+  /** A part regresses when it allocates more than the baseline times this ratio, 0 to disable. */
+  @Parameter(defaultValue = "1.25", property = "maxAllocationRatio", readonly = true)
+  private double maxAllocationRatio = 1.25;
+
+  /** A part regresses when its allocations grow by more than this many bytes, 0 to disable. */
+  @Parameter(defaultValue = "0", property = "maxAllocationIncreaseBytes", readonly = true)
+  private long maxAllocationIncreaseBytes = 0L;
+
+  /** Fail the build on regressions, only warn about them when false. */
+  @Parameter(defaultValue = "true", property = "failOnRegression", readonly = true)
+  private boolean failOnRegression = true;
+
+  /** Write the measured parts of the report into the baseline instead of checking them. */
+  @Parameter(defaultValue = "false", property = "aoc.updateBaseline", readonly = true)
+  private boolean updateBaseline = false;
+
+  public AocPerformanceCheckMojo() {}
+
+  @VisibleForTesting
+  protected AocPerformanceCheckMojo(MavenProject project, File reportFile, File baselineFile) {
+    this.project = project;
+    this.reportFile = reportFile;
+    this.baselineFile = baselineFile;
+  }
+
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    Path report = getReportFile().toPath();
+    Path baselinePath = getBaselineFile().toPath();
+    Map<String, long[]> current;
+    Map<String, long[]> baseline;
+    try {
+      current = SolutionReport.readMeasurements(report);
+      baseline = PerformanceBaseline.read(baselinePath);
+    } catch (IOException | RuntimeException e) {
+      throw new MojoExecutionException("Unable to read solution timings: " + e.getMessage(), e);
+    }
+    if (current.isEmpty()) {
+      getLog()
+          .warn(
+              "No measured solutions found in "
+                  + report
+                  + ", run run-solutions before checking for regressions");
+      return;
+    }
+    if (updateBaseline) {
+      baseline.putAll(current);
+      try {
+        PerformanceBaseline.write(baselinePath, baseline);
+      } catch (IOException e) {
+        throw new MojoExecutionException("Unable to write performance baseline", e);
+      }
+      getLog()
+          .info(
+              String.format(
+                  "Baseline updated with %d part(s) at: %s", current.size(), baselinePath));
+      return;
+    }
+    if (baseline.isEmpty()) {
+      getLog()
+          .warn(
+              "No performance baseline found at "
+                  + baselinePath
+                  + ", run with -Daoc.updateBaseline=true to create it");
+      return;
+    }
+    List<String> mismatches = new ArrayList<>();
+    for (Map.Entry<String, long[]> entry : baseline.entrySet()) {
+      long[] measured = current.get(entry.getKey());
+      if (measured != null && measured[2] != entry.getValue()[2]) {
+        mismatches.add(
+            String.format(
+                "%s was measured with %s, the baseline with %s",
+                label(entry.getKey()),
+                describeParallelism(measured[2]),
+                describeParallelism(entry.getValue()[2])));
+      }
+    }
+    if (!mismatches.isEmpty()) {
+      refuse(mismatches, baselinePath);
+      return;
+    }
+    List<String> regressions = new ArrayList<>();
+    int compared = 0;
+    for (Map.Entry<String, long[]> entry : baseline.entrySet()) {
+      long[] measured = current.get(entry.getKey());
+      if (measured == null) {
+        continue;
+      }
+      compared++;
+      String label = label(entry.getKey());
+      long[] expected = entry.getValue();
+      if (regressed(
+          measured[0], expected[0], maxTimeRatio, (long) (maxTimeIncreaseMillis * 1_000_000L))) {
+        regressions.add(
+            String.format(
+                "%s median time regressed to %s from %s (%.2fx)",
+                label,
+                SolutionReport.formatNanos(measured[0]),
+                SolutionReport.formatNanos(expected[0]),
+                ratio(measured[0], expected[0])));
+      }
+      if (measured[1] >= 0
+          && expected[1] >= 0
+          && regressed(measured[1], expected[1], maxAllocationRatio, maxAllocationIncreaseBytes)) {
+        regressions.add(
+            String.format(
+                "%s allocations regressed to %s from %s per operation (%.2fx)",
+                label,
+                MetricsReport.formatBytes(measured[1]),
+                MetricsReport.formatBytes(expected[1]),
+                ratio(measured[1], expected[1])));
+      }
+    }
+    if (regressions.isEmpty()) {
+      getLog()
+          .info(
+              String.format(
+                  "No performance regressions in %d part(s) compared with the baseline", compared));
+      return;
+    }
+    for (String regression : regressions) {
+      if (failOnRegression) {
+        getLog().error(regression);
+      } else {
+        getLog().warn(regression);
+      }
+    }
+    if (failOnRegression) {
+      throw new MojoFailureException(
+          String.format(
+              "%d performance regression(s) against the baseline at %s",
+              regressions.size(), baselinePath));
+    }
+  }
+
+  /** Reports parts measured unlike the baseline, failing the build when regressions would. */
+  private void refuse(List<String> mismatches, Path baselinePath) throws MojoFailureException {
+    for (String mismatch : mismatches) {
+      if (failOnRegression) {
+        getLog().error(mismatch);
+      } else {
+        getLog().warn(mismatch);
+      }
+    }
+    String message =
+        String.format(
+            "Refusing to compare %d part(s) measured with a different parallelism than the"
+                + " baseline at %s, run run-solutions with the baseline's -Dparallelism or refresh"
+                + " the baseline with -Daoc.updateBaseline=true",
+            mismatches.size(), baselinePath);
+    if (failOnRegression) {
+      throw new MojoFailureException(message);
+    }
+    getLog().warn(message);
+  }
+
+  private static String describeParallelism(long parallelism) {
+    return parallelism > 0 ? "parallelism " + parallelism : "the default parallelism";
+  }
+
+  private static boolean regressed(long measured, long expected, double ratio, long increase) {
+    return (ratio > 0 && measured > expected * ratio)
+        || (increase > 0 && measured - expected > increase);
+  }
+
+  private static double ratio(long measured, long expected) {
+    return expected == 0 ? Double.POSITIVE_INFINITY : (double) measured / expected;
+  }
+
+  private static String label(String key) {
+    int separator = key.lastIndexOf('#');
+    DaySolution solution = SolutionScanner.fromClassName(key.substring(0, separator));
+    String name = solution == null ? key.substring(0, separator) : solution.getLabel();
+    return name + " part " + key.substring(separator + 1);
+  }
+
+  public MavenProject getProject() {
+    return project;
+  }
+
+  public File getReportFile() {
+    if (reportFile == null) {
+      return Paths.get(project.getBuild().getDirectory(), "aoc-generator", SolutionReport.CSV_FILE)
+          .toFile();
+    }
+    return reportFile;
+  }
+
+  public File getBaselineFile() {
+    if (baselineFile == null) {
+      return new File(project.getBasedir(), "aoc-baseline.csv");
+    }
+    return baselineFile;
+  }
+
+  public double getMaxTimeRatio() {
+    return maxTimeRatio;
+  }
+
+  public double getMaxTimeIncreaseMillis() {
+    return maxTimeIncreaseMillis;
+  }
+
+  public double getMaxAllocationRatio() {
+    return maxAllocationRatio;
+  }
+
+  public long getMaxAllocationIncreaseBytes() {
+    return maxAllocationIncreaseBytes;
+  }
+
+  public boolean isFailOnRegression() {
+    return failOnRegression;
+  }
+
+  public boolean isUpdateBaseline() {
+    return updateBaseline;
+  }
+
+  public void setProject(MavenProject project) {
+    this.project = project;
+  }
+
+  public void setReportFile(File reportFile) {
+    this.reportFile = reportFile;
+  }
+
+  public void setBaselineFile(File baselineFile) {
+    this.baselineFile = baselineFile;
+  }
+
+  public void setMaxTimeRatio(double maxTimeRatio) {
+    this.maxTimeRatio = maxTimeRatio;
+  }
+
+  public void setMaxTimeIncreaseMillis(double maxTimeIncreaseMillis) {
+    this.maxTimeIncreaseMillis = maxTimeIncreaseMillis;
+  }
+
+  public void setMaxAllocationRatio(double maxAllocationRatio) {
+    this.maxAllocationRatio = maxAllocationRatio;
+  }
+
+  public void setMaxAllocationIncreaseBytes(long maxAllocationIncreaseBytes) {
+    this.maxAllocationIncreaseBytes = maxAllocationIncreaseBytes;
+  }
+
+  public void setFailOnRegression(boolean failOnRegression) {
+    this.failOnRegression = failOnRegression;
+  }
+
+  public void setUpdateBaseline(boolean updateBaseline) {
+    this.updateBaseline = updateBaseline;
+  }
+}
@@ -0,0 +1,270 @@
+package net.ddellspe;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Goal which profiles a part of a compiled day with Java Flight Recorder. The part is run
+ * repeatedly for a fixed duration under a recording started in-process, the recording is saved as a
+ * {@code .jfr} file and the most sampled methods, largest allocation sites and garbage collection
+ * pauses are printed. The project must be compiled before this goal runs.
+ */
+@Mojo(
+    name = "profile",
+    defaultPhase = LifecyclePhase.NONE,
+    requiresDependencyResolution = ResolutionScope.RUNTIME)
+public class AocProfileMojo extends AbstractMojo {
+
+  @Parameter(defaultValue = "${project}", required = true, readonly = true)
+  private MavenProject project = null;
+
+  /** The day to profile, defaults to the current day of the month in US eastern time. */
+  @Parameter(defaultValue = "-1", property = "day", readonly = true)
+  private int day = -1;
+
+  /** The year package of the day, 0 when the days are not grouped by year. */
+  @Parameter(defaultValue = "0", property = "year", readonly = true)
+  private int year = 0;
+
+  @Parameter(defaultValue = "true", property = "useDayPackage", readonly = true)
+  private boolean useDayPackage = true;
+
+  /** The part to profile, 1 or 2, or 0 to profile both parts one after the other. */
+  @Parameter(defaultValue = "1", property = "part", readonly = true)
+  private int part = 1;
+
+  /** Name of the input resource passed to the part. */
+  @Parameter(defaultValue = "input.txt", property = "inputName", readonly = true)
+  private String inputName = "input.txt";
+
+  /** Keep invoking the part until it has run for this many milliseconds. */
+  @Parameter(defaultValue = "5000", property = "durationMillis", readonly = true)
+  private long durationMillis = 5000L;
+
+  /** Interval between execution samples of the part's thread. */
+  @Parameter(defaultValue = "10", property = "samplePeriodMillis", readonly = true)
+  private long samplePeriodMillis = 10L;
+
+  /** Number of methods, allocation sites and pauses printed. */
+  @Parameter(defaultValue = "10", property = "top", readonly = true)
+  private int top = 10;
+
+  /** Directory the {@code .jfr} recordings are written to. */
+  @Parameter(
+      defaultValue = "${project.build.directory}/aoc-generator/profile",
+      property = "profileDirectory",
+      readonly = true)
+  private File profileDirectory = null;
+
+  public AocProfileMojo() {}
+
+  @VisibleForTesting
+  protected AocProfileMojo(MavenProject project, int day, int part, long durationMillis) {
+    this.project = project;
+    this.day = day;
+    this.part = part;
+    this.durationMillis = durationMillis;
+  }
+
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    if (part < 0 || part > 2) {
+      throw new MojoExecutionException("Unknown part: " + part + ", expected 1, 2 or 0 for both");
+    }
+    if (day < 0) {
+      day = DayLayout.today();
+    }
+    DayLayout layout = new DayLayout(project.getGroupId(), year, day, useDayPackage);
+    DaySolution solution =
+        new DaySolution(layout.getPackage() + "." + layout.getClassName(), year, day);
+    List<Integer> parts = new ArrayList<>();
+    if (part == 0 || part == 1) {
+      parts.add(1);
+    }
+    if (part == 0 || part == 2) {
+      parts.add(2);
+    }
+    List<String> failures = new ArrayList<>();
+    try (URLClassLoader loader = createClassLoader()) {
+      SolutionProfiler profiler =
+          new SolutionProfiler(loader, inputName, durationMillis, samplePeriodMillis);
+      for (int profiled : parts) {
+        profile(profiler, layout, solution, profiled, failures);
+      }
+    } catch (IOException e) {
+      throw new MojoExecutionException("Unable to close solution class loader", e);
+    }
+    if (!failures.isEmpty()) {
+      throw new MojoFailureException("Profiled part(s) failed: " + String.join(", ", failures));
+    }
+  }
+
+  /** Records one part and logs its summary, collecting the failure of a part that threw. */
+  private void profile(
+      SolutionProfiler profiler,
+      DayLayout layout,
+      DaySolution solution,
+      int profiled,
+      List<String> failures)
+      throws MojoExecutionException {
+    Path recording =
+        getProfileDirectory()
+            .toPath()
+            .resolve(String.format("%s-part%d.jfr", layout.getClassName(), profiled));
+    getLog()
+        .info(
+            String.format(
+                "Profiling %s part %d on %s for %d ms",
+                layout.getLabel(), profiled, inputName, durationMillis));
+    PartResult result;
+    SolutionProfiler.Summary summary = null;
+    try {
+      Files.deleteIfExists(recording);
+      result = profiler.record(solution, profiled, recording);
+      // a part which could not be loaded is never recorded
+      if (Files.isRegularFile(recording)) {
+        summary = SolutionProfiler.summarize(recording);
+      }
+    } catch (IOException e) {
+      throw new MojoExecutionException("Unable to record " + recording, e);
+    }
+    String label = String.format("%s part %d", layout.getLabel(), profiled);
+    if (result.getError() != null) {
+      failures.add(label + ": " + result.getError());
+      getLog().error(label + " failed: " + result.getError());
+    } else {
+      getLog()
+          .info(
+              String.format(
+                  "%s answer %d, %d invocation(s), median %.3f ms",
+                  label,
+                  result.getAnswer(),
+                  result.getIterations(),
+                  result.getMedianNanos() / 1_000_000.0));
+    }
+    if (summary == null) {
+      return;
+    }
+    for (String line : summary.table(top)) {
+      getLog().info(line);
+    }
+    getLog().info("Recording written to: " + recording);
+  }
+
+  /**
+   * Loads the project classes in isolation from the plugin's own dependencies, with the platform
+   * class loader as parent.
+   */
+  private URLClassLoader createClassLoader() throws MojoExecutionException {
+    List<URL> urls = new ArrayList<>();
+    try {
+      for (String element : project.getRuntimeClasspathElements()) {
+        urls.add(new File(element).toURI().toURL());
+      }
+    } catch (DependencyResolutionRequiredException | MalformedURLException e) {
+      throw new MojoExecutionException("Unable to resolve the project runtime classpath", e);
+    }
+    return new URLClassLoader(urls.toArray(new URL[0]), ClassLoader.getPlatformClassLoader());
+  }
+
+  public MavenProject getProject() {
+    return project;
+  }
+
+  public int getDay() {
+    return day;
+  }
+
+  public int getYear() {
+    return year;
+  }
+
+  public boolean isUseDayPackage() {
+    return useDayPackage;
+  }
+
+  public int getPart() {
+    return part;
+  }
+
+  public String getInputName() {
+    return inputName;
+  }
+
+  public long getDurationMillis() {
+    return durationMillis;
+  }
+
+  public long getSamplePeriodMillis() {
+    return samplePeriodMillis;
+  }
+
+  public int getTop() {
+    return top;
+  }
+
+  public File getProfileDirectory() {
+    if (profileDirectory == null) {
+      return Paths.get(project.getBuild().getDirectory(), "aoc-generator", "profile").toFile();
+    }
+    return profileDirectory;
+  }
+
+  public void setProject(MavenProject project) {
+    this.project = project;
+  }
+
+  public void setDay(int day) {
+    this.day = day;
+  }
+
+  public void setYear(int year) {
+    this.year = year;
+  }
+
+  public void setUseDayPackage(boolean useDayPackage) {
+    this.useDayPackage = useDayPackage;
+  }
+
+  public void setPart(int part) {
+    this.part = part;
+  }
+
+  public void setInputName(String inputName) {
+    this.inputName = inputName;
+  }
+
+  public void setDurationMillis(long durationMillis) {
+    this.durationMillis = durationMillis;
+  }
+
+  public void setSamplePeriodMillis(long samplePeriodMillis) {
+    this.samplePeriodMillis = samplePeriodMillis;
+  }
+
+  public void setTop(int top) {
+    this.top = top;
+  }
+
+  public void setProfileDirectory(File profileDirectory) {
+    this.profileDirectory = profileDirectory;
+  }
+}
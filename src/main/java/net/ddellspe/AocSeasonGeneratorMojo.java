@@ -0,0 +1,179 @@
+package net.ddellspe;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Goal which generates the files for a whole range of days (and optionally several years) in a
+ * single invocation. Days are generated concurrently on a bounded pool and a single summary is
+ * logged instead of a line per file; warnings and errors are still logged individually.
+ */
+@Mojo(name = "generate-season", defaultPhase = LifecyclePhase.NONE, threadSafe = true)
+public class AocSeasonGeneratorMojo extends AbstractAocGeneratorMojo {
+
+  @Parameter(defaultValue = "1", property = "startDay", readonly = true)
+  private int startDay = 1;
+
+  @Parameter(defaultValue = "25", property = "endDay", readonly = true)
+  private int endDay = 25;
+
+  /** Years to generate, each placed in a "yearYYYY" package. When empty no year package is used. */
+  @Parameter(property = "years", readonly = true)
+  private List<Integer> years = new ArrayList<>();
+
+  /** Number of days generated concurrently, defaults to the number of available processors. */
+  @Parameter(defaultValue = "0", property = "threads", readonly = true)
+  private int threads = 0;
+
+  public AocSeasonGeneratorMojo() {}
+
+  @VisibleForTesting
+  protected AocSeasonGeneratorMojo(
+      MavenProject project, int startDay, int endDay, boolean force, boolean useDayPackage) {
+    super(project, force, useDayPackage);
+    this.startDay = startDay;
+    this.endDay = endDay;
+  }
+
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    if (startDay < 0 || endDay < startDay) {
+      throw new MojoExecutionException(
+          String.format("Invalid day range: %d to %d", startDay, endDay));
+    }
+    if (!isUseDayPackage() && (endDay > startDay || years.size() > 1)) {
+      throw new MojoExecutionException(
+          "useDayPackage must be enabled when generating more than one day");
+    }
+    List<DayLayout> layouts = new ArrayList<>();
+    for (int year : years.isEmpty() ? Collections.singletonList(0) : years) {
+      for (int d = startDay; d <= endDay; d++) {
+        layouts.add(new DayLayout(getProject().getGroupId(), year, d, isUseDayPackage()));
+      }
+    }
+    getLog()
+        .info(
+            String.format(
+                "Generating Advent of Code files for %d day(s) under package: %s",
+                layouts.size(), getProject().getGroupId()));
+    long start = System.nanoTime();
+    FileManifest manifest = loadManifest();
+    DayGenerator generator = createGenerator(manifest);
+    int poolSize =
+        Math.min(
+            layouts.size(), threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+    ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+    List<DayResult> results = new ArrayList<>();
+    try {
+      List<Future<DayResult>> futures = new ArrayList<>();
+      for (DayLayout layout : layouts) {
+        futures.add(executor.submit(() -> generator.generate(layout)));
+      }
+      if (isGenerateInputUtils()) {
+        futures.add(executor.submit(generator::generateInputUtils));
+      }
+      if (isCacheAnswers()) {
+        futures.add(executor.submit(generator::generateAnswerCache));
+      }
+      if (isInstrumentTests()) {
+        futures.add(executor.submit(generator::generateSolutionMetrics));
+      }
+      if (isParallelScaffold()) {
+        futures.add(executor.submit(generator::generateParallel));
+      }
+      if (isParallelTests()) {
+        futures.add(executor.submit(generator::generateJunitProperties));
+      }
+      if (generator.hasUtilTemplates()) {
+        futures.add(executor.submit(generator::generateUtilTemplates));
+      }
+      for (Future<DayResult> future : futures) {
+        results.add(future.get());
+      }
+      if (isPackInputs()) {
+        results.add(generator.saveInputArchives());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MojoExecutionException("Interrupted while generating files", e);
+    } catch (ExecutionException e) {
+      throw new MojoExecutionException("Unable to generate files", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+    applyPlan(generator);
+    saveManifest(manifest);
+    int written = 0;
+    int skipped = 0;
+    int unchanged = 0;
+    int failed = 0;
+    for (DayResult result : results) {
+      written += result.getWritten();
+      skipped += result.getSkipped();
+      unchanged += result.getUnchanged();
+      failed += result.getFailed();
+      for (DayResult.Message message : result.getMessages()) {
+        if (message.getLevel() == DayResult.Level.ERROR) {
+          getLog().error(message.getText());
+        } else if (message.getLevel() == DayResult.Level.WARN) {
+          getLog().warn(message.getText());
+        }
+      }
+    }
+    getLog()
+        .info(
+            String.format(
+                "Generated %d day(s) in %d ms: %d file(s) written, %d skipped, %d unchanged,"
+                    + " %d failed",
+                layouts.size(),
+                (System.nanoTime() - start) / 1_000_000L,
+                written,
+                skipped,
+                unchanged,
+                failed));
+  }
+
+  public int getStartDay() {
+    return startDay;
+  }
+
+  public int getEndDay() {
+    return endDay;
+  }
+
+  public List<Integer> getYears() {
+    return years;
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  public void setStartDay(int startDay) {
+    this.startDay = startDay;
+  }
+
+  public void setEndDay(int endDay) {
+    this.endDay = endDay;
+  }
+
+  public void setYears(List<Integer> years) {
+    this.years = years;
+  }
+
+  public void setThreads(int threads) {
+    this.threads = threads;
+  }
+}
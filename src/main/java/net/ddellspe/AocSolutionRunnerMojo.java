@@ -0,0 +1,313 @@
+package net.ddellspe;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Goal which runs the compiled day classes generated by this plugin in a single JVM, printing the
+ * answer and the median/p99 time of every part and writing the results as JSON and CSV. The project
+ * must be compiled (and its resources processed) before this goal runs.
+ *
+ * <p>Answers are cached in the report directory keyed by the hash of the input and of the compiled
+ * day class, so unchanged parts are reported from the cache without being run again. Their rows in
+ * the CSV report keep the timings of the run that solved them.
+ */
+@Mojo(
+    name = "run-solutions",
+    defaultPhase = LifecyclePhase.NONE,
+    requiresDependencyResolution = ResolutionScope.RUNTIME)
+public class AocSolutionRunnerMojo extends AbstractMojo {
+
+  @Parameter(defaultValue = "${project}", required = true, readonly = true)
+  private MavenProject project = null;
+
+  /** Only run the given day, all days are run when negative. */
+  @Parameter(defaultValue = "-1", property = "day", readonly = true)
+  private int day = -1;
+
+  @Parameter(defaultValue = "3", property = "warmupIterations", readonly = true)
+  private int warmupIterations = 3;
+
+  @Parameter(defaultValue = "10", property = "measurementIterations", readonly = true)
+  private int measurementIterations = 10;
+
+  /** Name of the input resource passed to every part. */
+  @Parameter(defaultValue = "input.txt", property = "inputName", readonly = true)
+  private String inputName = "input.txt";
+
+  /**
+   * Number of parts run concurrently, defaults to the number of available processors. Concurrent
+   * parts compete for cores and memory bandwidth, so use 1 for steadier timings. A parallelism set
+   * here is recorded in the CSV report and {@code check-performance} only compares it against a
+   * baseline measured with the same one, the default is recorded as 0 whatever the machine.
+   */
+  @Parameter(defaultValue = "0", property = "parallelism", readonly = true)
+  private int parallelism = 0;
+
+  /** Start the parts that took longest in the previous run first. */
+  @Parameter(defaultValue = "true", property = "longestFirst", readonly = true)
+  private boolean longestFirst = true;
+
+  /**
+   * Interrupt and report parts running longer than this many milliseconds, 0 to disable. A part
+   * that ignores the interrupt, such as a CPU-bound loop, cannot be stopped and keeps running on a
+   * daemon thread until it returns or Maven exits.
+   */
+  @Parameter(defaultValue = "0", property = "timeoutMillis", readonly = true)
+  private long timeoutMillis = 0L;
+
+  /** Always run every part, neither reading nor updating the answer cache. */
+  @Parameter(defaultValue = "false", property = "aoc.cache.bypass", readonly = true)
+  private boolean bypassCache = false;
+
+  /** Evict cached answers that have not been used for this many days. */
+  @Parameter(defaultValue = "30", property = "aoc.cache.maxAgeDays", readonly = true)
+  private int cacheMaxAgeDays = 30;
+
+  /** Keep at most this many cached answers, evicting the least recently used ones. */
+  @Parameter(defaultValue = "1000", property = "aoc.cache.maxEntries", readonly = true)
+  private int cacheMaxEntries = AnswerCache.DEFAULT_MAX_ENTRIES;
+
+  /** Directory the JSON and CSV reports and the answer cache are written to. */
+  @Parameter(
+      defaultValue = "${project.build.directory}/aoc-generator",
+      property = "reportDirectory",
+      readonly = true)
+  private File reportDirectory = null;
+
+  public AocSolutionRunnerMojo() {}
+
+  @VisibleForTesting
+  protected AocSolutionRunnerMojo(
+      MavenProject project, int warmupIterations, int measurementIterations) {
+    this.project = project;
+    this.warmupIterations = warmupIterations;
+    this.measurementIterations = measurementIterations;
+  }
+
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    List<DaySolution> solutions;
+    try {
+      solutions =
+          SolutionScanner.scan(
+                  Paths.get(project.getBuild().getOutputDirectory()), project.getGroupId())
+              .stream()
+              .filter(solution -> day < 0 || solution.getDay() == day)
+              .collect(Collectors.toList());
+    } catch (IOException e) {
+      throw new MojoExecutionException("Unable to scan for compiled solutions", e);
+    }
+    if (solutions.isEmpty()) {
+      getLog()
+          .warn(
+              "No compiled solutions found in "
+                  + project.getBuild().getOutputDirectory()
+                  + ", compile the project before running this goal");
+      return;
+    }
+    getLog()
+        .info(
+            String.format(
+                "Running %d solution(s) with %d warmup and %d measurement iteration(s)",
+                solutions.size(), warmupIterations, measurementIterations));
+    Path reportRoot = getReportDirectory().toPath();
+    Map<String, long[]> previous = Collections.emptyMap();
+    try {
+      previous = SolutionReport.readTimings(reportRoot.resolve(SolutionReport.CSV_FILE));
+    } catch (IOException | RuntimeException e) {
+      getLog().warn("Unable to read previous solution timings: " + e.getMessage());
+    }
+    AnswerCache answerCache = null;
+    if (!bypassCache) {
+      try {
+        answerCache =
+            AnswerCache.load(
+                reportRoot.resolve(AnswerCache.FILE),
+                TimeUnit.DAYS.toMillis(cacheMaxAgeDays),
+                cacheMaxEntries);
+      } catch (IOException | RuntimeException e) {
+        getLog().warn("Unable to read the answer cache: " + e.getMessage());
+      }
+    }
+    int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    List<PartResult> results;
+    try (URLClassLoader loader = createClassLoader()) {
+      results =
+          new SolutionRunner(
+                  loader,
+                  inputName,
+                  warmupIterations,
+                  measurementIterations,
+                  threads,
+                  timeoutMillis,
+                  answerCache)
+              .runAll(
+                  solutions,
+                  longestFirst ? SolutionReport.medians(previous) : Collections.emptyMap());
+    } catch (IOException e) {
+      throw new MojoExecutionException("Unable to close solution class loader", e);
+    }
+    for (String line : SolutionReport.table(results)) {
+      getLog().info(line);
+    }
+    for (String part : SolutionRunner.runawayParts()) {
+      getLog()
+          .warn(
+              part
+                  + " timed out and is still running, it cannot be stopped until it returns or"
+                  + " Maven exits");
+    }
+    try {
+      SolutionReport.writeJson(reportRoot.resolve(SolutionReport.JSON_FILE), results);
+      SolutionReport.writeCsv(
+          reportRoot.resolve(SolutionReport.CSV_FILE), results, Math.max(0, parallelism), previous);
+    } catch (IOException e) {
+      throw new MojoExecutionException("Unable to write solution reports", e);
+    }
+    if (answerCache != null) {
+      try {
+        answerCache.save();
+      } catch (IOException e) {
+        getLog().warn("Unable to write the answer cache: " + e.getMessage());
+      }
+    }
+    getLog().info("Solution reports written to: " + reportRoot);
+  }
+
+  /**
+   * Loads the project classes in isolation from the plugin's own dependencies, with the platform
+   * class loader as parent.
+   */
+  private URLClassLoader createClassLoader() throws MojoExecutionException {
+    List<URL> urls = new ArrayList<>();
+    try {
+      for (String element : project.getRuntimeClasspathElements()) {
+        urls.add(new File(element).toURI().toURL());
+      }
+    } catch (DependencyResolutionRequiredException | MalformedURLException e) {
+      throw new MojoExecutionException("Unable to resolve the project runtime classpath", e);
+    }
+    return new URLClassLoader(urls.toArray(new URL[0]), ClassLoader.getPlatformClassLoader());
+  }
+
+  public MavenProject getProject() {
+    return project;
+  }
+
+  public int getDay() {
+    return day;
+  }
+
+  public int getWarmupIterations() {
+    return warmupIterations;
+  }
+
+  public int getMeasurementIterations() {
+    return measurementIterations;
+  }
+
+  public String getInputName() {
+    return inputName;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  public boolean isLongestFirst() {
+    return longestFirst;
+  }
+
+  public long getTimeoutMillis() {
+    return timeoutMillis;
+  }
+
+  public boolean isBypassCache() {
+    return bypassCache;
+  }
+
+  public int getCacheMaxAgeDays() {
+    return cacheMaxAgeDays;
+  }
+
+  public int getCacheMaxEntries() {
+    return cacheMaxEntries;
+  }
+
+  public File getReportDirectory() {
+    if (reportDirectory == null) {
+      return Paths.get(project.getBuild().getDirectory(), "aoc-generator").toFile();
+    }
+    return reportDirectory;
+  }
+
+  public void setProject(MavenProject project) {
+    this.project = project;
+  }
+
+  public void setDay(int day) {
+    this.day = day;
+  }
+
+  public void setWarmupIterations(int warmupIterations) {
+    this.warmupIterations = warmupIterations;
+  }
+
+  public void setMeasurementIterations(int measurementIterations) {
+    this.measurementIterations = measurementIterations;
+  }
+
+  public void setInputName(String inputName) {
+    this.inputName = inputName;
+  }
+
+  public void setParallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  public void setLongestFirst(boolean longestFirst) {
+    this.longestFirst = longestFirst;
+  }
+
+  public void setTimeoutMillis(long timeoutMillis) {
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  public void setBypassCache(boolean bypassCache) {
+    this.bypassCache = bypassCache;
+  }
+
+  public void setCacheMaxAgeDays(int cacheMaxAgeDays) {
+    this.cacheMaxAgeDays = cacheMaxAgeDays;
+  }
+
+  public void setCacheMaxEntries(int cacheMaxEntries) {
+    this.cacheMaxEntries = cacheMaxEntries;
+  }
+
+  public void setReportDirectory(File reportDirectory) {
+    this.reportDirectory = reportDirectory;
+  }
+}
@@ -0,0 +1,154 @@
+package net.ddellspe;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.model.Resource;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Goal which watches a single day, resolved the same way as {@code generate-day}, and recompiles
+ * and re-runs both parts against {@code example.txt} and {@code input.txt} whenever the day's
+ * sources or inputs change. It runs until interrupted, e.g. with Ctrl+C.
+ */
+@Mojo(
+    name = "watch",
+    defaultPhase = LifecyclePhase.NONE,
+    requiresDependencyResolution = ResolutionScope.COMPILE)
+public class AocWatchMojo extends AbstractMojo {
+
+  @Parameter(defaultValue = "${project}", required = true, readonly = true)
+  private MavenProject project = null;
+
+  /** The day to watch, defaults to the current day of the month in US eastern time. */
+  @Parameter(defaultValue = "-1", property = "day", readonly = true)
+  private int day = -1;
+
+  /** The year package of the day, 0 when the days are not grouped by year. */
+  @Parameter(defaultValue = "0", property = "year", readonly = true)
+  private int year = 0;
+
+  @Parameter(defaultValue = "true", property = "useDayPackage", readonly = true)
+  private boolean useDayPackage = true;
+
+  /**
+   * Interrupt and report parts running longer than this many milliseconds, 0 to disable. A part
+   * that ignores the interrupt, such as a CPU-bound loop, cannot be stopped and keeps running on a
+   * daemon thread until it returns or Maven exits.
+   */
+  @Parameter(defaultValue = "10000", property = "timeoutMillis", readonly = true)
+  private long timeoutMillis = 10000L;
+
+  /** Stop after this many runs, 0 to keep watching until interrupted. */
+  @Parameter(defaultValue = "0", property = "maxRuns", readonly = true)
+  private int maxRuns = 0;
+
+  public AocWatchMojo() {}
+
+  @VisibleForTesting
+  protected AocWatchMojo(MavenProject project, int day, boolean useDayPackage) {
+    this.project = project;
+    this.day = day;
+    this.useDayPackage = useDayPackage;
+  }
+
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    if (day < 0) {
+      day = DayLayout.today();
+    }
+    DayLayout layout = new DayLayout(project.getGroupId(), year, day, useDayPackage);
+    List<Path> resourceRoots = new ArrayList<>();
+    for (Resource resource : project.getBuild().getTestResources()) {
+      resourceRoots.add(Paths.get(resource.getDirectory()));
+    }
+    for (Resource resource : project.getBuild().getResources()) {
+      resourceRoots.add(Paths.get(resource.getDirectory()));
+    }
+    List<Path> classpath = new ArrayList<>();
+    try {
+      for (String element : project.getCompileClasspathElements()) {
+        classpath.add(Paths.get(element));
+      }
+    } catch (DependencyResolutionRequiredException e) {
+      throw new MojoExecutionException("Unable to resolve the project compile classpath", e);
+    }
+    DayWatcher watcher =
+        new DayWatcher(
+            layout,
+            Paths.get(project.getBuild().getSourceDirectory()),
+            resourceRoots,
+            classpath,
+            Paths.get(project.getBuild().getDirectory(), "aoc-generator", "watch", "classes"),
+            timeoutMillis,
+            getLog());
+    getLog().info("Watching " + layout.getPackage() + "." + layout.getClassName());
+    try {
+      watcher.watch(maxRuns);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      getLog().info("Stopped watching " + layout.getLabel());
+    } catch (IOException e) {
+      throw new MojoExecutionException("Unable to watch " + layout.getLabel(), e);
+    }
+  }
+
+  public MavenProject getProject() {
+    return project;
+  }
+
+  public int getDay() {
+    return day;
+  }
+
+  public int getYear() {
+    return year;
+  }
+
+  public boolean isUseDayPackage() {
+    return useDayPackage;
+  }
+
+  public long getTimeoutMillis() {
+    return timeoutMillis;
+  }
+
+  public int getMaxRuns() {
+    return maxRuns;
+  }
+
+  public void setProject(MavenProject project) {
+    this.project = project;
+  }
+
+  public void setDay(int day) {
+    this.day = day;
+  }
+
+  public void setYear(int year) {
+    this.year = year;
+  }
+
+  public void setUseDayPackage(boolean useDayPackage) {
+    this.useDayPackage = useDayPackage;
+  }
+
+  public void setTimeoutMillis(long timeoutMillis) {
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  public void setMaxRuns(int maxRuns) {
+    this.maxRuns = maxRuns;
+  }
+}
@@ -0,0 +1,159 @@
+package net.ddellspe;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The files of an application Class Data Sharing archive in a directory: the archive itself, the
+ * fingerprint it was dumped for and the jars standing in for classpath directories, which the JVM
+ * refuses to archive classes from. The fingerprint covers the JVM and every classpath entry, with
+ * the content of directories, so recompiling a day invalidates the archive.
+ */
+final class CdsArchive {
+  static final String ARCHIVE_FILE = "app.jsa";
+  static final String FINGERPRINT_FILE = "app.fingerprint";
+  static final String ARGS_FILE = "launch.args";
+  static final String CLASSPATH_DIRECTORY = "classpath";
+
+  private final Path directory;
+
+  CdsArchive(Path directory) {
+    this.directory = directory;
+  }
+
+  Path getArchive() {
+    return directory.resolve(ARCHIVE_FILE);
+  }
+
+  Path getArgsFile() {
+    return directory.resolve(ARGS_FILE);
+  }
+
+  /**
+   * Hashes the JVM and the classpath: jars by path, size and modification time, directories by the
+   * path and content of every file below them, except the files of this archive.
+   */
+  String fingerprint(List<Path> classpath) throws IOException {
+    StringBuilder builder = new StringBuilder();
+    builder
+        .append(System.getProperty("java.home"))
+        .append('\n')
+        .append(System.getProperty("java.vm.version"))
+        .append('\n');
+    for (Path entry : classpath) {
+      builder.append(entry).append('\n');
+      if (Files.isDirectory(entry)) {
+        for (Path file : files(entry)) {
+          builder
+              .append(entry.relativize(file))
+              .append(':')
+              .append(FileManifest.hash(Files.readAllBytes(file)))
+              .append('\n');
+        }
+      } else if (Files.isRegularFile(entry)) {
+        builder
+            .append(Files.size(entry))
+            .append(':')
+            .append(Files.getLastModifiedTime(entry).toMillis())
+            .append('\n');
+      }
+    }
+    return FileManifest.hash(builder.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** Whether the archive exists and was dumped for the given fingerprint. */
+  boolean isUpToDate(String fingerprint) throws IOException {
+    Path stored = directory.resolve(FINGERPRINT_FILE);
+    return Files.isRegularFile(getArchive())
+        && Files.isRegularFile(stored)
+        && fingerprint.equals(new String(Files.readAllBytes(stored), StandardCharsets.UTF_8));
+  }
+
+  void saveFingerprint(String fingerprint) throws IOException {
+    GenerationPlan.writeAtomically(
+        directory.resolve(FINGERPRINT_FILE), fingerprint.getBytes(StandardCharsets.UTF_8), true);
+  }
+
+  /**
+   * The classpath of the forked JVMs, with every directory replaced by a jar of its content. The
+   * jars are only rewritten when {@code pack} is set, so an up to date archive keeps matching them.
+   */
+  List<Path> archivableClasspath(List<Path> classpath, boolean pack) throws IOException {
+    Path jars = directory.resolve(CLASSPATH_DIRECTORY);
+    if (pack) {
+      Files.createDirectories(jars);
+    }
+    List<Path> archivable = new ArrayList<>();
+    for (int i = 0; i < classpath.size(); i++) {
+      Path entry = classpath.get(i);
+      if (!Files.isDirectory(entry)) {
+        archivable.add(entry);
+        continue;
+      }
+      Path jar = jars.resolve(String.format("%02d-%s.jar", i, entry.getFileName()));
+      if (pack) {
+        GenerationPlan.writeAtomically(jar, pack(entry), true);
+      }
+      archivable.add(jar);
+    }
+    return archivable;
+  }
+
+  /** The directory as a jar, with its entries in a stable order. */
+  private byte[] pack(Path root) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (JarOutputStream jar = new JarOutputStream(bytes)) {
+      for (Path file : files(root)) {
+        String name = root.relativize(file).toString().replace(File.separatorChar, '/');
+        JarEntry entry = new JarEntry(name);
+        entry.setTime(Files.getLastModifiedTime(file).toMillis());
+        jar.putNextEntry(entry);
+        Files.copy(file, jar);
+        jar.closeEntry();
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  /** Every regular file below the root in a stable order, leaving out this archive's files. */
+  private List<Path> files(Path root) throws IOException {
+    Path own = directory.toAbsolutePath().normalize();
+    try (Stream<Path> files = Files.walk(root)) {
+      List<Path> found =
+          files
+              .filter(Files::isRegularFile)
+              .filter(file -> !file.toAbsolutePath().normalize().startsWith(own))
+              .sorted()
+              .collect(Collectors.toList());
+      return Collections.unmodifiableList(found);
+    }
+  }
+
+  /**
+   * Writes a {@code java} argument file launching the solutions on the archive, so that {@code
+   * java @launch.args} starts with the archived classes.
+   */
+  void writeArgsFile(List<String> arguments) throws IOException {
+    StringBuilder builder = new StringBuilder();
+    for (String argument : arguments) {
+      builder
+          .append('"')
+          .append(argument.replace("\\", "\\\\").replace("\"", "\\\""))
+          .append('"')
+          .append('\n');
+    }
+    GenerationPlan.writeAtomically(
+        getArgsFile(), builder.toString().getBytes(StandardCharsets.UTF_8), true);
+  }
+}
@@ -0,0 +1,814 @@
+package net.ddellspe;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import javax.lang.model.element.Modifier;
+import org.apache.maven.project.MavenProject;
+import org.sonatype.plexus.build.incremental.BuildContext;
+
+/**
+ * Generates the source, test, input and example files for a day. The specs that are identical for
+ * every day are built once when the generator is created, so a single instance can be shared by any
+ * number of days, including from multiple threads.
+ *
+ * <p>Generating only renders the files into a {@link GenerationPlan}, nothing is written until
+ * {@link #applyPlan} writes the files of every day in one pass.
+ *
+ * <p>A user template of the {@link TemplateSet} takes the place of the built-in shape of its file,
+ * the options shaping the built-in files do not apply to templated ones.
+ */
+final class DayGenerator {
+  private static final ClassName TEST = ClassName.get("org.junit.jupiter.api", "Test");
+  private static final ClassName ASSERTIONS = ClassName.get("org.junit.jupiter.api", "Assertions");
+  private static final ClassName ASSUMPTIONS =
+      ClassName.get("org.junit.jupiter.api", "Assumptions");
+  private static final ClassName EXECUTION =
+      ClassName.get("org.junit.jupiter.api.parallel", "Execution");
+  private static final ClassName EXECUTION_MODE =
+      ClassName.get("org.junit.jupiter.api.parallel", "ExecutionMode");
+  private static final ClassName PARAMETERIZED_TEST =
+      ClassName.get("org.junit.jupiter.params", "ParameterizedTest");
+  private static final ClassName METHOD_SOURCE =
+      ClassName.get("org.junit.jupiter.params.provider", "MethodSource");
+  private static final String JMH_PACKAGE = "org.openjdk.jmh.annotations";
+  private static final ClassName JMH_BENCHMARK = ClassName.get(JMH_PACKAGE, "Benchmark");
+  private static final ClassName JMH_BENCHMARK_MODE = ClassName.get(JMH_PACKAGE, "BenchmarkMode");
+  private static final ClassName JMH_FORK = ClassName.get(JMH_PACKAGE, "Fork");
+  private static final ClassName JMH_MEASUREMENT = ClassName.get(JMH_PACKAGE, "Measurement");
+  private static final ClassName JMH_MODE = ClassName.get(JMH_PACKAGE, "Mode");
+  private static final ClassName JMH_OUTPUT_TIME_UNIT =
+      ClassName.get(JMH_PACKAGE, "OutputTimeUnit");
+  private static final ClassName JMH_SCOPE = ClassName.get(JMH_PACKAGE, "Scope");
+  private static final ClassName JMH_SETUP = ClassName.get(JMH_PACKAGE, "Setup");
+  private static final ClassName JMH_STATE = ClassName.get(JMH_PACKAGE, "State");
+  private static final ClassName JMH_WARMUP = ClassName.get(JMH_PACKAGE, "Warmup");
+
+  private final String groupId;
+  private final File sourceDirectory;
+  private final File testSourceDirectory;
+  private final String resourceDirectory;
+  private final String testResourceDirectory;
+  private final InputUtilsGenerator inputUtilsGenerator;
+  private final ClassName inputUtils;
+  private final AnswerCacheGenerator answerCacheGenerator;
+  private final SolutionMetricsGenerator solutionMetricsGenerator;
+  private final ParallelGenerator parallelGenerator;
+  private final InputArchive inputArchive;
+  private final InputArchive exampleArchive;
+  private final boolean force;
+  private final BuildContext buildContext;
+  private final FileManifest manifest;
+  private final GenerationOptions options;
+  private final MethodSpec sourceConstructor;
+  private final MethodSpec testConstructor;
+
+  // members which do not mention the day class, built once and shared by every generated day
+  private final List<MethodSpec> stubParts;
+  private final List<MethodSpec> itemSolvers;
+  private final List<AnnotationSpec> benchmarkAnnotations;
+
+  private final GenerationPlan plan = new GenerationPlan();
+
+  DayGenerator(
+      MavenProject project,
+      boolean force,
+      BuildContext buildContext,
+      FileManifest manifest,
+      GenerationOptions options) {
+    this.groupId = project.getGroupId();
+    this.sourceDirectory = new File(project.getBuild().getSourceDirectory());
+    this.testSourceDirectory = new File(project.getBuild().getTestSourceDirectory());
+    this.resourceDirectory = project.getBuild().getResources().get(0).getDirectory();
+    this.testResourceDirectory = project.getBuild().getTestResources().get(0).getDirectory();
+    this.inputUtilsGenerator = new InputUtilsGenerator(project.getGroupId());
+    this.inputUtils = inputUtilsGenerator.getClassName();
+    this.answerCacheGenerator = new AnswerCacheGenerator(project.getGroupId());
+    this.solutionMetricsGenerator = new SolutionMetricsGenerator(project.getGroupId());
+    this.parallelGenerator = new ParallelGenerator(project.getGroupId());
+    this.inputArchive = InputArchive.in(resourceDirectory);
+    this.exampleArchive = InputArchive.in(testResourceDirectory);
+    this.force = force;
+    this.buildContext = buildContext;
+    this.manifest = manifest;
+    this.options = options;
+    this.sourceConstructor = MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build();
+    this.testConstructor = MethodSpec.constructorBuilder().build();
+    this.stubParts =
+        Arrays.asList(
+            partMethodBuilder(1).addStatement("return 0L").build(),
+            partMethodBuilder(2).addStatement("return 0L").build());
+    this.itemSolvers = Arrays.asList(itemSolverMethod(1), itemSolverMethod(2));
+    this.benchmarkAnnotations =
+        Arrays.asList(
+            AnnotationSpec.builder(JMH_STATE).addMember("value", "$T.Benchmark", JMH_SCOPE).build(),
+            AnnotationSpec.builder(JMH_BENCHMARK_MODE)
+                .addMember("value", "$T.AverageTime", JMH_MODE)
+                .build(),
+            AnnotationSpec.builder(JMH_OUTPUT_TIME_UNIT)
+                .addMember("value", "$T.MICROSECONDS", TimeUnit.class)
+                .build(),
+            AnnotationSpec.builder(JMH_WARMUP).addMember("iterations", "$L", 3).build(),
+            AnnotationSpec.builder(JMH_MEASUREMENT).addMember("iterations", "$L", 5).build(),
+            AnnotationSpec.builder(JMH_FORK).addMember("value", "$L", 1).build());
+  }
+
+  /**
+   * Plans the files of the day, which are only written once the plan is applied. Files which exist
+   * (or are unchanged when forced) are reported right away.
+   */
+  DayResult generate(DayLayout layout) {
+    DayResult result = new DayResult(layout);
+    String cls = layout.getClassName();
+    File srcFile = Paths.get(sourceDirectory.getPath(), layout.getPath(), cls + ".java").toFile();
+    if (!srcFile.exists() || force) {
+      planWrite(
+          srcFile,
+          render(options.getTemplates().getSource(), layout, this::sourceFile),
+          result,
+          "Unable to create new java file: " + cls + ".java");
+    } else {
+      result.skipped("Source file already exists at: " + srcFile.getPath() + ". Skipping creation");
+    }
+    File tstFile =
+        Paths.get(testSourceDirectory.getPath(), layout.getPath(), cls + "Test.java").toFile();
+    if (!tstFile.exists() || force) {
+      planWrite(
+          tstFile,
+          render(options.getTemplates().getTest(), layout, this::testFile),
+          result,
+          "Unable to create new java test file: " + cls + "Test.java");
+    } else {
+      result.skipped(
+          "Test source file already exists at: " + tstFile.getPath() + ". Skipping creation");
+    }
+    if (options.isGenerateBenchmark()) {
+      File benchFile =
+          Paths.get(testSourceDirectory.getPath(), layout.getPath(), cls + "Benchmark.java")
+              .toFile();
+      if (!benchFile.exists() || force) {
+        planWrite(
+            benchFile,
+            render(options.getTemplates().getBenchmark(), layout, this::benchmarkFile),
+            result,
+            "Unable to create new java benchmark file: " + cls + "Benchmark.java");
+      } else {
+        result.skipped(
+            "Benchmark file already exists at: " + benchFile.getPath() + ". Skipping creation");
+      }
+    }
+    if (options.isParameterizedExamples()) {
+      createAnswers(layout, result);
+    }
+    if (options.isPackInputs()) {
+      register(inputArchive, resourceDirectory, layout, "input.txt", "Input", result);
+      register(exampleArchive, testResourceDirectory, layout, "example.txt", "Example", result);
+      return result;
+    }
+    createEmpty(resourceDirectory, layout, "input.txt", "Input", result);
+    createEmpty(testResourceDirectory, layout, "example.txt", "Example", result);
+    return result;
+  }
+
+  /** Plans an empty input or example file for the day, unless it exists and force is off. */
+  private void createEmpty(
+      String directory, DayLayout layout, String filename, String description, DayResult result) {
+    File file = Paths.get(directory, layout.getPath(), filename).toFile();
+    if (file.exists() && !force) {
+      result.skipped(
+          description + " file already exists at: " + file.getPath() + ". Skipping creation");
+      return;
+    }
+    String kind = description.toLowerCase(Locale.ROOT);
+    plan.create(
+        file.toPath(),
+        new byte[0],
+        result,
+        "Failed to create " + kind + " file for tests at: " + file.getPath(),
+        "Unable to create new " + kind + " file for tests at: " + file.getPath());
+  }
+
+  /**
+   * Plans the answers sidecar of {@code example.txt} with blank answers, which skip the part until
+   * they are filled in. Existing answers are never overwritten, not even with {@code force}.
+   */
+  private void createAnswers(DayLayout layout, DayResult result) {
+    File answersFile =
+        Paths.get(
+                testResourceDirectory,
+                layout.getPath(),
+                InputUtilsGenerator.EXAMPLE_PREFIX + InputUtilsGenerator.ANSWERS_EXTENSION)
+            .toFile();
+    if (answersFile.exists()) {
+      result.skipped(
+          "Example answers file already exists at: "
+              + answersFile.getPath()
+              + ". Skipping creation");
+      return;
+    }
+    plan.create(
+        answersFile.toPath(),
+        "# Expected answers for example.txt, a blank answer skips the part\npart1=\npart2=\n"
+            .getBytes(StandardCharsets.UTF_8),
+        result,
+        "Failed to create example answers file at: " + answersFile.getPath(),
+        "Unable to create new example answers file at: " + answersFile.getPath());
+  }
+
+  /**
+   * Adds an empty entry for the file to the archive, unless the day already has the loose file or
+   * an entry of that name.
+   */
+  private void register(
+      InputArchive archive,
+      String directory,
+      DayLayout layout,
+      String filename,
+      String description,
+      DayResult result) {
+    File looseFile = Paths.get(directory, layout.getPath(), filename).toFile();
+    if (looseFile.exists()) {
+      result.skipped(
+          description
+              + " file already exists at: "
+              + looseFile.getPath()
+              + ". Skipping archive entry");
+      return;
+    }
+    String name = layout.resourceName(filename);
+    try {
+      if (archive.contains(name)) {
+        result.skipped(
+            description
+                + " entry "
+                + name
+                + " already exists in: "
+                + archive.getLocation()
+                + ". Skipping creation");
+      } else {
+        archive.put(name, new byte[0]);
+        result.written();
+      }
+    } catch (IOException e) {
+      result.error("Unable to read input archive at: " + archive.getLocation());
+    }
+  }
+
+  /** Plans the input and example archives when {@link #generate} added entries to them. */
+  DayResult saveInputArchives() {
+    DayResult result = new DayResult(null);
+    for (InputArchive archive : Arrays.asList(inputArchive, exampleArchive)) {
+      if (!archive.isModified()) {
+        continue;
+      }
+      String error = "Unable to write input archive at: " + archive.getLocation();
+      try {
+        plan.write(archive.getLocation(), archive.encodeForSave(), result, error);
+      } catch (IOException e) {
+        result.error(error);
+      }
+    }
+    return result;
+  }
+
+  /** Generates the shared {@code utils.InputUtils} class used by every day to read its input. */
+  DayResult generateInputUtils() {
+    return generateUtil(inputUtilsGenerator.build(), "Input utils");
+  }
+
+  /** Generates the shared {@code utils.AnswerCache} class the cached solution tests go through. */
+  DayResult generateAnswerCache() {
+    return generateUtil(answerCacheGenerator.build(), "Answer cache");
+  }
+
+  /**
+   * Generates the shared {@code utils.SolutionMetrics} class the instrumented tests measure with.
+   */
+  DayResult generateSolutionMetrics() {
+    return generateUtil(solutionMetricsGenerator.build(), "Solution metrics");
+  }
+
+  /** Generates the shared {@code utils.Parallel} class the parallel scaffolds reduce with. */
+  DayResult generateParallel() {
+    return generateUtil(parallelGenerator.build(), "Parallel");
+  }
+
+  /**
+   * Creates the {@code junit-platform.properties} of the test resources, or sets the parallel
+   * execution keys of an existing one, running the day test classes concurrently.
+   */
+  DayResult generateJunitProperties() {
+    DayResult result = new DayResult(null);
+    File target = Paths.get(testResourceDirectory, JunitPlatformProperties.FILE_NAME).toFile();
+    String error = "Unable to write JUnit platform properties at: " + target.getPath();
+    String existing;
+    try {
+      existing =
+          target.isFile()
+              ? new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8)
+              : "";
+    } catch (IOException e) {
+      result.error(error);
+      return result;
+    }
+    String merged =
+        JunitPlatformProperties.merge(
+            existing, JunitPlatformProperties.settings(options.getTestParallelism()));
+    planWrite(target, merged.getBytes(StandardCharsets.UTF_8), result, error);
+    return result;
+  }
+
+  /** Whether the template directory has extra {@code utils} templates. */
+  boolean hasUtilTemplates() {
+    return !options.getTemplates().getUtils().isEmpty();
+  }
+
+  /** Renders every {@code utils} template of the template directory into the utils package. */
+  DayResult generateUtilTemplates() {
+    DayResult result = new DayResult(null);
+    String utilsPackage = inputUtils.packageName();
+    for (Map.Entry<String, Template> util : options.getTemplates().getUtils().entrySet()) {
+      Map<String, String> values = new HashMap<>();
+      values.put("groupId", groupId);
+      values.put("utilsPackage", utilsPackage);
+      values.put("package", utilsPackage);
+      values.put("className", util.getKey());
+      planUtil(utilsPackage, util.getKey(), util.getValue().render(values), util.getKey(), result);
+    }
+    return result;
+  }
+
+  private DayResult generateUtil(JavaFile javaFile, String description) {
+    DayResult result = new DayResult(null);
+    planUtil(
+        javaFile.packageName, javaFile.typeSpec.name, javaFile.toString(), description, result);
+    return result;
+  }
+
+  private void planUtil(
+      String packageName, String className, String content, String description, DayResult result) {
+    String name = className + ".java";
+    File target =
+        Paths.get(sourceDirectory.getPath(), packageName.split("\\.")).resolve(name).toFile();
+    if (!target.exists() || force) {
+      planWrite(
+          target,
+          content.getBytes(StandardCharsets.UTF_8),
+          result,
+          "Unable to create new java file: " + name);
+    } else {
+      result.skipped(
+          description + " file already exists at: " + target.getPath() + ". Skipping creation");
+    }
+  }
+
+  /** The user template rendered for the day, or the built-in shape when there is no template. */
+  private byte[] render(Template template, DayLayout layout, Function<DayLayout, JavaFile> shape) {
+    if (template == null) {
+      return shape.apply(layout).toString().getBytes(StandardCharsets.UTF_8);
+    }
+    Map<String, String> values = new HashMap<>();
+    values.put("groupId", layout.getGroupId());
+    values.put("utilsPackage", inputUtils.packageName());
+    values.put("package", layout.getPackage());
+    values.put("className", layout.getClassName());
+    values.put("day", Integer.toString(layout.getDay()));
+    values.put("paddedDay", String.format("%02d", layout.getDay()));
+    values.put("year", Integer.toString(layout.getYear()));
+    return template.render(values).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Plans to write the content unless the file on disk already holds the same content, so that
+   * regenerating an untouched day leaves modification times (and incremental builds) alone.
+   */
+  private void planWrite(File target, byte[] content, DayResult result, String error) {
+    try {
+      if (manifest.isUnchanged(target.toPath(), content)) {
+        result.unchanged("File is unchanged at: " + target.getPath() + ". Skipping write");
+        return;
+      }
+    } catch (IOException e) {
+      result.error(error);
+      return;
+    }
+    plan.write(target.toPath(), content, result, error);
+  }
+
+  /** The number of files planned and not yet written. */
+  int getPlannedFiles() {
+    return plan.size();
+  }
+
+  /** One line per planned file, for a dry run. */
+  List<String> describePlan() {
+    return plan.describe();
+  }
+
+  /** Writes every planned file, reporting the outcome to the results the files were planned for. */
+  void applyPlan() {
+    plan.apply(buildContext, manifest);
+  }
+
+  JavaFile sourceFile(DayLayout layout) {
+    String cls = layout.getClassName();
+    ClassName day = ClassName.get(layout.getPackage(), cls);
+    List<MethodSpec> methods = new ArrayList<>();
+    methods.add(sourceConstructor);
+    methods.add(partFromFileMethod(1, day));
+    methods.add(partMethod(1, day));
+    if (options.isParallelScaffold()) {
+      methods.add(itemSolvers.get(0));
+    }
+    methods.add(partFromFileMethod(2, day));
+    methods.add(partMethod(2, day));
+    if (options.isParallelScaffold()) {
+      methods.add(itemSolvers.get(1));
+    }
+    TypeSpec dayClass =
+        TypeSpec.classBuilder(cls).addModifiers(Modifier.PUBLIC).addMethods(methods).build();
+    return JavaFile.builder(layout.getPackage(), dayClass).skipJavaLangImports(true).build();
+  }
+
+  JavaFile testFile(DayLayout layout) {
+    String cls = layout.getClassName();
+    ClassName day = ClassName.get(layout.getPackage(), cls);
+    List<MethodSpec> methods = new ArrayList<>();
+    methods.add(testConstructor);
+    if (options.isParameterizedExamples()) {
+      methods.add(
+          MethodSpec.methodBuilder("examples")
+              .addModifiers(Modifier.STATIC)
+              .returns(ParameterizedTypeName.get(List.class, String.class))
+              .addStatement("return $T.examples($T.class)", inputUtils, day)
+              .build());
+    }
+    methods.add(providedInputTest(1, day));
+    methods.add(solutionTest(1, layout));
+    methods.add(providedInputTest(2, day));
+    methods.add(solutionTest(2, layout));
+    if (options.isParallelScaffold()) {
+      methods.add(parallelMatchesSequentialTest(1, day));
+      methods.add(parallelMatchesSequentialTest(2, day));
+    }
+    TypeSpec dayTestClass =
+        TypeSpec.classBuilder(cls + "Test")
+            .addModifiers(Modifier.PUBLIC)
+            .addMethods(methods)
+            .build();
+    JavaFile.Builder testFile =
+        JavaFile.builder(layout.getPackage(), dayTestClass)
+            .skipJavaLangImports(true)
+            .addStaticImport(ASSERTIONS, "assertEquals");
+    if (options.isParameterizedExamples()) {
+      testFile.addStaticImport(ASSUMPTIONS, "assumeTrue");
+    }
+    return testFile.build();
+  }
+
+  /**
+   * Benchmarks parsing and each part separately, with the input parsed once per trial in the
+   * {@code @Setup} method so the part benchmarks only measure solving.
+   */
+  JavaFile benchmarkFile(DayLayout layout) {
+    String cls = layout.getClassName();
+    ClassName day = ClassName.get(layout.getPackage(), cls);
+    TypeSpec.Builder benchmarkClass =
+        TypeSpec.classBuilder(cls + "Benchmark")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotations(benchmarkAnnotations);
+    if (options.getInputShape().isCloseable()) {
+      // a closeable input can only be consumed once, so every invocation reads it again
+      return JavaFile.builder(
+              layout.getPackage(),
+              benchmarkClass
+                  .addMethod(benchmarkPartMethod(1, day, CodeBlock.of("$S", "input.txt")))
+                  .addMethod(benchmarkPartMethod(2, day, CodeBlock.of("$S", "input.txt")))
+                  .build())
+          .skipJavaLangImports(true)
+          .build();
+    }
+    benchmarkClass
+        .addField(inputType(), "input", Modifier.PRIVATE)
+        .addMethod(
+            MethodSpec.methodBuilder("setup")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(JMH_SETUP)
+                .addStatement("input = $L", loadInput(CodeBlock.of("$S", "input.txt"), day))
+                .build())
+        .addMethod(
+            MethodSpec.methodBuilder("parse")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(JMH_BENCHMARK)
+                .returns(inputType())
+                .addStatement("return $L", loadInput(CodeBlock.of("$S", "input.txt"), day))
+                .build())
+        .addMethod(benchmarkPartMethod(1, day, CodeBlock.of("input")))
+        .addMethod(benchmarkPartMethod(2, day, CodeBlock.of("input")));
+    return JavaFile.builder(layout.getPackage(), benchmarkClass.build())
+        .skipJavaLangImports(true)
+        .build();
+  }
+
+  /** The type the input is parsed into before being handed to the parts. */
+  private TypeName inputType() {
+    switch (options.getInputShape()) {
+      case GRID:
+        return inputUtils.nestedClass("Grid");
+      case INTS:
+        return TypeName.get(int[].class);
+      case LONGS:
+        return TypeName.get(long[].class);
+      case BLOCKS:
+        return ParameterizedTypeName.get(List.class, ByteBuffer.class);
+      case STREAM:
+        return ParameterizedTypeName.get(Stream.class, String.class);
+      default:
+        return ParameterizedTypeName.get(List.class, String.class);
+    }
+  }
+
+  /** Expression parsing the named input of the given day class into {@link #inputType()}. */
+  private CodeBlock loadInput(CodeBlock filename, ClassName day) {
+    return CodeBlock.of(
+        "$T.$N($L, $T.class)", inputUtils, options.getInputShape().getUtilsMethod(), filename, day);
+  }
+
+  /**
+   * Statements parsing the named input and running {@code call} on it, where {@code call} has a
+   * single {@code $L} placeholder for the parsed input. Closeable input is read in
+   * try-with-resources, anything else is passed inline.
+   */
+  private CodeBlock withInput(CodeBlock filename, ClassName day, String call, Object... args) {
+    InputShape shape = options.getInputShape();
+    Object[] callArgs = Arrays.copyOf(args, args.length + 1);
+    if (shape.isCloseable()) {
+      callArgs[args.length] = CodeBlock.of("$N", shape.getParameterName());
+      return CodeBlock.builder()
+          .beginControlFlow(
+              "try ($T $N = $L)", inputType(), shape.getParameterName(), loadInput(filename, day))
+          .addStatement(call, callArgs)
+          .endControlFlow()
+          .build();
+    }
+    callArgs[args.length] = loadInput(filename, day);
+    return CodeBlock.builder().addStatement(call, callArgs).build();
+  }
+
+  private MethodSpec partFromFileMethod(int part, ClassName day) {
+    return MethodSpec.methodBuilder("part" + part)
+        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+        .returns(long.class)
+        .addParameter(String.class, "filename")
+        .addCode(withInput(CodeBlock.of("filename"), day, "return part$L($L)", part))
+        .build();
+  }
+
+  private MethodSpec partMethod(int part, ClassName day) {
+    if (options.isParallelScaffold()) {
+      return partMethodBuilder(part).addStatement("return $L", reduction(part, day, "sum")).build();
+    }
+    return stubParts.get(part - 1);
+  }
+
+  private MethodSpec.Builder partMethodBuilder(int part) {
+    return MethodSpec.methodBuilder("part" + part)
+        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+        .returns(long.class)
+        .addParameter(inputType(), options.getInputShape().getParameterName());
+  }
+
+  /**
+   * Expression summing the item solver of the part over the parsed input with the given {@code
+   * Parallel} method, either {@code sum} or {@code sequentialSum}.
+   */
+  private CodeBlock reduction(int part, ClassName day, String method) {
+    ClassName parallel = parallelGenerator.getClassName();
+    if (options.getInputShape() == InputShape.GRID) {
+      return CodeBlock.of(
+          "$T.$NRange(grid.height, row -> $T.part$LRow(grid, row))", parallel, method, day, part);
+    }
+    return CodeBlock.of(
+        "$T.$N($N, $T::$N)",
+        parallel,
+        method,
+        options.getInputShape().getParameterName(),
+        day,
+        itemSolverName(part));
+  }
+
+  /** The stub solving a single item of the input, which the parallel scaffold sums. */
+  private MethodSpec itemSolverMethod(int part) {
+    MethodSpec.Builder method =
+        MethodSpec.methodBuilder(itemSolverName(part))
+            .addModifiers(Modifier.STATIC)
+            .returns(long.class);
+    switch (options.getInputShape()) {
+      case GRID:
+        method.addParameter(inputUtils.nestedClass("Grid"), "grid").addParameter(int.class, "row");
+        break;
+      case INTS:
+        method.addParameter(int.class, "value");
+        break;
+      case LONGS:
+        method.addParameter(long.class, "value");
+        break;
+      case BLOCKS:
+        method.addParameter(ByteBuffer.class, "block");
+        break;
+      default:
+        method.addParameter(String.class, "line");
+    }
+    return method.addStatement("return 0L").build();
+  }
+
+  private String itemSolverName(int part) {
+    switch (options.getInputShape()) {
+      case GRID:
+        return "part" + part + "Row";
+      case INTS:
+      case LONGS:
+        return "part" + part + "Value";
+      case BLOCKS:
+        return "part" + part + "Block";
+      default:
+        return "part" + part + "Line";
+    }
+  }
+
+  private MethodSpec benchmarkPartMethod(int part, ClassName day, CodeBlock input) {
+    return MethodSpec.methodBuilder("part" + part)
+        .addModifiers(Modifier.PUBLIC)
+        .addAnnotation(JMH_BENCHMARK)
+        .returns(long.class)
+        .addStatement("return $T.part$L($L)", day, part, input)
+        .build();
+  }
+
+  /**
+   * Runs the part on the example. Shapes other than lines parse the example themselves so the typed
+   * overload is exercised directly.
+   */
+  private MethodSpec providedInputTest(int part, ClassName day) {
+    if (options.isParameterizedExamples()) {
+      return parameterizedExampleTest(part, day);
+    }
+    MethodSpec.Builder method =
+        MethodSpec.methodBuilder("providedInputTestPart" + part)
+            .addModifiers(Modifier.PUBLIC)
+            .returns(void.class)
+            .addAnnotation(TEST);
+    if (options.getInputShape() == InputShape.LINES) {
+      return method
+          .addStatement("assertEquals(0L, $T.part$L($S))", day, part, "example.txt")
+          .build();
+    }
+    return method
+        .addCode(
+            withInput(
+                CodeBlock.of("$S", "example.txt"),
+                day,
+                "assertEquals(0L, $T.part$L($L))",
+                day,
+                part))
+        .build();
+  }
+
+  /**
+   * Runs the part on every example of the day, each checked against the answer of its sidecar and
+   * skipped when it has none. The examples of a part run concurrently with {@code parallelTests}.
+   */
+  private MethodSpec parameterizedExampleTest(int part, ClassName day) {
+    MethodSpec.Builder method =
+        MethodSpec.methodBuilder("providedInputTestPart" + part)
+            .addModifiers(Modifier.PUBLIC)
+            .returns(void.class)
+            .addAnnotation(PARAMETERIZED_TEST)
+            .addAnnotation(
+                AnnotationSpec.builder(METHOD_SOURCE).addMember("value", "$S", "examples").build());
+    if (options.isParallelTests()) {
+      method.addAnnotation(
+          AnnotationSpec.builder(EXECUTION)
+              .addMember("value", "$T.CONCURRENT", EXECUTION_MODE)
+              .build());
+    }
+    method
+        .addParameter(String.class, "example")
+        .addStatement(
+            "$T expected = $T.answer(example, $L, $T.class)",
+            OptionalLong.class,
+            inputUtils,
+            part,
+            day)
+        .addStatement(
+            "assumeTrue(expected.isPresent(), $S + example)", "No part " + part + " answer for ");
+    if (options.getInputShape() == InputShape.LINES) {
+      return method
+          .addStatement("assertEquals(expected.getAsLong(), $T.part$L(example))", day, part)
+          .build();
+    }
+    return method
+        .addCode(
+            withInput(
+                CodeBlock.of("example"),
+                day,
+                "assertEquals(expected.getAsLong(), $T.part$L($L))",
+                day,
+                part))
+        .build();
+  }
+
+  /**
+   * Checks the parallel reduction of the part against a sequential sum of the same item solver over
+   * the example. Closeable input is read once for each of the two runs.
+   */
+  private MethodSpec parallelMatchesSequentialTest(int part, ClassName day) {
+    MethodSpec.Builder method =
+        MethodSpec.methodBuilder("parallelMatchesSequentialPart" + part)
+            .addModifiers(Modifier.PUBLIC)
+            .returns(void.class)
+            .addAnnotation(TEST);
+    InputShape shape = options.getInputShape();
+    CodeBlock example = loadInput(CodeBlock.of("$S", "example.txt"), day);
+    if (shape.isCloseable()) {
+      return method
+          .addStatement("long sequential")
+          .beginControlFlow("try ($T $N = $L)", inputType(), shape.getParameterName(), example)
+          .addStatement("sequential = $L", reduction(part, day, "sequentialSum"))
+          .endControlFlow()
+          .beginControlFlow("try ($T $N = $L)", inputType(), shape.getParameterName(), example)
+          .addStatement(
+              "assertEquals(sequential, $T.part$L($N))", day, part, shape.getParameterName())
+          .endControlFlow()
+          .build();
+    }
+    return method
+        .addStatement("$T $N = $L", inputType(), shape.getParameterName(), example)
+        .addStatement(
+            "assertEquals($L, $T.part$L($N))",
+            reduction(part, day, "sequentialSum"),
+            day,
+            part,
+            shape.getParameterName())
+        .build();
+  }
+
+  /**
+   * Prints the answer for {@code input.txt}, optionally going through the answer cache and the
+   * solution metrics, with the cache outermost so that only parts actually solved are measured.
+   */
+  private MethodSpec solutionTest(int part, DayLayout layout) {
+    ClassName day = ClassName.get(layout.getPackage(), layout.getClassName());
+    CodeBlock solve = CodeBlock.of("$T.part$L($S)", day, part, "input.txt");
+    if (options.isInstrumentTests()) {
+      solve =
+          CodeBlock.of(
+              "$T.measure($T.class, $L, () -> $L)",
+              solutionMetricsGenerator.getClassName(),
+              day,
+              part,
+              solve);
+    }
+    if (options.isCacheAnswers()) {
+      solve =
+          CodeBlock.of(
+              "$T.solve($T.class, $L, $S, () -> $L)",
+              answerCacheGenerator.getClassName(),
+              day,
+              part,
+              "input.txt",
+              solve);
+    }
+    return MethodSpec.methodBuilder("solutionPart" + part)
+        .addModifiers(Modifier.PUBLIC)
+        .returns(void.class)
+        .addAnnotation(TEST)
+        .addStatement(
+            "$T.out.println($S + $L)",
+            System.class,
+            String.format("Day %02d Part %d Answer is: ", layout.getDay(), part),
+            solve)
+        .build();
+  }
+}
@@ -0,0 +1,86 @@
+package net.ddellspe;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Package, class name and relative path for a single generated day. The package is the project
+ * group id, optionally followed by a "yearYYYY" segment and a "dayXX" segment.
+ */
+final class DayLayout {
+  private final String groupId;
+  private final int year;
+  private final int day;
+  private final String pkg;
+  private final String cls;
+  private final String path;
+
+  DayLayout(String groupId, int year, int day, boolean useDayPackage) {
+    this.groupId = groupId;
+    this.year = year;
+    this.day = day;
+    String fullPkg = groupId;
+    if (year > 0) {
+      fullPkg += String.format(".year%04d", year);
+    }
+    if (useDayPackage) {
+      fullPkg += String.format(".day%02d", day);
+    }
+    this.pkg = fullPkg;
+    this.cls = String.format("Day%02d", day);
+    this.path =
+        Arrays.stream(fullPkg.split("\\."))
+            .map(File::new)
+            .reduce(
+                new File(""),
+                (prev, cur) -> new File(String.valueOf(Paths.get(prev.getPath(), cur.getPath()))))
+            .getPath();
+  }
+
+  /** The current day of the month in US eastern time, when the puzzles are released. */
+  static int today() {
+    return Calendar.getInstance(TimeZone.getTimeZone(ZoneId.of("America/New_York")))
+        .get(Calendar.DAY_OF_MONTH);
+  }
+
+  String getGroupId() {
+    return groupId;
+  }
+
+  int getYear() {
+    return year;
+  }
+
+  int getDay() {
+    return day;
+  }
+
+  /** The fully qualified package of the generated day classes. */
+  String getPackage() {
+    return pkg;
+  }
+
+  /** The simple class name of the generated day, i.e. "DayXX". */
+  String getClassName() {
+    return cls;
+  }
+
+  /** The package as a relative directory path. */
+  String getPath() {
+    return path;
+  }
+
+  /** The classpath resource name of a file stored next to the day class. */
+  String resourceName(String filename) {
+    return pkg.replace('.', '/') + "/" + filename;
+  }
+
+  /** Human readable label used in log messages, i.e. "Day XX" or "2023 Day XX". */
+  String getLabel() {
+    return year > 0 ? String.format("%04d Day %02d", year, day) : String.format("Day %02d", day);
+  }
+}
@@ -0,0 +1,111 @@
+package net.ddellspe;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Outcome of generating the files for a single day. Messages are collected rather than logged
+ * directly so that callers generating many days at once can summarize them.
+ */
+final class DayResult {
+  enum Level {
+    INFO,
+    WARN,
+    ERROR
+  }
+
+  static final class Message {
+    private final Level level;
+    private final String text;
+
+    Message(Level level, String text) {
+      this.level = level;
+      this.text = text;
+    }
+
+    Level getLevel() {
+      return level;
+    }
+
+    String getText() {
+      return text;
+    }
+  }
+
+  private final DayLayout layout;
+  private final List<Message> messages = new ArrayList<>();
+  private int written = 0;
+  private int skipped = 0;
+  private int unchanged = 0;
+  private int failed = 0;
+
+  DayResult(DayLayout layout) {
+    this.layout = layout;
+  }
+
+  void written() {
+    written++;
+  }
+
+  void skipped(String message) {
+    skipped++;
+    messages.add(new Message(Level.INFO, message));
+  }
+
+  void unchanged(String message) {
+    unchanged++;
+    messages.add(new Message(Level.INFO, message));
+  }
+
+  void warn(String message) {
+    failed++;
+    messages.add(new Message(Level.WARN, message));
+  }
+
+  void error(String message) {
+    failed++;
+    messages.add(new Message(Level.ERROR, message));
+  }
+
+  DayLayout getLayout() {
+    return layout;
+  }
+
+  List<Message> getMessages() {
+    return Collections.unmodifiableList(messages);
+  }
+
+  int getWritten() {
+    return written;
+  }
+
+  int getSkipped() {
+    return skipped;
+  }
+
+  int getUnchanged() {
+    return unchanged;
+  }
+
+  int getFailed() {
+    return failed;
+  }
+
+  /** Writes every collected message to the given log at its own level. */
+  void logTo(Log log) {
+    for (Message message : messages) {
+      switch (message.getLevel()) {
+        case ERROR:
+          log.error(message.getText());
+          break;
+        case WARN:
+          log.warn(message.getText());
+          break;
+        default:
+          log.info(message.getText());
+      }
+    }
+  }
+}
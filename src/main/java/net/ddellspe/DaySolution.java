@@ -0,0 +1,38 @@
+package net.ddellspe;
+
+import java.util.Comparator;
+
+/** A compiled {@code DayXX} class found in the project output, identified by year and day. */
+final class DaySolution {
+  static final Comparator<DaySolution> ORDER =
+      Comparator.comparingInt(DaySolution::getYear)
+          .thenComparingInt(DaySolution::getDay)
+          .thenComparing(DaySolution::getClassName);
+
+  private final String className;
+  private final int year;
+  private final int day;
+
+  DaySolution(String className, int year, int day) {
+    this.className = className;
+    this.year = year;
+    this.day = day;
+  }
+
+  String getClassName() {
+    return className;
+  }
+
+  int getYear() {
+    return year;
+  }
+
+  int getDay() {
+    return day;
+  }
+
+  /** Human readable label, matching {@link DayLayout#getLabel()}. */
+  String getLabel() {
+    return year > 0 ? String.format("%04d Day %02d", year, day) : String.format("Day %02d", day);
+  }
+}
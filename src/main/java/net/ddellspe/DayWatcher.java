@@ -0,0 +1,268 @@
+package net.ddellspe;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Recompiles the sources of a single day in-process whenever they, {@code input.txt} or {@code
+ * example.txt} change, and runs both parts against the example and the real input from a fresh
+ * class loader. The resource directories are read directly, so edited inputs are picked up without
+ * processing resources.
+ */
+final class DayWatcher {
+  static final String EXAMPLE = "example.txt";
+  static final String INPUT = "input.txt";
+
+  /** Quiet period after a change, so an editor saving several files triggers a single run. */
+  private static final long DEBOUNCE_MILLIS = 50L;
+
+  private final DayLayout layout;
+  private final Path sourceDirectory;
+  private final Path sourceRoot;
+  private final List<Path> resourceRoots;
+  private final List<Path> classpath;
+  private final Path outputDirectory;
+  private final long timeoutMillis;
+  private final Log log;
+  private final JavaCompiler compiler;
+
+  DayWatcher(
+      DayLayout layout,
+      Path sourceRoot,
+      List<Path> resourceRoots,
+      List<Path> classpath,
+      Path outputDirectory,
+      long timeoutMillis,
+      Log log) {
+    this.layout = layout;
+    this.sourceRoot = sourceRoot;
+    this.sourceDirectory = sourceRoot.resolve(layout.getPath());
+    this.resourceRoots = resourceRoots;
+    this.classpath = classpath;
+    this.outputDirectory = outputDirectory;
+    this.timeoutMillis = timeoutMillis;
+    this.log = log;
+    this.compiler = ToolProvider.getSystemJavaCompiler();
+  }
+
+  /** The directories watched for changes: the day's sources and its resource directories. */
+  List<Path> watchedDirectories() {
+    List<Path> directories = new ArrayList<>();
+    directories.add(sourceDirectory);
+    for (Path root : resourceRoots) {
+      directories.add(root.resolve(layout.getPath()));
+    }
+    return directories;
+  }
+
+  /**
+   * Runs once, then again after every relevant change until {@code maxRuns} runs have happened (0
+   * for no limit) or the thread is interrupted.
+   */
+  void watch(int maxRuns) throws IOException, InterruptedException {
+    try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+      for (Path directory : watchedDirectories()) {
+        Files.createDirectories(directory);
+        directory.register(
+            watchService,
+            StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY,
+            StandardWatchEventKinds.ENTRY_DELETE);
+      }
+      runOnce();
+      int runs = 1;
+      log.info("Watching " + layout.getLabel() + " for changes");
+      while (maxRuns <= 0 || runs < maxRuns) {
+        WatchKey key = watchService.take();
+        boolean relevant = drain(key);
+        // wait for the burst of events a single save usually causes
+        WatchKey next;
+        while ((next = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+          relevant |= drain(next);
+        }
+        if (relevant) {
+          runOnce();
+          runs++;
+        }
+      }
+    }
+  }
+
+  private boolean drain(WatchKey key) {
+    boolean relevant = false;
+    for (WatchEvent<?> event : key.pollEvents()) {
+      Object context = event.context();
+      relevant |= context == null || isRelevant(context.toString());
+    }
+    key.reset();
+    return relevant;
+  }
+
+  static boolean isRelevant(String fileName) {
+    return fileName.endsWith(".java") || fileName.equals(INPUT) || fileName.equals(EXAMPLE);
+  }
+
+  /**
+   * Compiles the day and runs both parts on the example and the input, returning false when the day
+   * did not compile or was not run. Nothing is run while a timed out part, which cannot be stopped,
+   * is still running, so that repeated saves of a runaway loop do not pile up spinning threads.
+   */
+  boolean runOnce() throws IOException {
+    if (compiler == null) {
+      log.error("No system Java compiler is available, run Maven with a JDK to watch a day");
+      return false;
+    }
+    long start = System.nanoTime();
+    if (!compile()) {
+      return false;
+    }
+    log.info(
+        String.format(
+            "Compiled %s in %s",
+            layout.getLabel(), SolutionReport.formatNanos(System.nanoTime() - start)));
+    DaySolution solution =
+        new DaySolution(
+            layout.getPackage() + "." + layout.getClassName(), layout.getYear(), layout.getDay());
+    try (URLClassLoader loader = createClassLoader()) {
+      for (String inputName : Arrays.asList(EXAMPLE, INPUT)) {
+        List<String> runaway = SolutionRunner.runawayParts();
+        if (!runaway.isEmpty()) {
+          log.error(
+              String.format(
+                  "Not running %s on %s while timed out %s still running, it cannot be stopped"
+                      + " until it returns or Maven exits",
+                  layout.getLabel(),
+                  inputName,
+                  String.join(", ", runaway) + (runaway.size() == 1 ? " is" : " are")));
+          return false;
+        }
+        List<PartResult> results =
+            new SolutionRunner(loader, inputName, 0, 1, 2, timeoutMillis, null)
+                .runAll(Collections.singletonList(solution), Collections.emptyMap());
+        for (PartResult result : results) {
+          logResult(inputName, result);
+        }
+      }
+    }
+    return true;
+  }
+
+  private void logResult(String inputName, PartResult result) {
+    if (result.getError() != null) {
+      log.error(
+          String.format(
+              "%s part %d on %s failed: %s",
+              layout.getLabel(), result.getPart(), inputName, result.getError()));
+    } else {
+      log.info(
+          String.format(
+              "%s part %d on %s: %d in %s",
+              layout.getLabel(),
+              result.getPart(),
+              inputName,
+              result.getAnswer(),
+              SolutionReport.formatNanos(result.getMedianNanos())));
+    }
+  }
+
+  private boolean compile() throws IOException {
+    List<File> sources;
+    try (Stream<Path> files = Files.list(sourceDirectory)) {
+      sources =
+          files
+              .filter(file -> file.getFileName().toString().endsWith(".java"))
+              .map(Path::toFile)
+              .collect(Collectors.toList());
+    }
+    if (sources.isEmpty()) {
+      log.error("No sources found for " + layout.getLabel() + " in " + sourceDirectory);
+      return false;
+    }
+    FileUtils.deleteDirectory(outputDirectory.toFile());
+    Files.createDirectories(outputDirectory);
+    List<String> options =
+        Arrays.asList(
+            "-d",
+            outputDirectory.toString(),
+            "-classpath",
+            classpath.stream().map(Path::toString).collect(Collectors.joining(File.pathSeparator)),
+            "-sourcepath",
+            sourceRoot.toString(),
+            "-implicit:class",
+            "-proc:none",
+            "-encoding",
+            "UTF-8");
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    boolean success;
+    try (StandardJavaFileManager fileManager =
+        compiler.getStandardFileManager(diagnostics, Locale.ROOT, StandardCharsets.UTF_8)) {
+      success =
+          compiler
+              .getTask(
+                  null,
+                  fileManager,
+                  diagnostics,
+                  options,
+                  null,
+                  fileManager.getJavaFileObjectsFromFiles(sources))
+              .call();
+    }
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+      if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+        log.error(
+            String.format(
+                "%s:%d: %s",
+                diagnostic.getSource() == null ? "" : diagnostic.getSource().getName(),
+                diagnostic.getLineNumber(),
+                diagnostic.getMessage(Locale.ROOT)));
+      }
+    }
+    if (!success) {
+      log.error("Compilation of " + layout.getLabel() + " failed, waiting for changes");
+    }
+    return success;
+  }
+
+  /**
+   * The freshly compiled classes come first so they shadow stale copies on the classpath, followed
+   * by the resource directories and the project classpath.
+   */
+  private URLClassLoader createClassLoader() throws MalformedURLException {
+    List<URL> urls = new ArrayList<>();
+    urls.add(outputDirectory.toUri().toURL());
+    for (Path root : resourceRoots) {
+      urls.add(root.toUri().toURL());
+    }
+    for (Path element : classpath) {
+      urls.add(element.toUri().toURL());
+    }
+    return new URLClassLoader(urls.toArray(new URL[0]), ClassLoader.getPlatformClassLoader());
+  }
+}
@@ -0,0 +1,112 @@
+package net.ddellspe;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records a content hash, size and modification time for every file the generator writes. A file
+ * whose rendered content matches the recorded hash, and which has not been touched on disk since,
+ * is considered unchanged without reading it back. The manifest is stored as a properties file
+ * under the build directory; when there is no build directory it is kept in memory only.
+ */
+final class FileManifest {
+  static final String MANIFEST_PATH = "aoc-generator/manifest.properties";
+
+  private final Path location;
+  private final Map<String, String> entries = new ConcurrentHashMap<>();
+
+  private FileManifest(Path location) {
+    this.location = location;
+  }
+
+  /** Loads the manifest from the given build directory, which may be null. */
+  static FileManifest load(String buildDirectory) throws IOException {
+    if (buildDirectory == null) {
+      return new FileManifest(null);
+    }
+    FileManifest manifest = new FileManifest(Paths.get(buildDirectory, MANIFEST_PATH));
+    if (Files.isRegularFile(manifest.location)) {
+      Properties properties = new Properties();
+      try (InputStream in = Files.newInputStream(manifest.location)) {
+        properties.load(in);
+      }
+      for (String key : properties.stringPropertyNames()) {
+        manifest.entries.put(key, properties.getProperty(key));
+      }
+    }
+    return manifest;
+  }
+
+  /**
+   * Returns true when the file on disk already holds exactly the given content. The recorded hash
+   * is trusted when the size and modification time still match, otherwise the file is compared byte
+   * for byte and the entry refreshed.
+   */
+  boolean isUnchanged(Path file, byte[] content) throws IOException {
+    if (!Files.isRegularFile(file) || Files.size(file) != content.length) {
+      return false;
+    }
+    String hash = hash(content);
+    String entry = entries.get(key(file));
+    if (entry != null && entry.equals(entry(hash, file))) {
+      return true;
+    }
+    if (Arrays.equals(Files.readAllBytes(file), content)) {
+      entries.put(key(file), entry(hash, file));
+      return true;
+    }
+    return false;
+  }
+
+  /** Records the content that was just written to the given file. */
+  void record(Path file, byte[] content) throws IOException {
+    entries.put(key(file), entry(hash(content), file));
+  }
+
+  String get(Path file) {
+    return entries.get(key(file));
+  }
+
+  void save() throws IOException {
+    if (location == null) {
+      return;
+    }
+    Files.createDirectories(location.getParent());
+    Properties properties = new Properties();
+    properties.putAll(entries);
+    try (OutputStream out = Files.newOutputStream(location)) {
+      properties.store(out, null);
+    }
+  }
+
+  private static String key(Path file) {
+    return file.toAbsolutePath().normalize().toString();
+  }
+
+  private static String entry(String hash, Path file) throws IOException {
+    return hash + ":" + Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis();
+  }
+
+  static String hash(byte[] content) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+      StringBuilder builder = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        builder.append(String.format("%02x", b));
+      }
+      return builder.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
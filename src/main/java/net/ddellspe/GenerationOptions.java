@@ -0,0 +1,95 @@
+package net.ddellspe;
+
+/** Optional shapes of the generated day files, configured from the generator goals. */
+final class GenerationOptions {
+  private boolean generateBenchmark = false;
+  private boolean cacheAnswers = false;
+  private InputShape inputShape = InputShape.LINES;
+  private boolean instrumentTests = false;
+  private boolean packInputs = false;
+  private boolean parallelScaffold = false;
+  private boolean parallelTests = false;
+  private int testParallelism = 0;
+  private boolean parameterizedExamples = false;
+  private TemplateSet templates = TemplateSet.NONE;
+
+  boolean isGenerateBenchmark() {
+    return generateBenchmark;
+  }
+
+  void setGenerateBenchmark(boolean generateBenchmark) {
+    this.generateBenchmark = generateBenchmark;
+  }
+
+  boolean isCacheAnswers() {
+    return cacheAnswers;
+  }
+
+  void setCacheAnswers(boolean cacheAnswers) {
+    this.cacheAnswers = cacheAnswers;
+  }
+
+  InputShape getInputShape() {
+    return inputShape;
+  }
+
+  void setInputShape(InputShape inputShape) {
+    this.inputShape = inputShape;
+  }
+
+  boolean isInstrumentTests() {
+    return instrumentTests;
+  }
+
+  void setInstrumentTests(boolean instrumentTests) {
+    this.instrumentTests = instrumentTests;
+  }
+
+  boolean isPackInputs() {
+    return packInputs;
+  }
+
+  void setPackInputs(boolean packInputs) {
+    this.packInputs = packInputs;
+  }
+
+  boolean isParallelScaffold() {
+    return parallelScaffold;
+  }
+
+  void setParallelScaffold(boolean parallelScaffold) {
+    this.parallelScaffold = parallelScaffold;
+  }
+
+  boolean isParallelTests() {
+    return parallelTests;
+  }
+
+  void setParallelTests(boolean parallelTests) {
+    this.parallelTests = parallelTests;
+  }
+
+  int getTestParallelism() {
+    return testParallelism;
+  }
+
+  void setTestParallelism(int testParallelism) {
+    this.testParallelism = testParallelism;
+  }
+
+  boolean isParameterizedExamples() {
+    return parameterizedExamples;
+  }
+
+  void setParameterizedExamples(boolean parameterizedExamples) {
+    this.parameterizedExamples = parameterizedExamples;
+  }
+
+  TemplateSet getTemplates() {
+    return templates;
+  }
+
+  void setTemplates(TemplateSet templates) {
+    this.templates = templates;
+  }
+}
@@ -0,0 +1,147 @@
+package net.ddellspe;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import org.sonatype.plexus.build.incremental.BuildContext;
+
+/**
+ * Every file a generation run is going to write, with its rendered content. Days add to the plan
+ * while nothing on disk is touched yet, and {@link #apply} then writes the whole plan in one pass:
+ * each directory is created once and every file is written to a temporary file next to it and moved
+ * into place, so an interrupted run never leaves a truncated file behind.
+ *
+ * <p>A target planned twice is only written once, with the content planned last.
+ */
+final class GenerationPlan {
+  private final Map<Path, Entry> entries = new LinkedHashMap<>();
+
+  private static final class Entry {
+    private final Path target;
+    private final byte[] content;
+    private final boolean replace;
+    private final DayResult result;
+    private final String existsMessage;
+    private final String errorMessage;
+
+    Entry(
+        Path target,
+        byte[] content,
+        boolean replace,
+        DayResult result,
+        String existsMessage,
+        String errorMessage) {
+      this.target = target;
+      this.content = content;
+      this.replace = replace;
+      this.result = result;
+      this.existsMessage = existsMessage;
+      this.errorMessage = errorMessage;
+    }
+  }
+
+  /** Plans to write the file, replacing any previous content. */
+  synchronized void write(Path target, byte[] content, DayResult result, String errorMessage) {
+    entries.put(key(target), new Entry(target, content, true, result, null, errorMessage));
+  }
+
+  /**
+   * Plans to create the file, which is left alone (reporting {@code existsMessage} as a warning)
+   * when it exists by the time the plan is applied.
+   */
+  synchronized void create(
+      Path target, byte[] content, DayResult result, String existsMessage, String errorMessage) {
+    entries.put(
+        key(target), new Entry(target, content, false, result, existsMessage, errorMessage));
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  /** One line per planned file, in the order they were planned. */
+  synchronized List<String> describe() {
+    List<String> lines = new ArrayList<>();
+    for (Entry entry : entries.values()) {
+      lines.add(
+          String.format(
+              "%s %s (%d bytes)",
+              entry.replace ? "write " : "create", entry.target, entry.content.length));
+    }
+    return lines;
+  }
+
+  /**
+   * Writes every planned file, reporting the outcome to the result of the day it was planned for.
+   * Successfully written files are recorded in the manifest and refreshed in the build context.
+   */
+  synchronized void apply(BuildContext buildContext, FileManifest manifest) {
+    Set<Path> directories = new TreeSet<>();
+    for (Path target : entries.keySet()) {
+      directories.add(target.getParent());
+    }
+    Set<Path> failedDirectories = new HashSet<>();
+    for (Path directory : directories) {
+      try {
+        Files.createDirectories(directory);
+      } catch (IOException e) {
+        failedDirectories.add(directory);
+      }
+    }
+    for (Entry entry : entries.values()) {
+      if (failedDirectories.contains(key(entry.target).getParent())) {
+        entry.result.error(entry.errorMessage);
+        continue;
+      }
+      try {
+        writeAtomically(entry.target, entry.content, entry.replace);
+        manifest.record(entry.target, entry.content);
+        buildContext.refresh(entry.target.toFile());
+        entry.result.written();
+      } catch (FileAlreadyExistsException e) {
+        entry.result.warn(entry.existsMessage);
+      } catch (IOException e) {
+        entry.result.error(entry.errorMessage);
+      }
+    }
+    entries.clear();
+  }
+
+  /**
+   * Writes the content to a temporary file in the target's directory and moves it over the target,
+   * atomically where the file system supports it. Without {@code replace} an existing target is
+   * left alone and a {@link FileAlreadyExistsException} thrown.
+   */
+  static void writeAtomically(Path target, byte[] content, boolean replace) throws IOException {
+    Path temp = Files.createTempFile(target.getParent(), "." + target.getFileName(), ".tmp");
+    try {
+      Files.write(temp, content);
+      if (!replace) {
+        Files.move(temp, target);
+        return;
+      }
+      try {
+        Files.move(
+            temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private static Path key(Path target) {
+    return target.toAbsolutePath().normalize();
+  }
+}
@@ -0,0 +1,247 @@
+package net.ddellspe;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * A single file holding the inputs of many days, replacing the loose {@code input.txt} and {@code
+ * example.txt} resources. Entries are keyed by their resource name (e.g. {@code
+ * com/example/day01/input.txt}) so an archived input is found under the same name as the file it
+ * replaces, and the generated {@code InputUtils} maps the archive once and slices entries out of
+ * it.
+ *
+ * <p>The layout is big endian: magic, version and entry count, then the name length, UTF-8 name,
+ * data offset and data length of every entry, followed by the data. The archive is read on first
+ * use and only rewritten when an entry changed.
+ */
+final class InputArchive {
+  static final String FILE_NAME = "aoc-inputs.pack";
+  static final int MAGIC = 0x414f4350;
+  static final int VERSION = 1;
+
+  private final Path location;
+  private final Map<String, byte[]> entries = new TreeMap<>();
+  private boolean loaded = false;
+  private boolean modified = false;
+
+  InputArchive(Path location) {
+    this.location = location;
+  }
+
+  /** The archive stored at the root of the given resource directory. */
+  static InputArchive in(String resourceDirectory) {
+    return new InputArchive(Paths.get(resourceDirectory, FILE_NAME));
+  }
+
+  Path getLocation() {
+    return location;
+  }
+
+  synchronized boolean contains(String name) throws IOException {
+    load();
+    return entries.containsKey(name);
+  }
+
+  synchronized byte[] get(String name) throws IOException {
+    load();
+    return entries.get(name);
+  }
+
+  /** Adds or replaces an entry, returning false when it already held exactly this content. */
+  synchronized boolean put(String name, byte[] content) throws IOException {
+    load();
+    byte[] previous = entries.put(name, content);
+    if (previous != null && Arrays.equals(previous, content)) {
+      return false;
+    }
+    modified = true;
+    return true;
+  }
+
+  synchronized Set<String> names() throws IOException {
+    load();
+    return new TreeSet<>(entries.keySet());
+  }
+
+  synchronized boolean isModified() {
+    return modified;
+  }
+
+  /** The archive as it would be saved, after which it is no longer considered modified. */
+  synchronized byte[] encodeForSave() throws IOException {
+    load();
+    modified = false;
+    return encode(entries);
+  }
+
+  /**
+   * Writes the archive when an entry changed. The content is written next to the archive first and
+   * moved over it, so readers never see a partially written archive.
+   */
+  synchronized void save() throws IOException {
+    if (!modified) {
+      return;
+    }
+    Files.createDirectories(location.getParent());
+    GenerationPlan.writeAtomically(location, encode(entries), true);
+    modified = false;
+  }
+
+  private void load() throws IOException {
+    if (loaded) {
+      return;
+    }
+    if (Files.isRegularFile(location)) {
+      entries.putAll(decode(ByteBuffer.wrap(Files.readAllBytes(location)), location.toString()));
+    }
+    loaded = true;
+  }
+
+  /**
+   * Looks the resource up in every archive visible to the class loader, returning null when none
+   * holds it. Only the index of an archive and the one entry are read. The index is decoded once
+   * per archive URL and kept in {@code indexes} for as long as the caller keeps the map, such as
+   * for one run of the solutions.
+   */
+  static byte[] find(ClassLoader loader, String name, Map<String, Map<String, int[]>> indexes)
+      throws IOException {
+    Enumeration<URL> archives = loader.getResources(FILE_NAME);
+    while (archives.hasMoreElements()) {
+      URL url = archives.nextElement();
+      Map<String, int[]> index = indexes.get(url.toString());
+      if (index == null) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(url.openStream()))) {
+          index = readIndex(in, url.toString());
+        }
+        indexes.put(url.toString(), index);
+      }
+      int[] entry = index.get(name);
+      if (entry != null) {
+        return readEntry(url, entry[0], entry[1]);
+      }
+    }
+    return null;
+  }
+
+  /** The offset and length of every entry by name, read without the data that follows. */
+  private static Map<String, int[]> readIndex(DataInputStream in, String source)
+      throws IOException {
+    Map<String, int[]> index = new HashMap<>();
+    try {
+      if (in.readInt() != MAGIC) {
+        throw new IOException("Not an input archive: " + source);
+      }
+      int version = in.readInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported input archive version " + version + " in " + source);
+      }
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        byte[] name = new byte[in.readInt()];
+        in.readFully(name);
+        int offset = in.readInt();
+        int length = in.readInt();
+        if (offset < 0 || length < 0) {
+          throw new IOException("Truncated input archive: " + source);
+        }
+        index.put(new String(name, StandardCharsets.UTF_8), new int[] {offset, length});
+      }
+    } catch (EOFException | NegativeArraySizeException e) {
+      throw new IOException("Truncated input archive: " + source, e);
+    }
+    return index;
+  }
+
+  /** Skips to the entry rather than reading up to it, which is a seek for an archive on disk. */
+  private static byte[] readEntry(URL url, int offset, int length) throws IOException {
+    try (InputStream in = url.openStream()) {
+      long skipped = 0L;
+      long step;
+      while (skipped < offset && (step = in.skip(offset - skipped)) > 0) {
+        skipped += step;
+      }
+      byte[] content = in.readNBytes(length);
+      if (skipped < offset || content.length < length) {
+        throw new IOException("Truncated input archive: " + url);
+      }
+      return content;
+    }
+  }
+
+  static byte[] encode(Map<String, byte[]> entries) throws IOException {
+    int indexSize = 12;
+    for (String name : entries.keySet()) {
+      indexSize += 12 + name.getBytes(StandardCharsets.UTF_8).length;
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(entries.size());
+      long offset = indexSize;
+      for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+        byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+        if (offset + entry.getValue().length > Integer.MAX_VALUE) {
+          throw new IOException("Input archive would exceed 2 GiB at entry: " + entry.getKey());
+        }
+        out.writeInt(name.length);
+        out.write(name);
+        out.writeInt((int) offset);
+        out.writeInt(entry.getValue().length);
+        offset += entry.getValue().length;
+      }
+      for (byte[] content : entries.values()) {
+        out.write(content);
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  static Map<String, byte[]> decode(ByteBuffer buffer, String source) throws IOException {
+    Map<String, byte[]> decoded = new TreeMap<>();
+    try {
+      if (buffer.getInt() != MAGIC) {
+        throw new IOException("Not an input archive: " + source);
+      }
+      int version = buffer.getInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported input archive version " + version + " in " + source);
+      }
+      int count = buffer.getInt();
+      for (int i = 0; i < count; i++) {
+        byte[] name = new byte[buffer.getInt()];
+        buffer.get(name);
+        int offset = buffer.getInt();
+        int length = buffer.getInt();
+        if (offset < 0 || length < 0 || offset > buffer.limit() - length) {
+          throw new IOException("Truncated input archive: " + source);
+        }
+        byte[] content = new byte[length];
+        buffer.duplicate().position(offset).get(content);
+        decoded.put(new String(name, StandardCharsets.UTF_8), content);
+      }
+    } catch (BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+      throw new IOException("Truncated input archive: " + source, e);
+    }
+    return decoded;
+  }
+}
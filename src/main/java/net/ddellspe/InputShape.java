@@ -0,0 +1,64 @@
+package net.ddellspe;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * The form the generated parts receive their input in, each backed by one {@code InputUtils} helper
+ * reading the whole resource.
+ */
+enum InputShape {
+  /** {@code List<String>}, one string per line. */
+  LINES("stringPerLine", "lines"),
+  /** {@code InputUtils.Grid}, a flat {@code byte[]} with its width and height. */
+  GRID("grid", "grid"),
+  /** {@code int[]} of every integer in the input. */
+  INTS("ints", "values"),
+  /** {@code long[]} of every integer in the input. */
+  LONGS("longs", "values"),
+  /** {@code List<ByteBuffer>}, views of the input between blank lines. */
+  BLOCKS("blocks", "blocks"),
+  /**
+   * {@code Stream<String>} of lines read incrementally through a channel, so memory use does not
+   * grow with the input. The stream must be closed after use.
+   */
+  STREAM("lines", "lines");
+
+  private final String utilsMethod;
+  private final String parameterName;
+
+  InputShape(String utilsMethod, String parameterName) {
+    this.utilsMethod = utilsMethod;
+    this.parameterName = parameterName;
+  }
+
+  String getUtilsMethod() {
+    return utilsMethod;
+  }
+
+  String getParameterName() {
+    return parameterName;
+  }
+
+  /** True when the parsed input holds resources and has to be read in try-with-resources. */
+  boolean isCloseable() {
+    return this == STREAM;
+  }
+
+  /** Parses a shape name case-insensitively, e.g. {@code grid}. */
+  static InputShape fromValue(String value) {
+    try {
+      return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException | NullPointerException e) {
+      throw new IllegalArgumentException(
+          "Unknown input shape: "
+              + value
+              + ", expected one of "
+              + Arrays.stream(values())
+                  .map(shape -> shape.name().toLowerCase(Locale.ROOT))
+                  .collect(Collectors.joining(", ")),
+          e);
+    }
+  }
+}
@@ -0,0 +1,804 @@
+package net.ddellspe;
+
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.lang.model.element.Modifier;
+
+/**
+ * Builds the {@code <groupId>.utils.InputUtils} class the generated days read their input with. The
+ * input is read into a single buffer (memory mapped when the resource is a plain file) and the
+ * helpers work on that buffer directly instead of materializing a string per line.
+ */
+final class InputUtilsGenerator {
+  static final String CLASS_NAME = "InputUtils";
+  static final String EXAMPLE_PREFIX = "example";
+  static final String ANSWERS_EXTENSION = ".answers";
+
+  private static final TypeName CLASS_PARAM =
+      ParameterizedTypeName.get(
+          ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class));
+
+  private final ClassName inputUtils;
+  private final ClassName grid;
+  private final ClassName lineReader;
+
+  InputUtilsGenerator(String groupId) {
+    this.inputUtils = ClassName.get(utilsPackage(groupId), CLASS_NAME);
+    this.grid = inputUtils.nestedClass("Grid");
+    this.lineReader = inputUtils.nestedClass("LineReader");
+  }
+
+  static String utilsPackage(String groupId) {
+    return groupId + ".utils";
+  }
+
+  ClassName getClassName() {
+    return inputUtils;
+  }
+
+  JavaFile build() {
+    TypeSpec type =
+        TypeSpec.classBuilder(inputUtils)
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .addJavadoc(
+                "Helpers for reading puzzle input stored as a resource next to the day class, or as"
+                    + " an entry\nof an {@code $L} archive on the classpath when there is no such"
+                    + " resource.\n",
+                InputArchive.FILE_NAME)
+            .addField(
+                FieldSpec.builder(String.class, "ARCHIVE", Modifier.PRIVATE, Modifier.STATIC)
+                    .addModifiers(Modifier.FINAL)
+                    .initializer("$S", InputArchive.FILE_NAME)
+                    .build())
+            .addField(
+                FieldSpec.builder(int.class, "ARCHIVE_MAGIC", Modifier.PRIVATE, Modifier.STATIC)
+                    .addModifiers(Modifier.FINAL)
+                    .initializer("0x$L", Integer.toHexString(InputArchive.MAGIC))
+                    .build())
+            .addField(
+                FieldSpec.builder(
+                        ParameterizedTypeName.get(
+                            ClassName.get(Map.class),
+                            ClassName.get(URL.class),
+                            ParameterizedTypeName.get(Map.class, String.class, ByteBuffer.class)),
+                        "ARCHIVES",
+                        Modifier.PRIVATE,
+                        Modifier.STATIC)
+                    .addModifiers(Modifier.FINAL)
+                    .initializer("new $T<>()", ConcurrentHashMap.class)
+                    .build())
+            .addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build())
+            .addMethod(read())
+            .addMethod(map())
+            .addMethod(archived())
+            .addMethod(archiveIndex())
+            .addMethod(bytes())
+            .addMethod(examples())
+            .addMethod(isExample())
+            .addMethod(answer())
+            .addMethod(stringPerLine())
+            .addMethod(lines())
+            .addMethod(lineReaderFromFile())
+            .addMethod(lineOffsets())
+            .addMethod(lineEnd())
+            .addMethod(decode())
+            .addMethod(gridFromFile())
+            .addMethod(numbersFromFile("ints", int.class))
+            .addMethod(numbers("ints", int.class))
+            .addMethod(numbersFromFile("longs", long.class))
+            .addMethod(numbers("longs", long.class))
+            .addMethod(blocksFromFile())
+            .addMethod(blocks())
+            .addMethod(slice())
+            .addMethod(isDigit())
+            .addType(gridType())
+            .addType(lineReaderType())
+            .build();
+    return JavaFile.builder(inputUtils.packageName(), type).skipJavaLangImports(true).build();
+  }
+
+  private static MethodSpec.Builder fromFile(String name) {
+    return MethodSpec.methodBuilder(name)
+        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+        .addParameter(String.class, "filename")
+        .addParameter(CLASS_PARAM, "cls");
+  }
+
+  private MethodSpec read() {
+    return fromFile("read")
+        .addJavadoc(
+            "Reads the resource {@code filename} relative to {@code cls} into a single buffer. Files"
+                + " on\nthe filesystem are memory mapped, anything else (e.g. jar entries) is read"
+                + " onto the heap.\nArchived inputs are a slice of the mapped archive.\n")
+        .returns(ByteBuffer.class)
+        .addStatement("$T url = cls.getResource(filename)", URL.class)
+        .addStatement("return url == null ? archived(filename, cls) : map(url)")
+        .build();
+  }
+
+  private static MethodSpec map() {
+    return MethodSpec.methodBuilder("map")
+        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+        .returns(ByteBuffer.class)
+        .addParameter(URL.class, "url")
+        .beginControlFlow("try")
+        .beginControlFlow("if ($S.equals(url.getProtocol()))", "file")
+        .beginControlFlow(
+            "try ($T channel = $T.open($T.get(url.toURI()), $T.READ))",
+            FileChannel.class,
+            FileChannel.class,
+            Paths.class,
+            StandardOpenOption.class)
+        .addStatement(
+            "return channel.map($T.MapMode.READ_ONLY, 0, channel.size())", FileChannel.class)
+        .endControlFlow()
+        .endControlFlow()
+        .beginControlFlow("try ($T in = url.openStream())", InputStream.class)
+        .addStatement("return $T.wrap(in.readAllBytes())", ByteBuffer.class)
+        .endControlFlow()
+        .nextControlFlow("catch ($T e)", IOException.class)
+        .addStatement("throw new $T(e)", UncheckedIOException.class)
+        .nextControlFlow("catch ($T e)", URISyntaxException.class)
+        .addStatement("throw new $T(e)", IllegalArgumentException.class)
+        .endControlFlow()
+        .build();
+  }
+
+  private MethodSpec archived() {
+    return MethodSpec.methodBuilder("archived")
+        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+        .addJavadoc(
+            "Finds the resource in the input archives on the classpath, resolving the name the"
+                + " same way\nas {@link Class#getResource}. Every archive is mapped and indexed"
+                + " once.\n")
+        .returns(ByteBuffer.class)
+        .addParameter(String.class, "filename")
+        .addParameter(CLASS_PARAM, "cls")
+        .addStatement(
+            "String name = filename.startsWith($S) ? filename.substring(1) :"
+                + " cls.getPackageName().replace('.', '/') + $S + filename",
+            "/",
+            "/")
+        .beginControlFlow("try")
+        .addStatement(
+            "$T<$T> archives = cls.getClassLoader().getResources(ARCHIVE)",
+            Enumeration.class,
+            URL.class)
+        .beginControlFlow("while (archives.hasMoreElements())")
+        .addStatement(
+            "$T entry = ARCHIVES.computeIfAbsent(archives.nextElement(),"
+                + " $T::archiveIndex).get(name)",
+            ByteBuffer.class,
+            inputUtils)
+        .beginControlFlow("if (entry != null)")
+        .addStatement("return entry.duplicate()")
+        .endControlFlow()
+        .endControlFlow()
+        .nextControlFlow("catch ($T e)", IOException.class)
+        .addStatement("throw new $T(e)", UncheckedIOException.class)
+        .endControlFlow()
+        .addStatement(
+            "throw new $T($S + filename + $S + cls.getName())",
+            IllegalArgumentException.class,
+            "Unable to find input ",
+            " for ")
+        .build();
+  }
+
+  private static MethodSpec archiveIndex() {
+    return MethodSpec.methodBuilder("archiveIndex")
+        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+        .addJavadoc(
+            "Maps the archive and slices out every entry listed in its index, without copying"
+                + " any data.\n")
+        .returns(ParameterizedTypeName.get(Map.class, String.class, ByteBuffer.class))
+        .addParameter(URL.class, "url")
+        .addStatement("$T buffer = map(url)", ByteBuffer.class)
+        .beginControlFlow(
+            "if (buffer.limit() < 12 || buffer.getInt(0) != ARCHIVE_MAGIC || buffer.getInt(4) !="
+                + " $L)",
+            InputArchive.VERSION)
+        .addStatement(
+            "throw new $T($S + url)", IllegalArgumentException.class, "Unsupported input archive ")
+        .endControlFlow()
+        .addStatement("int count = buffer.getInt(8)")
+        .addStatement(
+            "$T<String, $T> entries = new $T<>(count * 2)",
+            Map.class,
+            ByteBuffer.class,
+            HashMap.class)
+        .addStatement("int position = 12")
+        .beginControlFlow("for (int i = 0; i < count; i++)")
+        .addStatement("int nameEnd = position + 4 + buffer.getInt(position)")
+        .addStatement("int offset = buffer.getInt(nameEnd)")
+        .addStatement(
+            "entries.put(decode(buffer, position + 4, nameEnd), slice(buffer, offset, offset +"
+                + " buffer.getInt(nameEnd + 4)))")
+        .addStatement("position = nameEnd + 8")
+        .endControlFlow()
+        .addStatement("return entries")
+        .build();
+  }
+
+  private MethodSpec bytes() {
+    return fromFile("bytes")
+        .addJavadoc("Reads the whole resource into a byte array.\n")
+        .returns(byte[].class)
+        .addStatement("$T buffer = read(filename, cls)", ByteBuffer.class)
+        .addStatement("byte[] bytes = new byte[buffer.remaining()]")
+        .addStatement("buffer.get(bytes)")
+        .addStatement("return bytes")
+        .build();
+  }
+
+  private MethodSpec examples() {
+    return MethodSpec.methodBuilder("examples")
+        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+        .addJavadoc(
+            "Names of the {@code $L*.txt} resources next to {@code cls}, in classpath directories"
+                + " or input\narchives, sorted by name.\n",
+            EXAMPLE_PREFIX)
+        .returns(ParameterizedTypeName.get(List.class, String.class))
+        .addParameter(CLASS_PARAM, "cls")
+        .addStatement("String packagePath = cls.getPackageName().replace('.', '/')")
+        .addStatement("$T<String> names = new $T<>()", Set.class, TreeSet.class)
+        .beginControlFlow("try")
+        .addStatement(
+            "$T<$T> directories = cls.getClassLoader().getResources(packagePath)",
+            Enumeration.class,
+            URL.class)
+        .beginControlFlow("while (directories.hasMoreElements())")
+        .addStatement("$T directory = directories.nextElement()", URL.class)
+        .beginControlFlow("if ($S.equals(directory.getProtocol()))", "file")
+        .beginControlFlow(
+            "try ($T<$T> files = $T.list($T.get(directory.toURI())))",
+            Stream.class,
+            Path.class,
+            Files.class,
+            Paths.class)
+        .addStatement(
+            "files.map(file -> file.getFileName().toString()).filter($T::isExample)"
+                + ".forEach(names::add)",
+            inputUtils)
+        .endControlFlow()
+        .endControlFlow()
+        .endControlFlow()
+        .addStatement(
+            "$T<$T> archives = cls.getClassLoader().getResources(ARCHIVE)",
+            Enumeration.class,
+            URL.class)
+        .beginControlFlow("while (archives.hasMoreElements())")
+        .beginControlFlow(
+            "for (String name : ARCHIVES.computeIfAbsent(archives.nextElement(),"
+                + " $T::archiveIndex).keySet())",
+            inputUtils)
+        .addStatement("int slash = name.lastIndexOf('/')")
+        .beginControlFlow(
+            "if (slash == packagePath.length() && name.startsWith(packagePath) &&"
+                + " isExample(name.substring(slash + 1)))")
+        .addStatement("names.add(name.substring(slash + 1))")
+        .endControlFlow()
+        .endControlFlow()
+        .endControlFlow()
+        .nextControlFlow("catch ($T e)", IOException.class)
+        .addStatement("throw new $T(e)", UncheckedIOException.class)
+        .nextControlFlow("catch ($T e)", URISyntaxException.class)
+        .addStatement("throw new $T(e)", IllegalArgumentException.class)
+        .endControlFlow()
+        .addStatement("return new $T<>(names)", ArrayList.class)
+        .build();
+  }
+
+  private static MethodSpec isExample() {
+    return MethodSpec.methodBuilder("isExample")
+        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+        .returns(boolean.class)
+        .addParameter(String.class, "name")
+        .addStatement("return name.startsWith($S) && name.endsWith($S)", EXAMPLE_PREFIX, ".txt")
+        .build();
+  }
+
+  private MethodSpec answer() {
+    return MethodSpec.methodBuilder("answer")
+        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+        .addJavadoc(
+            "The expected answer of a part for an example, read from the {@code part1}/{@code"
+                + " part2}\nproperties of the sidecar file with the {@code $L} extension, e.g."
+                + " {@code example2$L}\nfor {@code example2.txt}. Empty when the sidecar or the"
+                + " part's answer is missing.\n",
+            ANSWERS_EXTENSION,
+            ANSWERS_EXTENSION)
+        .returns(OptionalLong.class)
+        .addParameter(String.class, "example")
+        .addParameter(int.class, "part")
+        .addParameter(CLASS_PARAM, "cls")
+        .addStatement(
+            "String sidecar = example.substring(0, example.lastIndexOf('.')) + $S",
+            ANSWERS_EXTENSION)
+        .beginControlFlow("try ($T in = cls.getResourceAsStream(sidecar))", InputStream.class)
+        .beginControlFlow("if (in == null)")
+        .addStatement("return $T.empty()", OptionalLong.class)
+        .endControlFlow()
+        .addStatement("$T answers = new $T()", Properties.class, Properties.class)
+        .addStatement("answers.load(in)")
+        .addStatement("String answer = answers.getProperty($S + part, $S).trim()", "part", "")
+        .addStatement(
+            "return answer.isEmpty() ? $T.empty() : $T.of(Long.parseLong(answer))",
+            OptionalLong.class,
+            OptionalLong.class)
+        .nextControlFlow("catch ($T e)", IOException.class)
+        .addStatement("throw new $T(e)", UncheckedIOException.class)
+        .endControlFlow()
+        .build();
+  }
+
+  private MethodSpec stringPerLine() {
+    return fromFile("stringPerLine")
+        .addJavadoc(
+            "Reads the resource as one string per line. Kept for compatibility, prefer the buffer"
+                + " based\nhelpers for large inputs.\n")
+        .returns(ParameterizedTypeName.get(List.class, String.class))
+        .addStatement("$T buffer = read(filename, cls)", ByteBuffer.class)
+        .addStatement("int[] offsets = lineOffsets(buffer)")
+        .addStatement(
+            "$T<String> lines = new $T<>(offsets.length - 1)", List.class, ArrayList.class)
+        .beginControlFlow("for (int i = 0; i + 1 < offsets.length; i++)")
+        .addStatement(
+            "lines.add(decode(buffer, offsets[i], lineEnd(buffer, offsets[i], offsets[i + 1])))")
+        .endControlFlow()
+        .addStatement("return lines")
+        .build();
+  }
+
+  private MethodSpec lines() {
+    return fromFile("lines")
+        .addJavadoc(
+            "Streams the lines of the resource, reading it incrementally through a channel so"
+                + " memory use\ndoes not grow with the size of the input. Close the stream when"
+                + " done.\n")
+        .returns(ParameterizedTypeName.get(Stream.class, String.class))
+        .addStatement("$T reader = lineReader(filename, cls)", lineReader)
+        .addStatement(
+            "return $T.stream($T.spliteratorUnknownSize(reader, $T.ORDERED | $T.NONNULL),"
+                + " false).onClose(reader::close)",
+            StreamSupport.class,
+            Spliterators.class,
+            Spliterator.class,
+            Spliterator.class)
+        .build();
+  }
+
+  private MethodSpec lineReaderFromFile() {
+    return fromFile("lineReader")
+        .addJavadoc(
+            "Opens a {@link LineReader} over the resource, using a file channel when the resource"
+                + " is a\nplain file and the mapped slice when it is archived.\n")
+        .returns(lineReader)
+        .addStatement("$T url = cls.getResource(filename)", URL.class)
+        .beginControlFlow("if (url == null)")
+        .addStatement("return new $T(archived(filename, cls))", lineReader)
+        .endControlFlow()
+        .beginControlFlow("try")
+        .beginControlFlow("if ($S.equals(url.getProtocol()))", "file")
+        .addStatement(
+            "return new $T($T.open($T.get(url.toURI()), $T.READ))",
+            lineReader,
+            FileChannel.class,
+            Paths.class,
+            StandardOpenOption.class)
+        .endControlFlow()
+        .addStatement("return new $T($T.newChannel(url.openStream()))", lineReader, Channels.class)
+        .nextControlFlow("catch ($T e)", IOException.class)
+        .addStatement("throw new $T(e)", UncheckedIOException.class)
+        .nextControlFlow("catch ($T e)", URISyntaxException.class)
+        .addStatement("throw new $T(e)", IllegalArgumentException.class)
+        .endControlFlow()
+        .build();
+  }
+
+  private MethodSpec lineOffsets() {
+    return MethodSpec.methodBuilder("lineOffsets")
+        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+        .addJavadoc(
+            "Returns the start offset of every line in the buffer followed by the buffer limit, so"
+                + " line\n{@code i} spans {@code [offsets[i], offsets[i + 1])} including its line"
+                + " terminator.\n")
+        .returns(int[].class)
+        .addParameter(ByteBuffer.class, "buffer")
+        .addStatement("int[] offsets = new int[64]")
+        .addStatement("int count = 0")
+        .addStatement("int start = buffer.position()")
+        .addStatement("int limit = buffer.limit()")
+        .beginControlFlow("for (int i = start; i < limit; i++)")
+        .beginControlFlow("if (buffer.get(i) == '\\n')")
+        .beginControlFlow("if (count + 2 > offsets.length)")
+        .addStatement("offsets = $T.copyOf(offsets, offsets.length * 2)", Arrays.class)
+        .endControlFlow()
+        .addStatement("offsets[count++] = start")
+        .addStatement("start = i + 1")
+        .endControlFlow()
+        .endControlFlow()
+        .beginControlFlow("if (count + 2 > offsets.length)")
+        .addStatement("offsets = $T.copyOf(offsets, count + 2)", Arrays.class)
+        .endControlFlow()
+        .beginControlFlow("if (start < limit)")
+        .addStatement("offsets[count++] = start")
+        .endControlFlow()
+        .addStatement("offsets[count++] = limit")
+        .addStatement("return $T.copyOf(offsets, count)", Arrays.class)
+        .build();
+  }
+
+  private MethodSpec lineEnd() {
+    return MethodSpec.methodBuilder("lineEnd")
+        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+        .addJavadoc("Returns the end of the line in {@code [start, end)} without its terminator.\n")
+        .returns(int.class)
+        .addParameter(ByteBuffer.class, "buffer")
+        .addParameter(int.class, "start")
+        .addParameter(int.class, "end")
+        .beginControlFlow(
+            "while (end > start && (buffer.get(end - 1) == '\\n' || buffer.get(end - 1) == '\\r'))")
+        .addStatement("end--")
+        .endControlFlow()
+        .addStatement("return end")
+        .build();
+  }
+
+  private MethodSpec decode() {
+    return MethodSpec.methodBuilder("decode")
+        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+        .addJavadoc("Decodes {@code [start, end)} of the buffer as a UTF-8 string.\n")
+        .returns(String.class)
+        .addParameter(ByteBuffer.class, "buffer")
+        .addParameter(int.class, "start")
+        .addParameter(int.class, "end")
+        .addStatement("$T slice = buffer.duplicate()", ByteBuffer.class)
+        .addStatement("slice.limit(end)")
+        .addStatement("slice.position(start)")
+        .addStatement("return $T.UTF_8.decode(slice).toString()", StandardCharsets.class)
+        .build();
+  }
+
+  private MethodSpec gridFromFile() {
+    return fromFile("grid")
+        .addJavadoc(
+            "Reads a rectangular grid of characters into a flat byte array, dropping line"
+                + " terminators\nand any trailing blank lines.\n")
+        .returns(grid)
+        .addStatement("$T buffer = read(filename, cls)", ByteBuffer.class)
+        .addStatement("int[] offsets = lineOffsets(buffer)")
+        .addStatement("int height = offsets.length - 1")
+        .beginControlFlow(
+            "while (height > 0 && lineEnd(buffer, offsets[height - 1], offsets[height]) =="
+                + " offsets[height - 1])")
+        .addStatement("height--")
+        .endControlFlow()
+        .addStatement(
+            "int width = height == 0 ? 0 : lineEnd(buffer, offsets[0], offsets[1]) - offsets[0]")
+        .addStatement("byte[] cells = new byte[width * height]")
+        .addStatement("$T view = buffer.duplicate()", ByteBuffer.class)
+        .beginControlFlow("for (int row = 0; row < height; row++)")
+        .beginControlFlow(
+            "if (lineEnd(buffer, offsets[row], offsets[row + 1]) - offsets[row] != width)")
+        .addStatement(
+            "throw new $T($S + (row + 1) + $S + filename)",
+            IllegalArgumentException.class,
+            "Line ",
+            " does not match the grid width in ")
+        .endControlFlow()
+        .addStatement("view.position(offsets[row])")
+        .addStatement("view.get(cells, row * width, width)")
+        .endControlFlow()
+        .addStatement("return new $T(cells, width, height)", grid)
+        .build();
+  }
+
+  private static MethodSpec numbersFromFile(String name, Class<?> type) {
+    return fromFile(name)
+        .addJavadoc(
+            "Parses every (optionally negative) integer in the resource, ignoring any other"
+                + " characters.\n")
+        .returns(ArrayTypeName.of(type))
+        .addStatement("return $N(read(filename, cls))", name)
+        .build();
+  }
+
+  private static MethodSpec numbers(String name, Class<?> type) {
+    return MethodSpec.methodBuilder(name)
+        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+        .addJavadoc(
+            "Parses every integer in the buffer without allocating intermediate strings. A"
+                + " {@code '-'}\ndirectly after a digit is treated as a separator, not a sign.\n")
+        .returns(ArrayTypeName.of(type))
+        .addParameter(ByteBuffer.class, "buffer")
+        .addStatement("$T[] values = new $T[64]", type, type)
+        .addStatement("int count = 0")
+        .addStatement("int start = buffer.position()")
+        .addStatement("int limit = buffer.limit()")
+        .beginControlFlow("for (int i = start; i < limit; i++)")
+        .addStatement(
+            "boolean negative = buffer.get(i) == '-' && i + 1 < limit && isDigit(buffer.get(i + 1))"
+                + " && (i == start || !isDigit(buffer.get(i - 1)))")
+        .beginControlFlow("if (!negative && !isDigit(buffer.get(i)))")
+        .addStatement("continue")
+        .endControlFlow()
+        .beginControlFlow("if (negative)")
+        .addStatement("i++")
+        .endControlFlow()
+        .addStatement("$T value = 0", type)
+        .beginControlFlow("while (i < limit && isDigit(buffer.get(i)))")
+        .addStatement("value = value * 10 + (buffer.get(i++) - '0')")
+        .endControlFlow()
+        .beginControlFlow("if (count == values.length)")
+        .addStatement("values = $T.copyOf(values, count * 2)", Arrays.class)
+        .endControlFlow()
+        .addStatement("values[count++] = negative ? -value : value")
+        .endControlFlow()
+        .addStatement("return $T.copyOf(values, count)", Arrays.class)
+        .build();
+  }
+
+  private static MethodSpec blocksFromFile() {
+    return fromFile("blocks")
+        .addJavadoc("Splits the resource into blocks separated by blank lines.\n")
+        .returns(ParameterizedTypeName.get(List.class, ByteBuffer.class))
+        .addStatement("return blocks(read(filename, cls))")
+        .build();
+  }
+
+  private static MethodSpec blocks() {
+    return MethodSpec.methodBuilder("blocks")
+        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+        .addJavadoc(
+            "Splits the buffer on blank lines. Every block is a view sharing the buffer's content,"
+                + " from\nthe start of its first line to the end of its last line without the"
+                + " terminator.\n")
+        .returns(ParameterizedTypeName.get(List.class, ByteBuffer.class))
+        .addParameter(ByteBuffer.class, "buffer")
+        .addStatement("int[] offsets = lineOffsets(buffer)")
+        .addStatement("$T<$T> blocks = new $T<>()", List.class, ByteBuffer.class, ArrayList.class)
+        .addStatement("int start = -1")
+        .addStatement("int end = -1")
+        .beginControlFlow("for (int i = 0; i + 1 < offsets.length; i++)")
+        .addStatement("int lineEnd = lineEnd(buffer, offsets[i], offsets[i + 1])")
+        .beginControlFlow("if (lineEnd == offsets[i])")
+        .beginControlFlow("if (start >= 0)")
+        .addStatement("blocks.add(slice(buffer, start, end))")
+        .addStatement("start = -1")
+        .endControlFlow()
+        .nextControlFlow("else")
+        .beginControlFlow("if (start < 0)")
+        .addStatement("start = offsets[i]")
+        .endControlFlow()
+        .addStatement("end = lineEnd")
+        .endControlFlow()
+        .endControlFlow()
+        .beginControlFlow("if (start >= 0)")
+        .addStatement("blocks.add(slice(buffer, start, end))")
+        .endControlFlow()
+        .addStatement("return blocks")
+        .build();
+  }
+
+  private static MethodSpec slice() {
+    return MethodSpec.methodBuilder("slice")
+        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+        .addJavadoc("Returns {@code [start, end)} of the buffer as a view without copying.\n")
+        .returns(ByteBuffer.class)
+        .addParameter(ByteBuffer.class, "buffer")
+        .addParameter(int.class, "start")
+        .addParameter(int.class, "end")
+        .addStatement("$T view = buffer.duplicate()", ByteBuffer.class)
+        .addStatement("view.limit(end)")
+        .addStatement("view.position(start)")
+        .addStatement("return view.slice()")
+        .build();
+  }
+
+  private static MethodSpec isDigit() {
+    return MethodSpec.methodBuilder("isDigit")
+        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+        .returns(boolean.class)
+        .addParameter(byte.class, "b")
+        .addStatement("return b >= '0' && b <= '9'")
+        .build();
+  }
+
+  private TypeSpec lineReaderType() {
+    return TypeSpec.classBuilder(lineReader)
+        .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+        .addSuperinterface(ParameterizedTypeName.get(Iterator.class, String.class))
+        .addSuperinterface(Closeable.class)
+        .addJavadoc(
+            "Decodes one line at a time from a channel through a fixed size buffer, which only"
+                + " grows when\na single line does not fit.\n")
+        .addField(
+            FieldSpec.builder(int.class, "BUFFER_SIZE", Modifier.PRIVATE, Modifier.STATIC)
+                .addModifiers(Modifier.FINAL)
+                .initializer("64 * 1024")
+                .build())
+        .addField(ReadableByteChannel.class, "channel", Modifier.PRIVATE, Modifier.FINAL)
+        .addField(ByteBuffer.class, "buffer", Modifier.PRIVATE)
+        .addField(boolean.class, "eof", Modifier.PRIVATE)
+        .addField(String.class, "next", Modifier.PRIVATE)
+        .addMethod(
+            MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(ReadableByteChannel.class, "channel")
+                .addStatement("this.channel = channel")
+                .addStatement("this.buffer = $T.allocate(BUFFER_SIZE).flip()", ByteBuffer.class)
+                .build())
+        .addMethod(
+            MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addJavadoc("Reads the lines of content already in memory.\n")
+                .addParameter(ByteBuffer.class, "content")
+                .addStatement("this.channel = null")
+                .addStatement("this.buffer = content.duplicate()")
+                .addStatement("this.eof = true")
+                .build())
+        .addMethod(
+            MethodSpec.methodBuilder("hasNext")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(boolean.class)
+                .beginControlFlow("if (next == null)")
+                .addStatement("next = readLine()")
+                .endControlFlow()
+                .addStatement("return next != null")
+                .build())
+        .addMethod(
+            MethodSpec.methodBuilder("next")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(String.class)
+                .beginControlFlow("if (!hasNext())")
+                .addStatement("throw new $T()", NoSuchElementException.class)
+                .endControlFlow()
+                .addStatement("String line = next")
+                .addStatement("next = null")
+                .addStatement("return line")
+                .build())
+        .addMethod(
+            MethodSpec.methodBuilder("readLine")
+                .addModifiers(Modifier.PRIVATE)
+                .returns(String.class)
+                .addStatement("int scanned = buffer.position()")
+                .beginControlFlow("while (true)")
+                .beginControlFlow("for (int i = scanned; i < buffer.limit(); i++)")
+                .beginControlFlow("if (buffer.get(i) == '\\n')")
+                .addStatement(
+                    "String line = decode(buffer, buffer.position(), lineEnd(buffer,"
+                        + " buffer.position(), i + 1))")
+                .addStatement("buffer.position(i + 1)")
+                .addStatement("return line")
+                .endControlFlow()
+                .endControlFlow()
+                .beginControlFlow("if (eof)")
+                .beginControlFlow("if (!buffer.hasRemaining())")
+                .addStatement("return null")
+                .endControlFlow()
+                .addStatement(
+                    "String line = decode(buffer, buffer.position(), lineEnd(buffer,"
+                        + " buffer.position(), buffer.limit()))")
+                .addStatement("buffer.position(buffer.limit())")
+                .addStatement("return line")
+                .endControlFlow()
+                .addStatement("scanned = buffer.remaining()")
+                .addStatement("fill()")
+                .endControlFlow()
+                .build())
+        .addMethod(
+            MethodSpec.methodBuilder("fill")
+                .addModifiers(Modifier.PRIVATE)
+                .addJavadoc(
+                    "Moves the unread bytes to the front of the buffer and reads more after"
+                        + " them.\n")
+                .addStatement("buffer.compact()")
+                .beginControlFlow("if (!buffer.hasRemaining())")
+                .addStatement(
+                    "$T larger = $T.allocate(buffer.capacity() * 2)",
+                    ByteBuffer.class,
+                    ByteBuffer.class)
+                .addStatement("larger.put(buffer.flip())")
+                .addStatement("buffer = larger")
+                .endControlFlow()
+                .beginControlFlow("try")
+                .addStatement("eof = channel.read(buffer) < 0")
+                .nextControlFlow("catch ($T e)", IOException.class)
+                .addStatement("throw new $T(e)", UncheckedIOException.class)
+                .endControlFlow()
+                .addStatement("buffer.flip()")
+                .build())
+        .addMethod(
+            MethodSpec.methodBuilder("close")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .beginControlFlow("if (channel == null)")
+                .addStatement("return")
+                .endControlFlow()
+                .beginControlFlow("try")
+                .addStatement("channel.close()")
+                .nextControlFlow("catch ($T e)", IOException.class)
+                .addStatement("throw new $T(e)", UncheckedIOException.class)
+                .endControlFlow()
+                .build())
+        .build();
+  }
+
+  private TypeSpec gridType() {
+    return TypeSpec.classBuilder(grid)
+        .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+        .addJavadoc("A grid of characters stored row by row in a single array.\n")
+        .addField(FieldSpec.builder(byte[].class, "cells", Modifier.PUBLIC, Modifier.FINAL).build())
+        .addField(FieldSpec.builder(int.class, "width", Modifier.PUBLIC, Modifier.FINAL).build())
+        .addField(FieldSpec.builder(int.class, "height", Modifier.PUBLIC, Modifier.FINAL).build())
+        .addMethod(
+            MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(byte[].class, "cells")
+                .addParameter(int.class, "width")
+                .addParameter(int.class, "height")
+                .addStatement("this.cells = cells")
+                .addStatement("this.width = width")
+                .addStatement("this.height = height")
+                .build())
+        .addMethod(
+            MethodSpec.methodBuilder("get")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(byte.class)
+                .addParameter(int.class, "row")
+                .addParameter(int.class, "col")
+                .addStatement("return cells[row * width + col]")
+                .build())
+        .addMethod(
+            MethodSpec.methodBuilder("inBounds")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(boolean.class)
+                .addParameter(int.class, "row")
+                .addParameter(int.class, "col")
+                .addStatement("return row >= 0 && row < height && col >= 0 && col < width")
+                .build())
+        .build();
+  }
+}
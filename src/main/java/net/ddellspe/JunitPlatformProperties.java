@@ -0,0 +1,83 @@
+package net.ddellspe;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code junit-platform.properties} settings which run test classes concurrently while keeping
+ * the methods of a class on one thread. Merging only touches these keys, every other line of an
+ * existing file is kept as is.
+ */
+final class JunitPlatformProperties {
+  static final String FILE_NAME = "junit-platform.properties";
+  static final String PREFIX = "junit.jupiter.execution.parallel.";
+  static final String COMMENT = "# Concurrent test classes, maintained by aoc-generator";
+
+  private JunitPlatformProperties() {}
+
+  /**
+   * The settings for the given parallelism, a fixed number of threads when positive, otherwise one
+   * thread per available processor.
+   */
+  static Map<String, String> settings(int parallelism) {
+    Map<String, String> settings = new LinkedHashMap<>();
+    settings.put(PREFIX + "enabled", "true");
+    settings.put(PREFIX + "mode.default", "same_thread");
+    settings.put(PREFIX + "mode.classes.default", "concurrent");
+    if (parallelism > 0) {
+      settings.put(PREFIX + "config.strategy", "fixed");
+      settings.put(PREFIX + "config.fixed.parallelism", Integer.toString(parallelism));
+    } else {
+      settings.put(PREFIX + "config.strategy", "dynamic");
+      settings.put(PREFIX + "config.dynamic.factor", "1");
+    }
+    return settings;
+  }
+
+  /**
+   * Sets every key of {@code settings} in the existing file content, replacing the value of a key
+   * which is already present and appending the missing ones below {@link #COMMENT}.
+   */
+  static String merge(String existing, Map<String, String> settings) {
+    Map<String, String> missing = new LinkedHashMap<>(settings);
+    List<String> lines = new ArrayList<>();
+    for (String line : existing.split("\\R", -1)) {
+      String key = key(line);
+      if (key != null && settings.containsKey(key)) {
+        lines.add(key + "=" + settings.get(key));
+        missing.remove(key);
+      } else {
+        lines.add(line);
+      }
+    }
+    // drop the trailing empty strings of the split so the file ends with a single newline
+    while (!lines.isEmpty() && lines.get(lines.size() - 1).isEmpty()) {
+      lines.remove(lines.size() - 1);
+    }
+    if (!missing.isEmpty()) {
+      if (!lines.isEmpty() && !lines.contains(COMMENT)) {
+        lines.add("");
+      }
+      if (!lines.contains(COMMENT)) {
+        lines.add(COMMENT);
+      }
+      missing.forEach((key, value) -> lines.add(key + "=" + value));
+    }
+    return String.join("\n", lines) + "\n";
+  }
+
+  /** The key of a {@code key=value} or {@code key: value} line, null for comments and blanks. */
+  private static String key(String line) {
+    String trimmed = line.trim();
+    if (trimmed.isEmpty() || trimmed.startsWith("#") || trimmed.startsWith("!")) {
+      return null;
+    }
+    int end = 0;
+    while (end < trimmed.length() && "=: \t".indexOf(trimmed.charAt(end)) < 0) {
+      end++;
+    }
+    return trimmed.substring(0, end);
+  }
+}
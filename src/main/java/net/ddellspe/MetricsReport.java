@@ -0,0 +1,208 @@
+package net.ddellspe;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Aggregates the per-run CSV files written by the generated {@code SolutionMetrics} into one
+ * summary per part of every day.
+ */
+final class MetricsReport {
+  static final String SUMMARY_FILE = "metrics-summary.csv";
+  static final String SUMMARY_HEADER =
+      "year,day,class,part,runs,answer,median_wall_ns,median_cpu_ns,median_allocated_bytes,"
+          + "max_allocated_bytes,gc_count,gc_ms";
+
+  /** All measurements of one part, in the order they were read. */
+  static final class Summary {
+    private final DaySolution solution;
+    private final int part;
+    private final List<long[]> measurements = new ArrayList<>();
+    private long answer;
+    private long answerTimestamp = Long.MIN_VALUE;
+
+    Summary(DaySolution solution, int part) {
+      this.solution = solution;
+      this.part = part;
+    }
+
+    void add(
+        long answer, long wall, long cpu, long allocated, long gcCount, long gcMillis, long at) {
+      measurements.add(new long[] {wall, cpu, allocated, gcCount, gcMillis});
+      if (at >= answerTimestamp) {
+        this.answer = answer;
+        this.answerTimestamp = at;
+      }
+    }
+
+    DaySolution getSolution() {
+      return solution;
+    }
+
+    int getPart() {
+      return part;
+    }
+
+    int getRuns() {
+      return measurements.size();
+    }
+
+    /** The answer of the most recent measurement. */
+    long getAnswer() {
+      return answer;
+    }
+
+    long getMedianWallNanos() {
+      return median(0);
+    }
+
+    long getMedianCpuNanos() {
+      return median(1);
+    }
+
+    long getMedianAllocatedBytes() {
+      return median(2);
+    }
+
+    long getMaxAllocatedBytes() {
+      return measurements.stream().mapToLong(values -> values[2]).max().orElse(-1L);
+    }
+
+    long getGcCount() {
+      return measurements.stream().mapToLong(values -> values[3]).sum();
+    }
+
+    long getGcMillis() {
+      return measurements.stream().mapToLong(values -> values[4]).sum();
+    }
+
+    private long median(int column) {
+      long[] values = measurements.stream().mapToLong(v -> v[column]).sorted().toArray();
+      return values.length == 0 ? -1L : values[(values.length - 1) / 2];
+    }
+  }
+
+  private MetricsReport() {}
+
+  /** Lists the metrics files in the directory, empty when it does not exist. */
+  static List<Path> files(Path directory) throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return new ArrayList<>();
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(file -> file.getFileName().toString().endsWith(".csv"))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  /** Reads every file, skipping headers and lines which are not measurements of a day class. */
+  static List<Summary> read(List<Path> files) throws IOException {
+    Map<String, Summary> summaries = new LinkedHashMap<>();
+    for (Path file : files) {
+      for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+        String[] columns = line.split(",");
+        if (columns.length != 9) {
+          continue;
+        }
+        DaySolution solution = SolutionScanner.fromClassName(columns[0]);
+        long[] values;
+        try {
+          values = Arrays.stream(columns, 1, 9).mapToLong(Long::parseLong).toArray();
+        } catch (NumberFormatException e) {
+          continue;
+        }
+        if (solution == null) {
+          continue;
+        }
+        summaries
+            .computeIfAbsent(
+                columns[0] + "#" + values[0], key -> new Summary(solution, (int) values[0]))
+            .add(values[1], values[2], values[3], values[4], values[5], values[6], values[7]);
+      }
+    }
+    List<Summary> result = new ArrayList<>(summaries.values());
+    result.sort(
+        Comparator.comparing(Summary::getSolution, DaySolution.ORDER)
+            .thenComparingInt(Summary::getPart));
+    return result;
+  }
+
+  static List<String> table(List<Summary> summaries) {
+    List<String> lines = new ArrayList<>();
+    lines.add(
+        String.format(
+            "%-12s %4s %20s %5s %12s %12s %12s %12s %10s",
+            "Day", "Part", "Answer", "Runs", "Wall", "CPU", "Allocated", "Max alloc", "GC"));
+    for (Summary summary : summaries) {
+      lines.add(
+          String.format(
+              "%-12s %4d %20d %5d %12s %12s %12s %12s %10s",
+              summary.getSolution().getLabel(),
+              summary.getPart(),
+              summary.getAnswer(),
+              summary.getRuns(),
+              SolutionReport.formatNanos(summary.getMedianWallNanos()),
+              summary.getMedianCpuNanos() < 0
+                  ? "n/a"
+                  : SolutionReport.formatNanos(summary.getMedianCpuNanos()),
+              formatBytes(summary.getMedianAllocatedBytes()),
+              formatBytes(summary.getMaxAllocatedBytes()),
+              summary.getGcCount() + "/" + summary.getGcMillis() + " ms"));
+    }
+    return lines;
+  }
+
+  static String formatBytes(long bytes) {
+    if (bytes < 0) {
+      return "n/a";
+    }
+    if (bytes < 1024) {
+      return bytes + " B";
+    }
+    String[] units = {"KiB", "MiB", "GiB", "TiB"};
+    double value = bytes;
+    int unit = -1;
+    while (value >= 1024 && unit + 1 < units.length) {
+      value /= 1024;
+      unit++;
+    }
+    return String.format("%.1f %s", value, units[unit]);
+  }
+
+  static void writeCsv(Path file, List<Summary> summaries) throws IOException {
+    Files.createDirectories(file.getParent());
+    try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writer.write(SUMMARY_HEADER + "\n");
+      for (Summary summary : summaries) {
+        writer.write(
+            String.format(
+                "%d,%d,%s,%d,%d,%d,%d,%d,%d,%d,%d,%d\n",
+                summary.getSolution().getYear(),
+                summary.getSolution().getDay(),
+                summary.getSolution().getClassName(),
+                summary.getPart(),
+                summary.getRuns(),
+                summary.getAnswer(),
+                summary.getMedianWallNanos(),
+                summary.getMedianCpuNanos(),
+                summary.getMedianAllocatedBytes(),
+                summary.getMaxAllocatedBytes(),
+                summary.getGcCount(),
+                summary.getGcMillis()));
+      }
+    }
+  }
+}
@@ -0,0 +1,217 @@
+package net.ddellspe;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.TypeVariableName;
+import com.squareup.javapoet.WildcardTypeName;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntToLongFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.lang.model.element.Modifier;
+
+/**
+ * Builds the {@code <groupId>.utils.Parallel} class the parallel scaffolds reduce their input with.
+ * Every {@code sum} has a {@code sequentialSum} twin so the generated tests can check the parallel
+ * answer against a plain loop over the same input.
+ */
+final class ParallelGenerator {
+  static final String CLASS_NAME = "Parallel";
+
+  private static final TypeVariableName T = TypeVariableName.get("T");
+  private static final TypeName LIST_OF_T = ParameterizedTypeName.get(ClassName.get(List.class), T);
+  private static final TypeName STREAM_OF_T =
+      ParameterizedTypeName.get(ClassName.get(Stream.class), T);
+  private static final TypeName ITEM_SOLVER =
+      ParameterizedTypeName.get(
+          ClassName.get(ToLongFunction.class), WildcardTypeName.supertypeOf(T));
+
+  private final ClassName parallel;
+  private final ClassName sumTask;
+
+  ParallelGenerator(String groupId) {
+    this.parallel = ClassName.get(InputUtilsGenerator.utilsPackage(groupId), CLASS_NAME);
+    this.sumTask = parallel.nestedClass("SumTask");
+  }
+
+  ClassName getClassName() {
+    return parallel;
+  }
+
+  JavaFile build() {
+    TypeSpec type =
+        TypeSpec.classBuilder(parallel)
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .addJavadoc(
+                "Sums a per-item solver over the parsed input on a dedicated fork-join pool. The"
+                    + " input is split\nin halves until a range is small enough to solve on one"
+                    + " thread, the pool size can be set\nwith {@code -Daoc.parallelism}.\n")
+            .addField(
+                FieldSpec.builder(int.class, "PARALLELISM", Modifier.PUBLIC, Modifier.STATIC)
+                    .addModifiers(Modifier.FINAL)
+                    .initializer(
+                        "Math.max(1, Integer.getInteger($S,"
+                            + " Runtime.getRuntime().availableProcessors()))",
+                        "aoc.parallelism")
+                    .build())
+            .addField(
+                FieldSpec.builder(ForkJoinPool.class, "POOL", Modifier.PRIVATE, Modifier.STATIC)
+                    .addModifiers(Modifier.FINAL)
+                    .initializer("new $T(PARALLELISM)", ForkJoinPool.class)
+                    .build())
+            .addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build())
+            .addMethod(sumRange())
+            .addMethod(
+                sum(
+                    "sum",
+                    LIST_OF_T,
+                    ITEM_SOLVER,
+                    "sumRange(items.size(), i -> solver.applyAsLong(items.get(i)))"))
+            .addMethod(
+                sum(
+                    "sum",
+                    TypeName.get(int[].class),
+                    TypeName.get(IntToLongFunction.class),
+                    "sumRange(items.length, i -> solver.applyAsLong(items[i]))"))
+            .addMethod(
+                sum(
+                    "sum",
+                    TypeName.get(long[].class),
+                    TypeName.get(LongUnaryOperator.class),
+                    "sumRange(items.length, i -> solver.applyAsLong(items[i]))"))
+            .addMethod(
+                MethodSpec.methodBuilder("sum")
+                    .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                    .addJavadoc(
+                        "Sums the solver over a stream, which is made parallel and run on the"
+                            + " pool.\n")
+                    .addTypeVariable(T)
+                    .returns(long.class)
+                    .addParameter(STREAM_OF_T, "items")
+                    .addParameter(ITEM_SOLVER, "solver")
+                    .addStatement(
+                        "return POOL.submit(() -> items.parallel().mapToLong(solver).sum()).join()")
+                    .build())
+            .addMethod(
+                MethodSpec.methodBuilder("sequentialSumRange")
+                    .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                    .returns(long.class)
+                    .addParameter(int.class, "count")
+                    .addParameter(IntToLongFunction.class, "solver")
+                    .addStatement(
+                        "return $T.range(0, count).mapToLong(solver).sum()", IntStream.class)
+                    .build())
+            .addMethod(
+                sum(
+                    "sequentialSum",
+                    LIST_OF_T,
+                    ITEM_SOLVER,
+                    "sequentialSumRange(items.size(), i -> solver.applyAsLong(items.get(i)))"))
+            .addMethod(
+                sum(
+                    "sequentialSum",
+                    TypeName.get(int[].class),
+                    TypeName.get(IntToLongFunction.class),
+                    "sequentialSumRange(items.length, i -> solver.applyAsLong(items[i]))"))
+            .addMethod(
+                sum(
+                    "sequentialSum",
+                    TypeName.get(long[].class),
+                    TypeName.get(LongUnaryOperator.class),
+                    "sequentialSumRange(items.length, i -> solver.applyAsLong(items[i]))"))
+            .addMethod(
+                sum(
+                    "sequentialSum",
+                    STREAM_OF_T,
+                    ITEM_SOLVER,
+                    "items.sequential().mapToLong(solver).sum()"))
+            .addType(sumTaskType())
+            .build();
+    return JavaFile.builder(parallel.packageName(), type).skipJavaLangImports(true).build();
+  }
+
+  /** Splits {@code [0, count)} into about four ranges per worker and sums them on the pool. */
+  private MethodSpec sumRange() {
+    return MethodSpec.methodBuilder("sumRange")
+        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+        .addJavadoc(
+            "Sums {@code solver} over the indexes {@code [0, count)}, split into about four"
+                + " ranges per worker\nso that uneven items still balance across the pool.\n")
+        .returns(long.class)
+        .addParameter(int.class, "count")
+        .addParameter(IntToLongFunction.class, "solver")
+        .addStatement("int threshold = Math.max(1, count / (PARALLELISM * 4))")
+        .addStatement("return POOL.invoke(new $T(0, count, threshold, solver))", sumTask)
+        .build();
+  }
+
+  private static MethodSpec sum(String name, TypeName items, TypeName solver, String body) {
+    MethodSpec.Builder method =
+        MethodSpec.methodBuilder(name)
+            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+            .returns(long.class)
+            .addParameter(items, "items")
+            .addParameter(solver, "solver")
+            .addStatement("return " + body);
+    if (items == LIST_OF_T || items == STREAM_OF_T) {
+      method.addTypeVariable(T);
+    }
+    return method.build();
+  }
+
+  private TypeSpec sumTaskType() {
+    return TypeSpec.classBuilder(sumTask)
+        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+        .superclass(ParameterizedTypeName.get(RecursiveTask.class, Long.class))
+        .addField(
+            FieldSpec.builder(long.class, "serialVersionUID", Modifier.PRIVATE, Modifier.STATIC)
+                .addModifiers(Modifier.FINAL)
+                .initializer("1L")
+                .build())
+        .addField(int.class, "start", Modifier.PRIVATE, Modifier.FINAL)
+        .addField(int.class, "end", Modifier.PRIVATE, Modifier.FINAL)
+        .addField(int.class, "threshold", Modifier.PRIVATE, Modifier.FINAL)
+        .addField(IntToLongFunction.class, "solver", Modifier.PRIVATE, Modifier.FINAL)
+        .addMethod(
+            MethodSpec.constructorBuilder()
+                .addParameter(int.class, "start")
+                .addParameter(int.class, "end")
+                .addParameter(int.class, "threshold")
+                .addParameter(IntToLongFunction.class, "solver")
+                .addStatement("this.start = start")
+                .addStatement("this.end = end")
+                .addStatement("this.threshold = threshold")
+                .addStatement("this.solver = solver")
+                .build())
+        .addMethod(
+            MethodSpec.methodBuilder("compute")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PROTECTED)
+                .returns(Long.class)
+                .beginControlFlow("if (end - start <= threshold)")
+                .addStatement("long sum = 0L")
+                .beginControlFlow("for (int i = start; i < end; i++)")
+                .addStatement("sum += solver.applyAsLong(i)")
+                .endControlFlow()
+                .addStatement("return sum")
+                .endControlFlow()
+                .addStatement("int middle = (start + end) >>> 1")
+                .addStatement(
+                    "$T left = new $T(start, middle, threshold, solver)", sumTask, sumTask)
+                .addStatement("left.fork()")
+                .addStatement(
+                    "long right = new $T(middle, end, threshold, solver).compute()", sumTask)
+                .addStatement("return right + left.join()")
+                .build())
+        .build();
+  }
+}
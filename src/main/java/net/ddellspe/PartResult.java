@@ -0,0 +1,93 @@
+package net.ddellspe;
+
+import java.util.Arrays;
+
+/** Answer and timing samples for one part of one day, or a cached answer without samples. */
+final class PartResult {
+  private final DaySolution solution;
+  private final int part;
+  private final Long answer;
+  private final long[] samples;
+  private final String error;
+  private final long allocatedBytes;
+  private final boolean cached;
+
+  private PartResult(
+      DaySolution solution,
+      int part,
+      Long answer,
+      long[] samples,
+      long allocatedBytes,
+      String error,
+      boolean cached) {
+    this.solution = solution;
+    this.part = part;
+    this.answer = answer;
+    this.samples = samples.clone();
+    Arrays.sort(this.samples);
+    this.allocatedBytes = allocatedBytes;
+    this.error = error;
+    this.cached = cached;
+  }
+
+  static PartResult success(
+      DaySolution solution, int part, long answer, long[] samples, long allocatedBytes) {
+    return new PartResult(solution, part, answer, samples, allocatedBytes, null, false);
+  }
+
+  static PartResult cached(DaySolution solution, int part, long answer) {
+    return new PartResult(solution, part, answer, new long[0], -1L, null, true);
+  }
+
+  static PartResult failure(DaySolution solution, int part, String error) {
+    return new PartResult(solution, part, null, new long[0], -1L, error, false);
+  }
+
+  DaySolution getSolution() {
+    return solution;
+  }
+
+  int getPart() {
+    return part;
+  }
+
+  /** The answer, or null when the part failed. */
+  Long getAnswer() {
+    return answer;
+  }
+
+  /** The failure reason, or null when the part succeeded. */
+  String getError() {
+    return error;
+  }
+
+  /** True when the answer came from the answer cache and the part was not run. */
+  boolean isCached() {
+    return cached;
+  }
+
+  /** Bytes allocated per measured invocation, or -1 when unknown. */
+  long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  int getIterations() {
+    return samples.length;
+  }
+
+  long getMedianNanos() {
+    return percentile(50);
+  }
+
+  long getP99Nanos() {
+    return percentile(99);
+  }
+
+  private long percentile(int percentile) {
+    if (samples.length == 0) {
+      return 0L;
+    }
+    int index = (int) Math.ceil(percentile / 100.0 * samples.length) - 1;
+    return samples[Math.max(0, index)];
+  }
+}
@@ -0,0 +1,69 @@
+package net.ddellspe;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Committed median time, allocated bytes per operation and parallelism of every part, keyed by
+ * {@link SolutionRunner#key}, which {@code check-performance} compares new runs against.
+ */
+final class PerformanceBaseline {
+  static final String HEADER = "class,part,median_ns,alloc_bytes,parallelism";
+
+  private PerformanceBaseline() {}
+
+  /** Reads the baseline, returning an empty map when the file does not exist. */
+  static Map<String, long[]> read(Path file) throws IOException {
+    Map<String, long[]> baseline = new TreeMap<>();
+    if (!Files.isRegularFile(file)) {
+      return baseline;
+    }
+    List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+    for (String line : lines.subList(Math.min(1, lines.size()), lines.size())) {
+      if (line.trim().isEmpty()) {
+        continue;
+      }
+      String[] columns = line.trim().split(",");
+      if (columns.length != 5) {
+        throw new IOException("Malformed baseline line: " + line);
+      }
+      try {
+        baseline.put(
+            columns[0] + "#" + columns[1],
+            new long[] {
+              Long.parseLong(columns[2]), Long.parseLong(columns[3]), Long.parseLong(columns[4])
+            });
+      } catch (NumberFormatException e) {
+        throw new IOException("Malformed baseline line: " + line, e);
+      }
+    }
+    return baseline;
+  }
+
+  /** Writes the baseline sorted by key, so refreshing it gives small diffs. */
+  static void write(Path file, Map<String, long[]> baseline) throws IOException {
+    if (file.getParent() != null) {
+      Files.createDirectories(file.getParent());
+    }
+    try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writer.write(HEADER + "\n");
+      for (Map.Entry<String, long[]> entry : new TreeMap<>(baseline).entrySet()) {
+        int separator = entry.getKey().lastIndexOf('#');
+        writer.write(
+            String.format(
+                "%s,%s,%d,%d,%d\n",
+                entry.getKey().substring(0, separator),
+                entry.getKey().substring(separator + 1),
+                entry.getValue()[0],
+                entry.getValue()[1],
+                entry.getValue()[2]));
+      }
+    }
+  }
+}
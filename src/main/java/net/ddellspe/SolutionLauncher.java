@@ -0,0 +1,42 @@
+package net.ddellspe;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Entry point of the forked JVMs the {@code cds-archive} goal trains and times, running both parts
+ * of the given day classes once on the system class loader and printing the answers.
+ *
+ * <p>Usage: {@code SolutionLauncher <inputName> <dayClassName>...}
+ */
+public final class SolutionLauncher {
+  private SolutionLauncher() {}
+
+  public static void main(String[] args) {
+    if (args.length < 1) {
+      System.err.println("Usage: SolutionLauncher <inputName> <dayClassName>...");
+      System.exit(2);
+    }
+    List<DaySolution> solutions = new ArrayList<>();
+    for (int i = 1; i < args.length; i++) {
+      DaySolution solution = SolutionScanner.fromClassName(args[i]);
+      if (solution != null) {
+        solutions.add(solution);
+      }
+    }
+    List<PartResult> results =
+        new SolutionRunner(
+                SolutionLauncher.class.getClassLoader(),
+                args[0],
+                0,
+                1,
+                Runtime.getRuntime().availableProcessors(),
+                0L,
+                null)
+            .runAll(solutions, Collections.emptyMap());
+    for (String line : SolutionReport.table(results)) {
+      System.out.println(line);
+    }
+  }
+}
@@ -0,0 +1,172 @@
+package net.ddellspe;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongSupplier;
+import javax.lang.model.element.Modifier;
+
+/**
+ * Builds the {@code <groupId>.utils.SolutionMetrics} class the instrumented solution tests measure
+ * their parts with. Every JVM appends to its own CSV file in the metrics directory, which the
+ * {@code metrics-report} goal aggregates.
+ */
+final class SolutionMetricsGenerator {
+  static final String CLASS_NAME = "SolutionMetrics";
+  static final String DEFAULT_DIRECTORY = "target/aoc-generator/metrics";
+  static final String HEADER =
+      "class,part,answer,wall_ns,cpu_ns,allocated_bytes,gc_count,gc_ms,timestamp";
+
+  private static final TypeName CLASS_PARAM =
+      ParameterizedTypeName.get(
+          ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class));
+  private static final ClassName SUN_THREAD_MX_BEAN =
+      ClassName.get("com.sun.management", "ThreadMXBean");
+
+  private final ClassName solutionMetrics;
+
+  SolutionMetricsGenerator(String groupId) {
+    this.solutionMetrics = ClassName.get(InputUtilsGenerator.utilsPackage(groupId), CLASS_NAME);
+  }
+
+  ClassName getClassName() {
+    return solutionMetrics;
+  }
+
+  JavaFile build() {
+    TypeSpec type =
+        TypeSpec.classBuilder(solutionMetrics)
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .addJavadoc(
+                "Measures wall and CPU time, allocated bytes and garbage collections of a part,"
+                    + " appending\none line per part to a CSV file of this run under {@code $L},"
+                    + " which can be moved with\n{@code -Daoc.metrics.dir}.\n",
+                DEFAULT_DIRECTORY)
+            .addField(
+                FieldSpec.builder(Path.class, "FILE", Modifier.PRIVATE, Modifier.STATIC)
+                    .addModifiers(Modifier.FINAL)
+                    .initializer(
+                        "$T.get(System.getProperty($S, $S)).resolve($S +"
+                            + " ProcessHandle.current().pid() + $S +"
+                            + " $T.getRuntimeMXBean().getStartTime() + $S)",
+                        Paths.class,
+                        "aoc.metrics.dir",
+                        DEFAULT_DIRECTORY,
+                        "metrics-",
+                        "-",
+                        ManagementFactory.class,
+                        ".csv")
+                    .build())
+            .addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build())
+            .addMethod(measure())
+            .addMethod(allocatedBytes())
+            .addMethod(gcTotal("gcCount", "getCollectionCount"))
+            .addMethod(gcTotal("gcMillis", "getCollectionTime"))
+            .addMethod(append())
+            .build();
+    return JavaFile.builder(solutionMetrics.packageName(), type).skipJavaLangImports(true).build();
+  }
+
+  private MethodSpec measure() {
+    return MethodSpec.methodBuilder("measure")
+        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+        .addJavadoc(
+            "Runs {@code solver} on the current thread and records its measurements. CPU time and"
+                + " allocated\nbytes are -1 when the JVM does not support them, the garbage"
+                + " collection deltas include\nother threads.\n")
+        .returns(long.class)
+        .addParameter(CLASS_PARAM, "cls")
+        .addParameter(int.class, "part")
+        .addParameter(LongSupplier.class, "solver")
+        .addStatement(
+            "$T threads = $T.getThreadMXBean()", ThreadMXBean.class, ManagementFactory.class)
+        .addStatement(
+            "boolean cpuSupported = threads.isCurrentThreadCpuTimeSupported() &&"
+                + " threads.isThreadCpuTimeEnabled()")
+        .addStatement("long gcCount = gcCount()")
+        .addStatement("long gcMillis = gcMillis()")
+        .addStatement("long allocated = allocatedBytes(threads)")
+        .addStatement("long cpu = cpuSupported ? threads.getCurrentThreadCpuTime() : -1L")
+        .addStatement("long start = System.nanoTime()")
+        .addStatement("long answer = solver.getAsLong()")
+        .addStatement("long wall = System.nanoTime() - start")
+        .addStatement("cpu = cpuSupported ? threads.getCurrentThreadCpuTime() - cpu : -1L")
+        .addStatement("allocated = allocated < 0 ? -1L : allocatedBytes(threads) - allocated")
+        .addStatement(
+            "append(String.format($S, cls.getName(), part, answer, wall, cpu, allocated,"
+                + " gcCount() - gcCount, gcMillis() - gcMillis, System.currentTimeMillis()))",
+            "%s,%d,%d,%d,%d,%d,%d,%d,%d")
+        .addStatement("return answer")
+        .build();
+  }
+
+  private MethodSpec allocatedBytes() {
+    return MethodSpec.methodBuilder("allocatedBytes")
+        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+        .returns(long.class)
+        .addParameter(ThreadMXBean.class, "threads")
+        .beginControlFlow("if (threads instanceof $T)", SUN_THREAD_MX_BEAN)
+        .addStatement("$T extended = ($T) threads", SUN_THREAD_MX_BEAN, SUN_THREAD_MX_BEAN)
+        .beginControlFlow(
+            "if (extended.isThreadAllocatedMemorySupported() &&"
+                + " extended.isThreadAllocatedMemoryEnabled())")
+        .addStatement("return extended.getThreadAllocatedBytes(Thread.currentThread().getId())")
+        .endControlFlow()
+        .endControlFlow()
+        .addStatement("return -1L")
+        .build();
+  }
+
+  private static MethodSpec gcTotal(String name, String getter) {
+    return MethodSpec.methodBuilder(name)
+        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+        .returns(long.class)
+        .addStatement("long total = 0L")
+        .beginControlFlow(
+            "for ($T gc : $T.getGarbageCollectorMXBeans())",
+            GarbageCollectorMXBean.class,
+            ManagementFactory.class)
+        .addStatement("total += Math.max(0L, gc.$N())", getter)
+        .endControlFlow()
+        .addStatement("return total")
+        .build();
+  }
+
+  private static MethodSpec append() {
+    return MethodSpec.methodBuilder("append")
+        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.SYNCHRONIZED)
+        .addParameter(String.class, "line")
+        .beginControlFlow("try")
+        .addStatement("$T.createDirectories(FILE.toAbsolutePath().getParent())", Files.class)
+        .addStatement(
+            "String content = ($T.exists(FILE) ? $S : $S) + line + $S",
+            Files.class,
+            "",
+            HEADER + "\n",
+            "\n")
+        .addStatement(
+            "$T.write(FILE, content.getBytes($T.UTF_8), $T.CREATE, $T.APPEND)",
+            Files.class,
+            StandardCharsets.class,
+            StandardOpenOption.class,
+            StandardOpenOption.class)
+        .nextControlFlow("catch ($T e)", IOException.class)
+        .addStatement("System.err.println($S + e)", "Unable to write solution metrics: ")
+        .endControlFlow()
+        .build();
+  }
+}
@@ -0,0 +1,259 @@
+package net.ddellspe;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Runs one part of a compiled day class repeatedly under a Java Flight Recorder recording, and
+ * summarizes the recording into the most sampled methods, the allocation sites allocating the most
+ * bytes and the garbage collection pauses.
+ *
+ * <p>The part runs on a dedicated thread so that samples and allocations of the rest of the JVM
+ * (e.g. Maven itself) can be filtered out of the summary. Garbage collections are global and
+ * include every collection during the recording.
+ */
+final class SolutionProfiler {
+  static final String THREAD_NAME = "aoc-profile";
+
+  private static final MethodType PART_TYPE = MethodType.methodType(long.class, String.class);
+  private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+  private static final String ALLOCATION_IN_TLAB = "jdk.ObjectAllocationInNewTLAB";
+  private static final String ALLOCATION_OUTSIDE_TLAB = "jdk.ObjectAllocationOutsideTLAB";
+  private static final String GARBAGE_COLLECTION = "jdk.GarbageCollection";
+  private static final int INITIAL_SAMPLES = 1024;
+
+  private final ClassLoader classLoader;
+  private final String inputName;
+  private final long durationMillis;
+  private final long samplePeriodMillis;
+
+  SolutionProfiler(
+      ClassLoader classLoader, String inputName, long durationMillis, long samplePeriodMillis) {
+    this.classLoader = classLoader;
+    this.inputName = inputName;
+    this.durationMillis = durationMillis;
+    this.samplePeriodMillis = Math.max(1L, samplePeriodMillis);
+  }
+
+  /**
+   * Records the part, invoking it until it has run for at least the configured duration, and dumps
+   * the recording to the given file. Every invocation is one sample of the returned result.
+   */
+  PartResult record(DaySolution solution, int part, Path recordingFile) throws IOException {
+    MethodHandle handle;
+    try {
+      Class<?> cls = Class.forName(solution.getClassName(), true, classLoader);
+      handle = MethodHandles.publicLookup().findStatic(cls, "part" + part, PART_TYPE);
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return PartResult.failure(solution, part, "Unable to load part" + part + ": " + e);
+    }
+    PartResult[] result = new PartResult[1];
+    Thread worker =
+        new Thread(() -> result[0] = invoke(solution, part, handle), THREAD_NAME + "-" + part);
+    worker.setContextClassLoader(classLoader);
+    Files.createDirectories(recordingFile.toAbsolutePath().getParent());
+    try (Recording recording = new Recording()) {
+      recording.setName(THREAD_NAME);
+      recording.enable(EXECUTION_SAMPLE).withPeriod(Duration.ofMillis(samplePeriodMillis));
+      recording.enable(ALLOCATION_IN_TLAB).withStackTrace();
+      recording.enable(ALLOCATION_OUTSIDE_TLAB).withStackTrace();
+      recording.enable(GARBAGE_COLLECTION);
+      recording.start();
+      worker.start();
+      try {
+        worker.join();
+      } catch (InterruptedException e) {
+        worker.interrupt();
+        Thread.currentThread().interrupt();
+        return PartResult.failure(solution, part, "Interrupted while profiling");
+      } finally {
+        recording.stop();
+      }
+      recording.dump(recordingFile);
+    }
+    return result[0];
+  }
+
+  /**
+   * Invokes the part until the duration is up. Samples go to a {@code long[]} grown by doubling, so
+   * the harness adds no allocation per invocation to the profiled thread.
+   */
+  private PartResult invoke(DaySolution solution, int part, MethodHandle handle) {
+    long[] samples = new long[INITIAL_SAMPLES];
+    int count = 0;
+    long answer = 0L;
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+    try {
+      do {
+        long start = System.nanoTime();
+        answer = (long) handle.invokeExact(inputName);
+        long elapsed = System.nanoTime() - start;
+        if (count == samples.length) {
+          samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = elapsed;
+      } while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted());
+    } catch (Throwable e) {
+      return PartResult.failure(solution, part, e.toString());
+    }
+    return PartResult.success(solution, part, answer, Arrays.copyOf(samples, count), -1L);
+  }
+
+  /** What a recording of one part spent its time and memory on. */
+  static final class Summary {
+    private final Map<String, Long> methodSamples = new HashMap<>();
+    private final Map<String, Long> allocationBytes = new HashMap<>();
+    private final List<String> collections = new ArrayList<>();
+    private final List<Duration> pauses = new ArrayList<>();
+    private long samples = 0L;
+
+    long getSamples() {
+      return samples;
+    }
+
+    /** Sample counts by the method on top of the stack (self time), most sampled first. */
+    List<Map.Entry<String, Long>> topMethods(int limit) {
+      return top(methodSamples, limit);
+    }
+
+    /** Allocated bytes by allocated class and allocating frame, largest first. */
+    List<Map.Entry<String, Long>> topAllocations(int limit) {
+      return top(allocationBytes, limit);
+    }
+
+    int getCollections() {
+      return pauses.size();
+    }
+
+    Duration getTotalPause() {
+      return pauses.stream().reduce(Duration.ZERO, Duration::plus);
+    }
+
+    Duration getLongestPause() {
+      return pauses.stream().max(Comparator.naturalOrder()).orElse(Duration.ZERO);
+    }
+
+    private static List<Map.Entry<String, Long>> top(Map<String, Long> counts, int limit) {
+      return counts.entrySet().stream()
+          .sorted(
+              Map.Entry.<String, Long>comparingByValue()
+                  .reversed()
+                  .thenComparing(Map.Entry.comparingByKey()))
+          .limit(limit)
+          .collect(Collectors.toList());
+    }
+
+    /** Report lines listing the top methods, allocation sites and pauses. */
+    List<String> table(int limit) {
+      List<String> lines = new ArrayList<>();
+      lines.add(String.format("Top sampled methods (%d sample(s)):", samples));
+      for (Map.Entry<String, Long> entry : topMethods(limit)) {
+        lines.add(
+            String.format(
+                "  %6.1f%% %8d  %s",
+                100.0 * entry.getValue() / samples, entry.getValue(), entry.getKey()));
+      }
+      long allocated = allocationBytes.values().stream().mapToLong(Long::longValue).sum();
+      lines.add(
+          String.format(
+              "Top allocation sites (%s sampled):", MetricsReport.formatBytes(allocated)));
+      for (Map.Entry<String, Long> entry : topAllocations(limit)) {
+        lines.add(
+            String.format(
+                "  %10s  %s", MetricsReport.formatBytes(entry.getValue()), entry.getKey()));
+      }
+      lines.add(
+          String.format(
+              "GC pauses: %d collection(s), %.2f ms total, %.2f ms longest",
+              getCollections(),
+              getTotalPause().toNanos() / 1_000_000.0,
+              getLongestPause().toNanos() / 1_000_000.0));
+      collections.stream().limit(limit).forEach(collection -> lines.add("  " + collection));
+      return lines;
+    }
+  }
+
+  /**
+   * Reads a recording made by {@link #record}, only counting samples and allocations of threads
+   * whose name starts with {@link #THREAD_NAME}.
+   */
+  static Summary summarize(Path recordingFile) throws IOException {
+    Summary summary = new Summary();
+    List<RecordedEvent> gcs = new ArrayList<>();
+    for (RecordedEvent event : RecordingFile.readAllEvents(recordingFile)) {
+      String type = event.getEventType().getName();
+      if (EXECUTION_SAMPLE.equals(type)) {
+        String method =
+            isProfiled(event.getThread("sampledThread")) ? topFrame(event, false) : null;
+        if (method != null) {
+          summary.samples++;
+          summary.methodSamples.merge(method, 1L, Long::sum);
+        }
+      } else if (ALLOCATION_IN_TLAB.equals(type) || ALLOCATION_OUTSIDE_TLAB.equals(type)) {
+        String frame = isProfiled(event.getThread()) ? topFrame(event, true) : null;
+        if (frame != null) {
+          long bytes =
+              ALLOCATION_IN_TLAB.equals(type)
+                  ? event.getLong("tlabSize")
+                  : event.getLong("allocationSize");
+          summary.allocationBytes.merge(
+              event.getClass("objectClass").getName() + " at " + frame, bytes, Long::sum);
+        }
+      } else if (GARBAGE_COLLECTION.equals(type)) {
+        gcs.add(event);
+      }
+    }
+    gcs.sort(
+        Comparator.comparing((RecordedEvent event) -> event.getDuration("sumOfPauses")).reversed());
+    for (RecordedEvent gc : gcs) {
+      Duration pause = gc.getDuration("sumOfPauses");
+      summary.pauses.add(pause);
+      summary.collections.add(
+          String.format(
+              "%.2f ms %s (%s)",
+              pause.toNanos() / 1_000_000.0, gc.getString("name"), gc.getString("cause")));
+    }
+    return summary;
+  }
+
+  private static boolean isProfiled(RecordedThread thread) {
+    return thread != null
+        && thread.getJavaName() != null
+        && thread.getJavaName().startsWith(THREAD_NAME);
+  }
+
+  /**
+   * The method on top of the event's stack as {@code Class.method}, optionally followed by the
+   * line, or null when the event has no stack trace.
+   */
+  private static String topFrame(RecordedEvent event, boolean withLine) {
+    RecordedStackTrace stackTrace = event.getStackTrace();
+    if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+      return null;
+    }
+    RecordedFrame frame = stackTrace.getFrames().get(0);
+    RecordedMethod method = frame.getMethod();
+    String name = method.getType().getName() + "." + method.getName();
+    return withLine && frame.getLineNumber() > 0 ? name + ":" + frame.getLineNumber() : name;
+  }
+}
@@ -0,0 +1,201 @@
+package net.ddellspe;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Formats solution results as a log table and as JSON and CSV report files. */
+final class SolutionReport {
+  static final String JSON_FILE = "solutions.json";
+  static final String CSV_FILE = "solutions.csv";
+  static final String CSV_HEADER =
+      "year,day,class,part,answer,iterations,median_ns,p99_ns,alloc_bytes,parallelism,cached,error";
+
+  private SolutionReport() {}
+
+  static List<String> table(List<PartResult> results) {
+    List<String> lines = new ArrayList<>();
+    lines.add(
+        String.format(
+            "%-12s %4s %20s %12s %12s %12s", "Day", "Part", "Answer", "Median", "p99", "Alloc/op"));
+    for (PartResult result : results) {
+      if (result.getError() != null) {
+        lines.add(
+            String.format(
+                "%-12s %4d %20s %s",
+                result.getSolution().getLabel(), result.getPart(), "FAILED", result.getError()));
+      } else {
+        lines.add(
+            String.format(
+                "%-12s %4d %20d %12s %12s %12s",
+                result.getSolution().getLabel(),
+                result.getPart(),
+                result.getAnswer(),
+                result.isCached() ? "cached" : formatNanos(result.getMedianNanos()),
+                result.isCached() ? "cached" : formatNanos(result.getP99Nanos()),
+                result.isCached()
+                    ? "cached"
+                    : MetricsReport.formatBytes(result.getAllocatedBytes())));
+      }
+    }
+    return lines;
+  }
+
+  static String formatNanos(long nanos) {
+    return String.format("%.3f ms", nanos / 1_000_000.0);
+  }
+
+  static void writeJson(Path file, List<PartResult> results) throws IOException {
+    Files.createDirectories(file.getParent());
+    try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writer.write("{\n  \"solutions\": [");
+      for (int i = 0; i < results.size(); i++) {
+        PartResult result = results.get(i);
+        writer.write(i == 0 ? "\n" : ",\n");
+        writer.write(
+            String.format(
+                "    {\"year\": %d, \"day\": %d, \"class\": %s, \"part\": %d, \"answer\": %s,"
+                    + " \"iterations\": %d, \"medianNanos\": %d, \"p99Nanos\": %d, \"allocatedBytes\": %d,"
+                    + " \"cached\": %b,"
+                    + " \"error\": %s}",
+                result.getSolution().getYear(),
+                result.getSolution().getDay(),
+                jsonString(result.getSolution().getClassName()),
+                result.getPart(),
+                result.getAnswer(),
+                result.getIterations(),
+                result.getMedianNanos(),
+                result.getP99Nanos(),
+                result.getAllocatedBytes(),
+                result.isCached(),
+                jsonString(result.getError())));
+      }
+      writer.write("\n  ]\n}\n");
+    }
+  }
+
+  /**
+   * Writes the results with the parallelism set for the run, 0 when it defaulted to the number of
+   * processors, which {@code check-performance} requires to match the baseline. Cached parts keep
+   * the timings they were written with by the run that solved them, taken from {@code previous} as
+   * returned by {@link #readTimings}, so a fully cached run does not lose the history.
+   */
+  static void writeCsv(
+      Path file, List<PartResult> results, int parallelism, Map<String, long[]> previous)
+      throws IOException {
+    Files.createDirectories(file.getParent());
+    try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writer.write(CSV_HEADER + "\n");
+      for (PartResult result : results) {
+        long[] timings =
+            result.isCached()
+                ? previous.get(SolutionRunner.key(result.getSolution(), result.getPart()))
+                : null;
+        if (timings == null) {
+          timings =
+              new long[] {
+                result.getIterations(),
+                result.getMedianNanos(),
+                result.getP99Nanos(),
+                result.getAllocatedBytes(),
+                parallelism
+              };
+        }
+        writer.write(
+            String.format(
+                "%d,%d,%s,%d,%s,%d,%d,%d,%d,%d,%b,%s\n",
+                result.getSolution().getYear(),
+                result.getSolution().getDay(),
+                result.getSolution().getClassName(),
+                result.getPart(),
+                result.getAnswer() == null ? "" : result.getAnswer(),
+                timings[0],
+                timings[1],
+                timings[2],
+                timings[3],
+                timings[4],
+                result.isCached(),
+                csvString(result.getError())));
+      }
+    }
+  }
+
+  /** The median times of timings as returned by {@link #readTimings}. */
+  static Map<String, Long> medians(Map<String, long[]> timings) {
+    Map<String, Long> medians = new HashMap<>();
+    timings.forEach((key, timing) -> medians.put(key, timing[1]));
+    return medians;
+  }
+
+  /**
+   * Reads the median time, allocated bytes per operation and parallelism of every successful,
+   * measured part from a CSV report, keyed by {@link SolutionRunner#key}. Cached parts count with
+   * the timings of the run that solved them, as their class and input are unchanged since.
+   */
+  static Map<String, long[]> readMeasurements(Path file) throws IOException {
+    Map<String, long[]> measurements = new LinkedHashMap<>();
+    readTimings(file)
+        .forEach(
+            (key, timing) -> measurements.put(key, new long[] {timing[1], timing[3], timing[4]}));
+    return measurements;
+  }
+
+  /**
+   * Reads the iterations, median and p99 time, allocated bytes per operation and parallelism of
+   * every successful part with timings from a CSV report, keyed by {@link SolutionRunner#key}.
+   * Returns an empty map when there is no report.
+   */
+  static Map<String, long[]> readTimings(Path file) throws IOException {
+    Map<String, long[]> timings = new LinkedHashMap<>();
+    if (!Files.isRegularFile(file)) {
+      return timings;
+    }
+    List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+    for (String line : lines.subList(Math.min(1, lines.size()), lines.size())) {
+      String[] columns = line.split(",", 12);
+      if (columns.length == 12 && !"0".equals(columns[5]) && columns[11].isEmpty()) {
+        timings.put(
+            columns[2] + "#" + columns[3],
+            new long[] {
+              Long.parseLong(columns[5]),
+              Long.parseLong(columns[6]),
+              Long.parseLong(columns[7]),
+              Long.parseLong(columns[8]),
+              Long.parseLong(columns[9])
+            });
+      }
+    }
+    return timings;
+  }
+
+  private static String jsonString(String value) {
+    if (value == null) {
+      return "null";
+    }
+    StringBuilder builder = new StringBuilder("\"");
+    for (char c : value.toCharArray()) {
+      if (c == '"' || c == '\\') {
+        builder.append('\\').append(c);
+      } else if (c < 0x20) {
+        builder.append(String.format("\\u%04x", (int) c));
+      } else {
+        builder.append(c);
+      }
+    }
+    return builder.append('"').toString();
+  }
+
+  private static String csvString(String value) {
+    if (value == null) {
+      return "";
+    }
+    return "\"" + value.replace("\"", "\"\"").replace('\n', ' ') + "\"";
+  }
+}
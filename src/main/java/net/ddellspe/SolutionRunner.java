@@ -0,0 +1,286 @@
+package net.ddellspe;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invokes {@code part1(String)} and {@code part2(String)} of compiled day classes through method
+ * handles, running a number of untimed warmup iterations before the measured ones.
+ *
+ * <p>Every part runs on its own daemon thread, with at most {@code parallelism} parts running at
+ * once. Parts can be started longest first based on the timings of a previous run. A part running
+ * longer than the timeout is reported as timed out, interrupted and abandoned: its slot goes to the
+ * next part, but a part ignoring the interrupt, such as a CPU-bound loop, keeps running and holds
+ * on to its class loader until it returns or the JVM exits. Such parts are listed by {@link
+ * #runawayParts}. Results are always returned in day order.
+ *
+ * <p>When an {@link AnswerCache} is given, a part whose input and compiled class are unchanged
+ * since it was last solved returns the cached answer without being run.
+ */
+final class SolutionRunner {
+  private static final MethodType PART_TYPE = MethodType.methodType(long.class, String.class);
+
+  /** Threads of timed out parts, with the label of their part, until they are seen dead. */
+  private static final Map<Thread, String> ABANDONED = new ConcurrentHashMap<>();
+
+  private final ClassLoader classLoader;
+  private final String inputName;
+  private final int warmupIterations;
+  private final int measurementIterations;
+  private final int parallelism;
+  private final long timeoutMillis;
+  private final AnswerCache answerCache;
+  private final BlockingQueue<PartTask> finished = new LinkedBlockingQueue<>();
+
+  SolutionRunner(
+      ClassLoader classLoader,
+      String inputName,
+      int warmupIterations,
+      int measurementIterations,
+      int parallelism,
+      long timeoutMillis,
+      AnswerCache answerCache) {
+    this.classLoader = classLoader;
+    this.inputName = inputName;
+    this.warmupIterations = warmupIterations;
+    this.measurementIterations = Math.max(1, measurementIterations);
+    this.parallelism = Math.max(1, parallelism);
+    this.timeoutMillis = timeoutMillis;
+    this.answerCache = answerCache;
+  }
+
+  /**
+   * Runs both parts of every solution. When previous median times (keyed by {@link #key}) are
+   * given, parts are started longest first with unknown parts ahead of all known ones.
+   */
+  List<PartResult> runAll(List<DaySolution> solutions, Map<String, Long> previousNanos) {
+    List<PartTask> tasks = new ArrayList<>();
+    for (DaySolution solution : solutions) {
+      tasks.add(new PartTask(solution, 1));
+      tasks.add(new PartTask(solution, 2));
+    }
+    List<PartTask> schedule = new ArrayList<>(tasks);
+    if (!previousNanos.isEmpty()) {
+      schedule.sort(
+          Comparator.comparingLong(
+                  (PartTask task) ->
+                      previousNanos.getOrDefault(key(task.solution, task.part), Long.MAX_VALUE))
+              .reversed());
+    }
+    await(new ArrayDeque<>(schedule));
+    List<PartResult> results = new ArrayList<>();
+    for (PartTask task : tasks) {
+      results.add(task.getResult());
+    }
+    return Collections.unmodifiableList(results);
+  }
+
+  /**
+   * The labels of the parts which timed out, in this or an earlier run, and are still running on
+   * their abandoned threads.
+   */
+  static List<String> runawayParts() {
+    ABANDONED.keySet().removeIf(thread -> !thread.isAlive());
+    List<String> parts = new ArrayList<>(ABANDONED.values());
+    Collections.sort(parts);
+    return Collections.unmodifiableList(parts);
+  }
+
+  static String key(DaySolution solution, int part) {
+    return solution.getClassName() + "#" + part;
+  }
+
+  /**
+   * Starts the waiting tasks as running ones finish and waits for all of them, abandoning those
+   * that have been running for too long. The wait for a finished task only times out when the first
+   * running task does, so a freed slot is filled at once.
+   */
+  private void await(Deque<PartTask> waiting) {
+    List<PartTask> running = new ArrayList<>();
+    while (!waiting.isEmpty() || !running.isEmpty()) {
+      while (running.size() < parallelism && !waiting.isEmpty()) {
+        PartTask task = waiting.poll();
+        task.start();
+        running.add(task);
+      }
+      try {
+        PartTask done =
+            timeoutMillis > 0
+                ? finished.poll(untilFirstTimeout(running), TimeUnit.NANOSECONDS)
+                : finished.take();
+        if (done != null) {
+          running.remove(done);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        for (PartTask task : running) {
+          task.abandon("Interrupted before completion");
+        }
+        for (PartTask task : waiting) {
+          task.abandon("Interrupted before completion");
+        }
+        return;
+      }
+      if (timeoutMillis > 0) {
+        long now = System.nanoTime();
+        running.removeIf(
+            task -> {
+              if (!task.hasRunFor(now, timeoutMillis)) {
+                return false;
+              }
+              task.abandon("Timed out after " + timeoutMillis + " ms");
+              return true;
+            });
+      }
+    }
+  }
+
+  /** Nanoseconds until the first of the running tasks times out, 0 when one already has. */
+  private long untilFirstTimeout(List<PartTask> running) {
+    long now = System.nanoTime();
+    long wait = Long.MAX_VALUE;
+    for (PartTask task : running) {
+      wait = Math.min(wait, task.timeLeft(now, timeoutMillis));
+    }
+    return Math.max(0L, wait);
+  }
+
+  PartResult run(DaySolution solution, int part) {
+    String hashes = null;
+    if (answerCache != null) {
+      try {
+        hashes = answerCache.hashes(classLoader, solution, inputName);
+      } catch (IOException e) {
+        hashes = null;
+      }
+      Long answer = hashes == null ? null : answerCache.lookup(key(solution, part), hashes);
+      if (answer != null) {
+        return PartResult.cached(solution, part, answer);
+      }
+    }
+    MethodHandle handle;
+    try {
+      Class<?> cls = Class.forName(solution.getClassName(), true, classLoader);
+      handle = MethodHandles.publicLookup().findStatic(cls, "part" + part, PART_TYPE);
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return PartResult.failure(solution, part, "Unable to load part" + part + ": " + e);
+    }
+    ClassLoader previous = Thread.currentThread().getContextClassLoader();
+    Thread.currentThread().setContextClassLoader(classLoader);
+    try {
+      for (int i = 0; i < warmupIterations; i++) {
+        long ignored = (long) handle.invokeExact(inputName);
+      }
+      long answer = 0L;
+      long[] samples = new long[measurementIterations];
+      long allocatedBefore = allocatedBytes();
+      for (int i = 0; i < measurementIterations; i++) {
+        long start = System.nanoTime();
+        answer = (long) handle.invokeExact(inputName);
+        samples[i] = System.nanoTime() - start;
+      }
+      long allocated =
+          allocatedBefore < 0 ? -1L : (allocatedBytes() - allocatedBefore) / measurementIterations;
+      if (hashes != null) {
+        answerCache.store(key(solution, part), hashes, answer);
+      }
+      return PartResult.success(solution, part, answer, samples, allocated);
+    } catch (Throwable e) {
+      return PartResult.failure(solution, part, e.toString());
+    } finally {
+      Thread.currentThread().setContextClassLoader(previous);
+    }
+  }
+
+  /** Bytes allocated so far by the current thread, or -1 when the JVM cannot tell. */
+  private static long allocatedBytes() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (threads instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean extended = (com.sun.management.ThreadMXBean) threads;
+      if (extended.isThreadAllocatedMemorySupported()
+          && extended.isThreadAllocatedMemoryEnabled()) {
+        return extended.getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+    }
+    return -1L;
+  }
+
+  /** One part of one day, with the thread running it so it can be interrupted and abandoned. */
+  private final class PartTask {
+    private final DaySolution solution;
+    private final int part;
+    private PartResult result;
+    private Thread worker;
+    private long startedAt;
+    private boolean done;
+
+    PartTask(DaySolution solution, int part) {
+      this.solution = solution;
+      this.part = part;
+    }
+
+    synchronized void start() {
+      worker = new Thread(this::call, "aoc-" + solution.getLabel() + " part " + part);
+      worker.setDaemon(true);
+      startedAt = System.nanoTime();
+      worker.start();
+    }
+
+    private void call() {
+      PartResult outcome;
+      try {
+        outcome = run(solution, part);
+      } catch (RuntimeException | LinkageError e) {
+        outcome = PartResult.failure(solution, part, e.toString());
+      }
+      synchronized (this) {
+        if (done) {
+          return;
+        }
+        done = true;
+        result = outcome;
+      }
+      finished.add(this);
+    }
+
+    synchronized boolean hasRunFor(long now, long millis) {
+      return !done && timeLeft(now, millis) <= 0;
+    }
+
+    synchronized long timeLeft(long now, long millis) {
+      return startedAt + TimeUnit.MILLISECONDS.toNanos(millis) - now;
+    }
+
+    /** Reports the part as failed, leaving its thread behind when it does not stop. */
+    synchronized void abandon(String reason) {
+      if (done) {
+        return;
+      }
+      done = true;
+      result = PartResult.failure(solution, part, reason);
+      if (worker != null) {
+        ABANDONED.put(worker, solution.getLabel() + " part " + part);
+        worker.interrupt();
+      }
+    }
+
+    synchronized PartResult getResult() {
+      return result;
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package net.ddellspe;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Finds the compiled day classes generated by {@code generate-day} or {@code generate-season} below
+ * the group id package of a classes directory.
+ */
+final class SolutionScanner {
+  private static final Pattern DAY_CLASS = Pattern.compile("Day(\\d{2})\\.class");
+  private static final Pattern YEAR_PACKAGE = Pattern.compile("year(\\d{4})");
+  private static final Pattern DAY_CLASS_NAME = Pattern.compile("Day(\\d{2})");
+
+  private SolutionScanner() {}
+
+  /** Returns every day class under the group id package, in year and day order. */
+  static List<DaySolution> scan(Path classesDirectory, String groupId) throws IOException {
+    Path root = classesDirectory.resolve(groupId.replace('.', '/'));
+    if (!Files.isDirectory(root)) {
+      return Collections.emptyList();
+    }
+    try (Stream<Path> files = Files.walk(root)) {
+      return files
+          .filter(Files::isRegularFile)
+          .map(file -> toSolution(classesDirectory, root, file))
+          .filter(Objects::nonNull)
+          .sorted(DaySolution.ORDER)
+          .collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Identifies a day class from its fully qualified name, returning null when the simple name is
+   * not {@code DayXX}.
+   */
+  static DaySolution fromClassName(String className) {
+    String[] segments = className.split("\\.");
+    Matcher matcher = DAY_CLASS_NAME.matcher(segments[segments.length - 1]);
+    if (!matcher.matches()) {
+      return null;
+    }
+    int year = 0;
+    for (int i = 0; i < segments.length - 1; i++) {
+      Matcher yearMatcher = YEAR_PACKAGE.matcher(segments[i]);
+      if (yearMatcher.matches()) {
+        year = Integer.parseInt(yearMatcher.group(1));
+      }
+    }
+    return new DaySolution(className, year, Integer.parseInt(matcher.group(1)));
+  }
+
+  private static DaySolution toSolution(Path classesDirectory, Path root, Path file) {
+    Matcher matcher = DAY_CLASS.matcher(file.getFileName().toString());
+    if (!matcher.matches()) {
+      return null;
+    }
+    int year = 0;
+    for (Path segment : root.relativize(file.getParent())) {
+      Matcher yearMatcher = YEAR_PACKAGE.matcher(segment.toString());
+      if (yearMatcher.matches()) {
+        year = Integer.parseInt(yearMatcher.group(1));
+      }
+    }
+    String relative = classesDirectory.relativize(file).toString();
+    String className =
+        relative
+            .substring(0, relative.length() - ".class".length())
+            .replace(file.getFileSystem().getSeparator(), ".");
+    return new DaySolution(className, year, Integer.parseInt(matcher.group(1)));
+  }
+}
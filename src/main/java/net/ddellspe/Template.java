@@ -0,0 +1,115 @@
+package net.ddellspe;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A user template compiled into alternating literal text and {@code ${name}} variables, so that
+ * rendering is a single pass of appends. A variable preceded by an extra {@code $} is written
+ * literally without its extra {@code $}.
+ *
+ * <p>Compiled templates are cached by the SHA-256 of their content for the life of the plugin class
+ * loader, which a persistent Maven daemon keeps between builds, so an unchanged template is parsed
+ * only once.
+ */
+final class Template {
+  /** Edited templates leave stale entries behind, the cache starts over past this many. */
+  static final int CACHE_LIMIT = 256;
+
+  private static final Map<String, Template> CACHE = new ConcurrentHashMap<>();
+
+  /** One more literal than variables, the text before, between and after the variables. */
+  private final String[] literals;
+
+  private final String[] variables;
+  private final int literalLength;
+
+  private Template(List<String> literals, List<String> variables) {
+    this.literals = literals.toArray(new String[0]);
+    this.variables = variables.toArray(new String[0]);
+    this.literalLength = literals.stream().mapToInt(String::length).sum();
+  }
+
+  /**
+   * The compiled template of the content, parsed unless the same content was compiled before.
+   *
+   * @throws IllegalArgumentException when a variable is malformed, naming {@code name} and the line
+   */
+  static Template compile(String name, byte[] content) {
+    String hash = FileManifest.hash(content);
+    Template cached = CACHE.get(hash);
+    if (cached != null) {
+      return cached;
+    }
+    Template template = parse(name, new String(content, StandardCharsets.UTF_8));
+    if (CACHE.size() >= CACHE_LIMIT) {
+      CACHE.clear();
+    }
+    cached = CACHE.putIfAbsent(hash, template);
+    return cached == null ? template : cached;
+  }
+
+  private static Template parse(String name, String text) {
+    List<String> literals = new ArrayList<>();
+    List<String> variables = new ArrayList<>();
+    StringBuilder literal = new StringBuilder();
+    int from = 0;
+    int start;
+    while ((start = text.indexOf("${", from)) >= 0) {
+      if (start > from && text.charAt(start - 1) == '$') {
+        // an escaped variable, drop the extra $ and keep the rest as text
+        literal.append(text, from, start - 1).append("${");
+        from = start + 2;
+        continue;
+      }
+      int end = text.indexOf('}', start + 2);
+      int newline = text.indexOf('\n', start + 2);
+      if (end < 0 || (newline >= 0 && newline < end)) {
+        throw new IllegalArgumentException(
+            "Unterminated variable at line " + line(text, start) + " of " + name);
+      }
+      String variable = text.substring(start + 2, end).trim();
+      if (variable.isEmpty() || !variable.chars().allMatch(Character::isLetterOrDigit)) {
+        throw new IllegalArgumentException(
+            "Invalid variable ${" + variable + "} at line " + line(text, start) + " of " + name);
+      }
+      literals.add(literal.append(text, from, start).toString());
+      literal.setLength(0);
+      variables.add(variable);
+      from = end + 1;
+    }
+    literals.add(literal.append(text, from, text.length()).toString());
+    return new Template(literals, variables);
+  }
+
+  /** The names of the variables used by the template, in order of first use. */
+  Set<String> getVariables() {
+    return Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(variables)));
+  }
+
+  /** The template with every variable replaced by its value, which must be present. */
+  String render(Map<String, String> values) {
+    StringBuilder out = new StringBuilder(literalLength + variables.length * 16);
+    for (int i = 0; i < variables.length; i++) {
+      out.append(literals[i]).append(values.get(variables[i]));
+    }
+    return out.append(literals[variables.length]).toString();
+  }
+
+  private static int line(String text, int index) {
+    int line = 1;
+    for (int i = 0; i < index; i++) {
+      if (text.charAt(i) == '\n') {
+        line++;
+      }
+    }
+    return line;
+  }
+}
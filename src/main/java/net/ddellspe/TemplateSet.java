@@ -0,0 +1,118 @@
+package net.ddellspe;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.lang.model.SourceVersion;
+
+/**
+ * The user templates of a template directory. {@code Day.java.tpl}, {@code DayTest.java.tpl} and
+ * {@code DayBenchmark.java.tpl} replace the built-in shape of the day files, a missing file keeps
+ * the built-in shape, and every {@code utils/<Name>.java.tpl} is rendered to an extra {@code
+ * <groupId>.utils.<Name>} class.
+ */
+final class TemplateSet {
+  static final String EXTENSION = ".java.tpl";
+  static final String SOURCE = "Day" + EXTENSION;
+  static final String TEST = "DayTest" + EXTENSION;
+  static final String BENCHMARK = "DayBenchmark" + EXTENSION;
+  static final String UTILS = "utils";
+  static final Set<String> UTIL_VARIABLES =
+      Collections.unmodifiableSet(
+          new LinkedHashSet<>(Arrays.asList("groupId", "utilsPackage", "package", "className")));
+  static final Set<String> DAY_VARIABLES =
+      Collections.unmodifiableSet(
+          new LinkedHashSet<>(
+              Arrays.asList(
+                  "groupId", "utilsPackage", "package", "className", "day", "paddedDay", "year")));
+  static final TemplateSet NONE = new TemplateSet(null, null, null, Collections.emptyMap());
+
+  private final Template source;
+  private final Template test;
+  private final Template benchmark;
+  private final Map<String, Template> utils;
+
+  private TemplateSet(
+      Template source, Template test, Template benchmark, Map<String, Template> utils) {
+    this.source = source;
+    this.test = test;
+    this.benchmark = benchmark;
+    this.utils = utils;
+  }
+
+  /**
+   * Compiles the templates of the directory, which may be null or missing when there are none.
+   *
+   * @throws IllegalArgumentException when a template is malformed or uses an unknown variable
+   */
+  static TemplateSet load(File directory) throws IOException {
+    if (directory == null || !directory.isDirectory()) {
+      return NONE;
+    }
+    Path root = directory.toPath();
+    Map<String, Template> utils = new TreeMap<>();
+    Path utilsDirectory = root.resolve(UTILS);
+    if (Files.isDirectory(utilsDirectory)) {
+      try (DirectoryStream<Path> files =
+          Files.newDirectoryStream(utilsDirectory, "*" + EXTENSION)) {
+        for (Path file : files) {
+          String name = file.getFileName().toString();
+          String className = name.substring(0, name.length() - EXTENSION.length());
+          if (!SourceVersion.isIdentifier(className) || SourceVersion.isKeyword(className)) {
+            throw new IllegalArgumentException(
+                "Template " + file + " does not name a valid class: " + className);
+          }
+          utils.put(className, compile(file, UTIL_VARIABLES));
+        }
+      }
+    }
+    return new TemplateSet(
+        compile(root.resolve(SOURCE), DAY_VARIABLES),
+        compile(root.resolve(TEST), DAY_VARIABLES),
+        compile(root.resolve(BENCHMARK), DAY_VARIABLES),
+        utils);
+  }
+
+  /** The compiled template of the file, null when it does not exist. */
+  private static Template compile(Path file, Set<String> known) throws IOException {
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+    Template template = Template.compile(file.toString(), Files.readAllBytes(file));
+    for (String variable : template.getVariables()) {
+      if (!known.contains(variable)) {
+        throw new IllegalArgumentException(
+            "Unknown variable ${" + variable + "} in " + file + ", expected one of " + known);
+      }
+    }
+    return template;
+  }
+
+  /** The template of the day class, null for the built-in shape. */
+  Template getSource() {
+    return source;
+  }
+
+  /** The template of the day test class, null for the built-in shape. */
+  Template getTest() {
+    return test;
+  }
+
+  /** The template of the day benchmark class, null for the built-in shape. */
+  Template getBenchmark() {
+    return benchmark;
+  }
+
+  /** The extra utils templates by class name. */
+  Map<String, Template> getUtils() {
+    return utils;
+  }
+}
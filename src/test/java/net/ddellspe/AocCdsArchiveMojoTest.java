@@ -0,0 +1,192 @@
+package net.ddellspe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.model.Build;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class AocCdsArchiveMojoTest {
+  String resourceRoot = "";
+  MavenProject mockProject;
+  Build mockBuild;
+  Log mockLog;
+  Properties properties;
+
+  @BeforeEach
+  public void before() throws DependencyResolutionRequiredException {
+    File rootFile = new File(Objects.requireNonNull(getClass().getResource("/root.txt")).getFile());
+    resourceRoot = rootFile.getParent();
+    mockProject = Mockito.mock(MavenProject.class);
+    mockBuild = Mockito.mock(Build.class);
+    mockLog = Mockito.mock(Log.class);
+    properties = new Properties();
+    when(mockProject.getGroupId()).thenReturn("net.ddellspe.fixtures");
+    when(mockProject.getBuild()).thenReturn(mockBuild);
+    when(mockProject.getProperties()).thenReturn(properties);
+    when(mockProject.getRuntimeClasspathElements())
+        .thenReturn(Collections.singletonList(resourceRoot));
+    when(mockBuild.getOutputDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getDirectory()).thenReturn(Paths.get(resourceRoot, "project").toString());
+  }
+
+  @AfterEach
+  public void after() throws IOException {
+    FileUtils.deleteDirectory(Paths.get(resourceRoot, "project").toFile());
+  }
+
+  @Test
+  public void testDefaults() {
+    AocCdsArchiveMojo mojo = new AocCdsArchiveMojo();
+    assertEquals("input.txt", mojo.getInputName());
+    assertFalse(mojo.isForce());
+    assertEquals(3, mojo.getStartupRuns());
+    assertEquals("aoc.cds.argLine", mojo.getArgLineProperty());
+    assertNull(mojo.getProject());
+  }
+
+  @Test
+  public void testArchiveIsReusedUntilTheClasspathChanges() throws IOException {
+    AocCdsArchiveMojo mojo = new AocCdsArchiveMojo(mockProject, 1);
+    mojo.setLog(mockLog);
+    Path cds = Paths.get(resourceRoot, "project", "aoc-generator", "cds");
+    Path archive = cds.resolve(CdsArchive.ARCHIVE_FILE);
+
+    execute(mojo);
+    assertEquals(cds.toFile(), mojo.getCdsDirectory());
+    assertTrue(Files.isRegularFile(archive));
+    assertTrue(Files.isRegularFile(cds.resolve(CdsArchive.FINGERPRINT_FILE)));
+    verify(mockLog, times(1)).info("Training the CDS archive on 2 day(s)");
+    verify(mockLog, times(1)).info("CDS archive written to: " + archive);
+    verify(mockLog, times(1))
+        .info(
+            Mockito.matches(
+                "Startup and run of 2 day\\(s\\), median of 1 launch\\(es\\): [0-9.]+ ms without"
+                    + " the CDS archive, [0-9.]+ ms with it \\([0-9.]+x\\)"));
+    verify(mockLog, times(1))
+        .info("Run the solutions on the archive with: java @" + cds.resolve(CdsArchive.ARGS_FILE));
+    String argLine = "-XX:SharedArchiveFile=" + archive + " -Xshare:auto";
+    assertEquals(argLine, properties.getProperty("aoc.cds.argLine"));
+    verify(mockLog, times(1)).info("Set aoc.cds.argLine to: " + argLine);
+    List<String> arguments = Files.readAllLines(cds.resolve(CdsArchive.ARGS_FILE));
+    assertEquals("\"-XX:SharedArchiveFile=" + archive + "\"", arguments.get(0));
+    assertEquals(
+        Arrays.asList(
+            "\"" + SolutionLauncher.class.getName() + "\"",
+            "\"input.txt\"",
+            "\"net.ddellspe.fixtures.day01.Day01\"",
+            "\"net.ddellspe.fixtures.day02.Day02\""),
+        arguments.subList(3, arguments.size()));
+
+    // the archived run answers like the in-process runner
+    Process process =
+        new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Xshare:on",
+                "@" + cds.resolve(CdsArchive.ARGS_FILE))
+            .redirectErrorStream(true)
+            .start();
+    String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+    try {
+      assertEquals(0, process.waitFor(), output);
+    } catch (InterruptedException e) {
+      fail(e);
+    }
+    assertTrue(output.contains("Day 01"), output);
+
+    FileTime dumped = Files.getLastModifiedTime(archive);
+    mojo.setStartupRuns(0);
+    execute(mojo);
+    verify(mockLog, times(1)).info("CDS archive is up to date: " + archive);
+    verify(mockLog, times(1)).info("Training the CDS archive on 2 day(s)");
+    assertEquals(dumped, Files.getLastModifiedTime(archive));
+
+    // a change below the output directory invalidates the archive
+    Files.write(
+        Paths.get(resourceRoot, "project", "changed.txt"), "1".getBytes(StandardCharsets.UTF_8));
+    execute(mojo);
+    verify(mockLog, times(2)).info("Training the CDS archive on 2 day(s)");
+
+    mojo.setForce(true);
+    execute(mojo);
+    assertTrue(mojo.isForce());
+    verify(mockLog, times(3)).info("Training the CDS archive on 2 day(s)");
+    verify(mockLog, times(1)).info(Mockito.startsWith("Startup and run"));
+  }
+
+  @Test
+  public void testCustomArgLineProperty() {
+    AocCdsArchiveMojo mojo = new AocCdsArchiveMojo(mockProject, 0);
+    mojo.setLog(mockLog);
+    mojo.setArgLineProperty("argLine");
+    mojo.setInputName("example.txt");
+    Path cds = Paths.get(resourceRoot, "project", "cds");
+    mojo.setCdsDirectory(cds.toFile());
+
+    execute(mojo);
+    assertEquals("example.txt", mojo.getInputName());
+    assertEquals(
+        "-XX:SharedArchiveFile=" + cds.resolve(CdsArchive.ARCHIVE_FILE) + " -Xshare:auto",
+        properties.getProperty("argLine"));
+    verify(mockLog, never()).info(Mockito.startsWith("Startup and run"));
+  }
+
+  @Test
+  public void testNoSolutions() {
+    when(mockProject.getGroupId()).thenReturn("net.ddellspe.missing");
+    AocCdsArchiveMojo mojo = new AocCdsArchiveMojo(mockProject, 0);
+    mojo.setLog(mockLog);
+
+    execute(mojo);
+    verify(mockLog, times(1))
+        .warn(
+            "No compiled solutions found in "
+                + resourceRoot
+                + ", compile the project before running this goal");
+    assertFalse(Files.exists(Paths.get(resourceRoot, "project", "aoc-generator", "cds")));
+  }
+
+  @Test
+  public void testUnresolvedClasspath() throws DependencyResolutionRequiredException {
+    AocCdsArchiveMojo mojo = new AocCdsArchiveMojo(mockProject, 0);
+    when(mockProject.getRuntimeClasspathElements())
+        .thenThrow(new DependencyResolutionRequiredException(null));
+    assertThrows(MojoExecutionException.class, mojo::execute);
+  }
+
+  private static void execute(AocCdsArchiveMojo mojo) {
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException e) {
+      fail(e);
+    }
+  }
+}
@@ -1,8 +1,11 @@
 package net.ddellspe;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.times;
@@ -11,14 +14,30 @@ import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.commons.io.FileUtils;
 import org.apache.maven.model.Build;
 import org.apache.maven.model.Resource;
@@ -70,6 +89,7 @@ public class AocGeneratorMojoTest {
     assertFalse(mojo.isForce());
     assertTrue(mojo.isUseDayPackage());
     assertEquals(-1, mojo.getDay());
+    assertNull(mojo.getTemplateDirectory());
     assertNull(mojo.getProject());
   }
 
@@ -255,4 +275,956 @@ public class AocGeneratorMojoTest {
     assertTrue(inputFile.isDirectory());
     assertTrue(exampleFile.isDirectory());
   }
+
+  @Test
+  public void testForceRegenerationSkipsUnchangedFiles() throws IOException {
+    MavenProject mockProject = Mockito.mock(MavenProject.class);
+    Build mockBuild = Mockito.mock(Build.class);
+    Log mockLog = Mockito.mock(Log.class);
+    Resource mockResource = Mockito.mock(Resource.class);
+    List<Resource> resources = new ArrayList<>();
+    resources.add(mockResource);
+    AocGeneratorMojo mojo = new AocGeneratorMojo(mockProject, 0, true, true);
+    mojo.setLog(mockLog);
+    File sourceFile = Paths.get(resourceRoot, "project", "ignored", "day00", "Day00.java").toFile();
+    File testSourceFile =
+        Paths.get(resourceRoot, "project", "ignored", "day00", "Day00Test.java").toFile();
+    File manifestFile =
+        Paths.get(resourceRoot, "project", "target", "aoc-generator", "manifest.properties")
+            .toFile();
+
+    when(mockProject.getGroupId()).thenReturn("project.ignored");
+    when(mockProject.getBuild()).thenReturn(mockBuild);
+    when(mockBuild.getDirectory())
+        .thenReturn(Paths.get(resourceRoot, "project", "target").toString());
+    when(mockBuild.getSourceDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getTestSourceDirectory()).thenReturn(resourceRoot);
+    when(mockResource.getDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getResources()).thenReturn(resources);
+    when(mockBuild.getTestResources()).thenReturn(resources);
+
+    try {
+      mojo.execute();
+      assertTrue(manifestFile.isFile());
+      assertTrue(sourceFile.setLastModified(1_000_000L));
+      FileUtils.writeStringToFile(testSourceFile, "changed", StandardCharsets.UTF_8);
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    verify(mockLog, times(1))
+        .info("File is unchanged at: " + sourceFile.getPath() + ". Skipping write");
+    verify(mockLog, times(0))
+        .info("File is unchanged at: " + testSourceFile.getPath() + ". Skipping write");
+    assertEquals(1_000_000L, sourceFile.lastModified());
+    assertTrue(
+        FileUtils.readFileToString(testSourceFile, StandardCharsets.UTF_8).contains("Day00Test"));
+  }
+
+  @Test
+  public void testGenerateInputUtils() throws Exception {
+    MavenProject mockProject = Mockito.mock(MavenProject.class);
+    Build mockBuild = Mockito.mock(Build.class);
+    Log mockLog = Mockito.mock(Log.class);
+    Resource mockResource = Mockito.mock(Resource.class);
+    List<Resource> resources = new ArrayList<>();
+    resources.add(mockResource);
+    AocGeneratorMojo mojo = new AocGeneratorMojo(mockProject, 0, false, true);
+    mojo.setGenerateInputUtils(true);
+    mojo.setLog(mockLog);
+    File utilsFile =
+        Paths.get(resourceRoot, "project", "ignored", "utils", "InputUtils.java").toFile();
+
+    when(mockProject.getGroupId()).thenReturn("project.ignored");
+    when(mockProject.getBuild()).thenReturn(mockBuild);
+    when(mockBuild.getSourceDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getTestSourceDirectory()).thenReturn(resourceRoot);
+    when(mockResource.getDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getResources()).thenReturn(resources);
+    when(mockBuild.getTestResources()).thenReturn(resources);
+
+    try {
+      mojo.execute();
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    assertTrue(mojo.isGenerateInputUtils());
+    assertTrue(utilsFile.isFile());
+    verify(mockLog, times(1))
+        .info("Input utils file already exists at: " + utilsFile.getPath() + ". Skipping creation");
+
+    Path classes = Paths.get(resourceRoot, "project", "classes");
+    CompilerTestUtils.compile(classes, Paths.get(resourceRoot, "project", "ignored"));
+    Files.write(
+        Paths.get(resourceRoot, "project", "ignored", "day00", "input.txt"),
+        "#.#\r\n..#\n\n".getBytes(StandardCharsets.UTF_8));
+    Files.write(
+        Paths.get(resourceRoot, "project", "ignored", "day00", "example.txt"),
+        "x=-12, y=7\n3-4 9\n".getBytes(StandardCharsets.UTF_8));
+    try (URLClassLoader loader = new URLClassLoader(new URL[] {classes.toUri().toURL()})) {
+      Class<?> utils = loader.loadClass("project.ignored.utils.InputUtils");
+      Class<?> day = loader.loadClass("project.ignored.day00.Day00");
+      assertEquals(
+          Arrays.asList("#.#", "..#", ""),
+          utils
+              .getMethod("stringPerLine", String.class, Class.class)
+              .invoke(null, "input.txt", day));
+      Object grid =
+          utils.getMethod("grid", String.class, Class.class).invoke(null, "input.txt", day);
+      assertEquals(3, grid.getClass().getField("width").get(grid));
+      assertEquals(2, grid.getClass().getField("height").get(grid));
+      assertEquals(
+          (byte) '#', grid.getClass().getMethod("get", int.class, int.class).invoke(grid, 1, 2));
+      assertTrue(
+          Arrays.equals(
+              new int[] {-12, 7, 3, 4, 9},
+              (int[])
+                  utils
+                      .getMethod("ints", String.class, Class.class)
+                      .invoke(null, "example.txt", day)));
+      assertTrue(
+          Arrays.equals(
+              new long[] {-12L, 7L, 3L, 4L, 9L},
+              (long[])
+                  utils
+                      .getMethod("longs", String.class, Class.class)
+                      .invoke(null, "example.txt", day)));
+      assertEquals(0L, day.getMethod("part1", String.class).invoke(null, "example.txt"));
+    }
+  }
+
+  @Test
+  public void testGenerateBenchmark() throws IOException {
+    MavenProject mockProject = Mockito.mock(MavenProject.class);
+    Build mockBuild = Mockito.mock(Build.class);
+    Log mockLog = Mockito.mock(Log.class);
+    Resource mockResource = Mockito.mock(Resource.class);
+    List<Resource> resources = new ArrayList<>();
+    resources.add(mockResource);
+    AocGeneratorMojo mojo = new AocGeneratorMojo(mockProject, 0, false, true);
+    mojo.setGenerateBenchmark(true);
+    mojo.setLog(mockLog);
+    File benchmarkFile =
+        Paths.get(resourceRoot, "project", "ignored", "day00", "Day00Benchmark.java").toFile();
+
+    when(mockProject.getGroupId()).thenReturn("project.ignored");
+    when(mockProject.getBuild()).thenReturn(mockBuild);
+    when(mockBuild.getSourceDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getTestSourceDirectory()).thenReturn(resourceRoot);
+    when(mockResource.getDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getResources()).thenReturn(resources);
+    when(mockBuild.getTestResources()).thenReturn(resources);
+
+    try {
+      mojo.execute();
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    assertTrue(mojo.isGenerateBenchmark());
+    assertTrue(benchmarkFile.isFile());
+    String benchmark = FileUtils.readFileToString(benchmarkFile, StandardCharsets.UTF_8);
+    assertTrue(benchmark.contains("@State(Scope.Benchmark)"));
+    assertTrue(benchmark.contains("input = InputUtils.stringPerLine(\"input.txt\", Day00.class);"));
+    assertTrue(benchmark.contains("return Day00.part1(input);"));
+    assertTrue(benchmark.contains("return Day00.part2(input);"));
+    verify(mockLog, times(2)).warn(Mockito.startsWith("The generated benchmarks require JMH"));
+    verify(mockLog, times(1))
+        .info(
+            "Benchmark file already exists at: " + benchmarkFile.getPath() + ". Skipping creation");
+  }
+
+  @Test
+  public void testCacheAnswers() throws Exception {
+    MavenProject mockProject = Mockito.mock(MavenProject.class);
+    Build mockBuild = Mockito.mock(Build.class);
+    Log mockLog = Mockito.mock(Log.class);
+    Resource mockResource = Mockito.mock(Resource.class);
+    List<Resource> resources = new ArrayList<>();
+    resources.add(mockResource);
+    AocGeneratorMojo mojo = new AocGeneratorMojo(mockProject, 0, false, true);
+    mojo.setGenerateInputUtils(true);
+    mojo.setCacheAnswers(true);
+    mojo.setLog(mockLog);
+    File cacheFile =
+        Paths.get(resourceRoot, "project", "ignored", "utils", "AnswerCache.java").toFile();
+    File testFile =
+        Paths.get(resourceRoot, "project", "ignored", "day00", "Day00Test.java").toFile();
+
+    when(mockProject.getGroupId()).thenReturn("project.ignored");
+    when(mockProject.getBuild()).thenReturn(mockBuild);
+    when(mockBuild.getSourceDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getTestSourceDirectory()).thenReturn(resourceRoot);
+    when(mockResource.getDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getResources()).thenReturn(resources);
+    when(mockBuild.getTestResources()).thenReturn(resources);
+
+    try {
+      mojo.execute();
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    assertTrue(mojo.isCacheAnswers());
+    assertTrue(cacheFile.isFile());
+    // a project may keep its own InputUtils, so the cache must not depend on the generated one
+    assertFalse(
+        FileUtils.readFileToString(cacheFile, StandardCharsets.UTF_8).contains("InputUtils"));
+    verify(mockLog, times(1))
+        .info(
+            "Answer cache file already exists at: " + cacheFile.getPath() + ". Skipping creation");
+    assertTrue(
+        FileUtils.readFileToString(testFile, StandardCharsets.UTF_8)
+            .contains(
+                "AnswerCache.solve(Day00.class, 1, \"input.txt\", () -> Day00.part1(\"input.txt\"))"));
+
+    Path classes = Paths.get(resourceRoot, "project", "classes");
+    CompilerTestUtils.compile(classes, Paths.get(resourceRoot, "project", "ignored"));
+    Path input = Paths.get(resourceRoot, "project", "ignored", "day00", "input.txt");
+    Files.write(input, "5\n".getBytes(StandardCharsets.UTF_8));
+    Path answers = Paths.get(resourceRoot, "project", "answers.properties");
+    AtomicInteger solved = new AtomicInteger();
+    LongSupplier solver =
+        () -> {
+          solved.incrementAndGet();
+          return 11L;
+        };
+    System.setProperty("aoc.cache.file", answers.toString());
+    System.setProperty("aoc.cache.maxEntries", "1");
+    try (URLClassLoader loader = new URLClassLoader(new URL[] {classes.toUri().toURL()})) {
+      Class<?> cache = loader.loadClass("project.ignored.utils.AnswerCache");
+      Class<?> day = loader.loadClass("project.ignored.day00.Day00");
+      Method solve =
+          cache.getMethod("solve", Class.class, int.class, String.class, LongSupplier.class);
+      assertEquals(11L, solve.invoke(null, day, 1, "input.txt", solver));
+      assertEquals(11L, solve.invoke(null, day, 1, "input.txt", solver));
+      assertEquals(1, solved.get());
+      assertTrue(
+          FileUtils.readFileToString(answers.toFile(), StandardCharsets.UTF_8)
+              .contains("project.ignored.day00.Day00\\#1="));
+
+      Class<?> test = loader.loadClass("project.ignored.day00.Day00Test");
+      Constructor<?> constructor = test.getDeclaredConstructor();
+      constructor.setAccessible(true);
+      test.getMethod("solutionPart1").invoke(constructor.newInstance());
+      assertEquals(1, solved.get());
+
+      Files.write(input, "6\n".getBytes(StandardCharsets.UTF_8));
+      assertEquals(11L, solve.invoke(null, day, 1, "input.txt", solver));
+      assertEquals(2, solved.get());
+
+      System.setProperty("aoc.cache.bypass", "true");
+      assertEquals(11L, solve.invoke(null, day, 1, "input.txt", solver));
+      assertEquals(3, solved.get());
+
+      // beyond aoc.cache.maxEntries the least recently used answer is evicted
+      System.clearProperty("aoc.cache.bypass");
+      assertEquals(11L, solve.invoke(null, day, 2, "input.txt", solver));
+      String saved = FileUtils.readFileToString(answers.toFile(), StandardCharsets.UTF_8);
+      assertTrue(saved.contains("project.ignored.day00.Day00\\#2="));
+      assertFalse(saved.contains("project.ignored.day00.Day00\\#1="));
+      try (Stream<Path> files = Files.list(answers.getParent())) {
+        assertTrue(files.noneMatch(file -> file.toString().endsWith(".tmp")));
+      }
+    } finally {
+      System.clearProperty("aoc.cache.file");
+      System.clearProperty("aoc.cache.bypass");
+      System.clearProperty("aoc.cache.maxEntries");
+    }
+  }
+
+  @Test
+  public void testInputShapes() throws Exception {
+    MavenProject mockProject = Mockito.mock(MavenProject.class);
+    Build mockBuild = Mockito.mock(Build.class);
+    Log mockLog = Mockito.mock(Log.class);
+    Resource mockResource = Mockito.mock(Resource.class);
+    List<Resource> resources = new ArrayList<>();
+    resources.add(mockResource);
+    when(mockProject.getBuild()).thenReturn(mockBuild);
+    when(mockBuild.getSourceDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getTestSourceDirectory()).thenReturn(resourceRoot);
+    when(mockResource.getDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getResources()).thenReturn(resources);
+    when(mockBuild.getTestResources()).thenReturn(resources);
+
+    List<String> shapes = Arrays.asList("lines", "grid", "ints", "longs", "blocks", "stream");
+    for (String shape : shapes) {
+      when(mockProject.getGroupId()).thenReturn("project." + shape);
+      AocGeneratorMojo mojo = new AocGeneratorMojo(mockProject, 0, false, true);
+      mojo.setGenerateInputUtils(true);
+      mojo.setGenerateBenchmark(shape.equals("stream"));
+      mojo.setInputShape(shape.toUpperCase());
+      mojo.setLog(mockLog);
+      try {
+        mojo.execute();
+      } catch (MojoExecutionException | MojoFailureException e) {
+        fail();
+      }
+    }
+    Path project = Paths.get(resourceRoot, "project");
+    String grid = FileUtils.readFileToString(dayFile(project, "grid", "Day00.java"), UTF_8);
+    assertTrue(grid.contains("return part1(InputUtils.grid(filename, Day00.class));"));
+    assertTrue(grid.contains("public static long part1(InputUtils.Grid grid) {"));
+    String gridTest = FileUtils.readFileToString(dayFile(project, "grid", "Day00Test.java"), UTF_8);
+    assertTrue(
+        gridTest.contains(
+            "assertEquals(0L, Day00.part1(InputUtils.grid(\"example.txt\", Day00.class)));"));
+    String ints = FileUtils.readFileToString(dayFile(project, "ints", "Day00.java"), UTF_8);
+    assertTrue(ints.contains("public static long part2(int[] values) {"));
+    String blocks = FileUtils.readFileToString(dayFile(project, "blocks", "Day00.java"), UTF_8);
+    assertTrue(blocks.contains("public static long part1(List<ByteBuffer> blocks) {"));
+    String stream = FileUtils.readFileToString(dayFile(project, "stream", "Day00.java"), UTF_8);
+    assertTrue(
+        stream.contains("try (Stream<String> lines = InputUtils.lines(filename, Day00.class)) {"));
+    String streamBenchmark =
+        FileUtils.readFileToString(dayFile(project, "stream", "Day00Benchmark.java"), UTF_8);
+    assertTrue(streamBenchmark.contains("return Day00.part1(\"input.txt\");"));
+    String lines = FileUtils.readFileToString(dayFile(project, "lines", "Day00Test.java"), UTF_8);
+    assertTrue(lines.contains("assertEquals(0L, Day00.part1(\"example.txt\"));"));
+
+    // JMH is not on the test classpath
+    Files.delete(dayFile(project, "stream", "Day00Benchmark.java").toPath());
+    Path classes = project.resolve("classes");
+    CompilerTestUtils.compile(classes, shapes.stream().map(project::resolve).toArray(Path[]::new));
+    Files.write(
+        dayFile(project, "blocks", "example.txt").toPath(), "a\nb\n\n\nc\n".getBytes(UTF_8));
+    try (URLClassLoader loader = new URLClassLoader(new URL[] {classes.toUri().toURL()})) {
+      for (String shape : shapes) {
+        Class<?> test = loader.loadClass("project." + shape + ".day00.Day00Test");
+        Constructor<?> constructor = test.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        Object instance = constructor.newInstance();
+        test.getMethod("providedInputTestPart1").invoke(instance);
+        test.getMethod("providedInputTestPart2").invoke(instance);
+      }
+      Class<?> utils = loader.loadClass("project.blocks.utils.InputUtils");
+      Class<?> day = loader.loadClass("project.blocks.day00.Day00");
+      List<?> parsed =
+          (List<?>)
+              utils.getMethod("blocks", String.class, Class.class).invoke(null, "example.txt", day);
+      assertEquals(2, parsed.size());
+      assertEquals("a\nb", UTF_8.decode((ByteBuffer) parsed.get(0)).toString());
+      assertEquals("c", UTF_8.decode((ByteBuffer) parsed.get(1)).toString());
+      try (Stream<?> streamed =
+          (Stream<?>)
+              utils
+                  .getMethod("lines", String.class, Class.class)
+                  .invoke(null, "example.txt", day)) {
+        assertEquals(Arrays.asList("a", "b", "", "", "c"), streamed.collect(Collectors.toList()));
+      }
+
+      Class<?> streamDay = loader.loadClass("project.stream.day00.Day00");
+      Class<?> streamUtils = loader.loadClass("project.stream.utils.InputUtils");
+      char[] longLine = new char[200_000];
+      Arrays.fill(longLine, 'x');
+      Files.write(
+          dayFile(project, "stream", "example.txt").toPath(),
+          ("first\r\n" + new String(longLine) + "\n\nlast").getBytes(UTF_8));
+      try (Stream<?> streamed =
+          (Stream<?>)
+              streamUtils
+                  .getMethod("lines", String.class, Class.class)
+                  .invoke(null, "example.txt", streamDay)) {
+        assertEquals(
+            Arrays.asList("first", new String(longLine), "", "last"),
+            streamed.collect(Collectors.toList()));
+      }
+      assertEquals(0L, streamDay.getMethod("part1", String.class).invoke(null, "example.txt"));
+    }
+  }
+
+  @Test
+  public void testInputShapeValidation() {
+    MavenProject mockProject = Mockito.mock(MavenProject.class);
+    Build mockBuild = Mockito.mock(Build.class);
+    Log mockLog = Mockito.mock(Log.class);
+    Resource mockResource = Mockito.mock(Resource.class);
+    List<Resource> resources = new ArrayList<>();
+    resources.add(mockResource);
+    when(mockProject.getGroupId()).thenReturn("project.ignored");
+    when(mockProject.getBuild()).thenReturn(mockBuild);
+    when(mockBuild.getSourceDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getTestSourceDirectory()).thenReturn(resourceRoot);
+    when(mockResource.getDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getResources()).thenReturn(resources);
+    when(mockBuild.getTestResources()).thenReturn(resources);
+    AocGeneratorMojo mojo = new AocGeneratorMojo(mockProject, 0, false, true);
+    mojo.setLog(mockLog);
+    assertEquals("lines", mojo.getInputShape());
+
+    mojo.setInputShape("hexagon");
+    MojoExecutionException e = assertThrows(MojoExecutionException.class, mojo::execute);
+    assertEquals(
+        "Unknown input shape: hexagon, expected one of lines, grid, ints, longs, blocks, stream",
+        e.getMessage());
+
+    mojo.setInputShape("grid");
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException ex) {
+      fail();
+    }
+    verify(mockLog, times(1)).warn(Mockito.startsWith("The grid input shape reads input with"));
+  }
+
+  private static File dayFile(Path project, String shape, String name) {
+    return project.resolve(Paths.get(shape, "day00", name)).toFile();
+  }
+
+  @Test
+  public void testInstrumentTests() throws Exception {
+    MavenProject mockProject = Mockito.mock(MavenProject.class);
+    Build mockBuild = Mockito.mock(Build.class);
+    Log mockLog = Mockito.mock(Log.class);
+    Resource mockResource = Mockito.mock(Resource.class);
+    List<Resource> resources = new ArrayList<>();
+    resources.add(mockResource);
+    AocGeneratorMojo mojo = new AocGeneratorMojo(mockProject, 0, false, true);
+    mojo.setGenerateInputUtils(true);
+    mojo.setCacheAnswers(true);
+    mojo.setInstrumentTests(true);
+    mojo.setLog(mockLog);
+    File testFile =
+        Paths.get(resourceRoot, "project", "ignored", "day00", "Day00Test.java").toFile();
+
+    when(mockProject.getGroupId()).thenReturn("project.ignored");
+    when(mockProject.getBuild()).thenReturn(mockBuild);
+    when(mockBuild.getSourceDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getTestSourceDirectory()).thenReturn(resourceRoot);
+    when(mockResource.getDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getResources()).thenReturn(resources);
+    when(mockBuild.getTestResources()).thenReturn(resources);
+
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    assertTrue(mojo.isInstrumentTests());
+    assertTrue(
+        FileUtils.readFileToString(testFile, UTF_8)
+            .contains(
+                "AnswerCache.solve(Day00.class, 2, \"input.txt\", () ->"
+                    + " SolutionMetrics.measure(Day00.class, 2, () -> Day00.part2(\"input.txt\")))"));
+
+    Path classes = Paths.get(resourceRoot, "project", "classes");
+    CompilerTestUtils.compile(classes, Paths.get(resourceRoot, "project", "ignored"));
+    Path metrics = Paths.get(resourceRoot, "project", "metrics");
+    System.setProperty("aoc.metrics.dir", metrics.toString());
+    try (URLClassLoader loader = new URLClassLoader(new URL[] {classes.toUri().toURL()})) {
+      Class<?> solutionMetrics = loader.loadClass("project.ignored.utils.SolutionMetrics");
+      Class<?> day = loader.loadClass("project.ignored.day00.Day00");
+      Method measure =
+          solutionMetrics.getMethod("measure", Class.class, int.class, LongSupplier.class);
+      LongSupplier allocating = () -> new long[1 << 20].length;
+      assertEquals(1L << 20, measure.invoke(null, day, 1, allocating));
+      assertEquals(3L, measure.invoke(null, day, 2, (LongSupplier) () -> 3L));
+    } finally {
+      System.clearProperty("aoc.metrics.dir");
+    }
+    List<Path> files = MetricsReport.files(metrics);
+    assertEquals(1, files.size());
+    List<String> lines = Files.readAllLines(files.get(0), UTF_8);
+    assertEquals(3, lines.size());
+    assertEquals(SolutionMetricsGenerator.HEADER, lines.get(0));
+    assertTrue(lines.get(1).startsWith("project.ignored.day00.Day00,1,1048576,"));
+    List<MetricsReport.Summary> summaries = MetricsReport.read(files);
+    assertEquals(2, summaries.size());
+    assertTrue(summaries.get(0).getMedianAllocatedBytes() >= 8L << 20);
+  }
+
+  @Test
+  public void testPackInputs() throws Exception {
+    MavenProject mockProject = Mockito.mock(MavenProject.class);
+    Build mockBuild = Mockito.mock(Build.class);
+    Log mockLog = Mockito.mock(Log.class);
+    Resource mockResource = Mockito.mock(Resource.class);
+    Resource mockTestResource = Mockito.mock(Resource.class);
+    AocGeneratorMojo mojo = new AocGeneratorMojo(mockProject, 0, false, true);
+    mojo.setGenerateInputUtils(true);
+    mojo.setCacheAnswers(true);
+    mojo.setPackInputs(true);
+    mojo.setLog(mockLog);
+    Path project = Paths.get(resourceRoot, "project");
+    Path resourceDirectory = project.resolve("resources");
+    Path testResourceDirectory = project.resolve("test-resources");
+    Path inputArchive = resourceDirectory.resolve(InputArchive.FILE_NAME);
+    Path exampleArchive = testResourceDirectory.resolve(InputArchive.FILE_NAME);
+
+    when(mockProject.getGroupId()).thenReturn("project.packed");
+    when(mockProject.getBuild()).thenReturn(mockBuild);
+    when(mockBuild.getSourceDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getTestSourceDirectory()).thenReturn(resourceRoot);
+    when(mockResource.getDirectory()).thenReturn(resourceDirectory.toString());
+    when(mockTestResource.getDirectory()).thenReturn(testResourceDirectory.toString());
+    when(mockBuild.getResources()).thenReturn(Collections.singletonList(mockResource));
+    when(mockBuild.getTestResources()).thenReturn(Collections.singletonList(mockTestResource));
+
+    try {
+      mojo.execute();
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    assertTrue(mojo.isPackInputs());
+    assertFalse(Files.exists(resourceDirectory.resolve(Paths.get("project", "packed", "day00"))));
+    assertFalse(
+        Files.exists(testResourceDirectory.resolve(Paths.get("project", "packed", "day00"))));
+    verify(mockLog, times(1))
+        .info(
+            "Input entry project/packed/day00/input.txt already exists in: "
+                + inputArchive
+                + ". Skipping creation");
+    verify(mockLog, times(1))
+        .info(
+            "Example entry project/packed/day00/example.txt already exists in: "
+                + exampleArchive
+                + ". Skipping creation");
+    InputArchive inputs = new InputArchive(inputArchive);
+    assertEquals(Collections.singleton("project/packed/day00/input.txt"), inputs.names());
+    assertEquals(0, inputs.get("project/packed/day00/input.txt").length);
+    assertEquals(
+        Collections.singleton("project/packed/day00/example.txt"),
+        new InputArchive(exampleArchive).names());
+
+    inputs.put("project/packed/day00/input.txt", "#.#\r\n..#\n".getBytes(StandardCharsets.UTF_8));
+    inputs.put("project/packed/day01/input.txt", "1\n2\n".getBytes(StandardCharsets.UTF_8));
+    inputs.save();
+    Path classes = project.resolve("classes");
+    CompilerTestUtils.compile(classes, project.resolve("packed"));
+    Path answers = project.resolve("answers.properties");
+    System.setProperty("aoc.cache.file", answers.toString());
+    try (URLClassLoader loader =
+        new URLClassLoader(
+            new URL[] {
+              classes.toUri().toURL(),
+              resourceDirectory.toUri().toURL(),
+              testResourceDirectory.toUri().toURL()
+            })) {
+      Class<?> utils = loader.loadClass("project.packed.utils.InputUtils");
+      Class<?> day = loader.loadClass("project.packed.day00.Day00");
+      assertEquals(
+          Arrays.asList("#.#", "..#"),
+          utils
+              .getMethod("stringPerLine", String.class, Class.class)
+              .invoke(null, "input.txt", day));
+      try (Stream<?> lines =
+          (Stream<?>)
+              utils.getMethod("lines", String.class, Class.class).invoke(null, "input.txt", day)) {
+        assertEquals(Arrays.asList("#.#", "..#"), lines.collect(Collectors.toList()));
+      }
+      Object grid =
+          utils.getMethod("grid", String.class, Class.class).invoke(null, "input.txt", day);
+      assertEquals(3, grid.getClass().getField("width").get(grid));
+      assertTrue(
+          Arrays.equals(
+              new int[] {1, 2},
+              (int[])
+                  utils
+                      .getMethod("ints", String.class, Class.class)
+                      .invoke(null, "/project/packed/day01/input.txt", day)));
+      assertEquals(
+          0,
+          ((byte[])
+                  utils
+                      .getMethod("bytes", String.class, Class.class)
+                      .invoke(null, "example.txt", day))
+              .length);
+      InvocationTargetException missing =
+          assertThrows(
+              InvocationTargetException.class,
+              () ->
+                  utils
+                      .getMethod("bytes", String.class, Class.class)
+                      .invoke(null, "missing.txt", day));
+      assertEquals(
+          "Unable to find input missing.txt for project.packed.day00.Day00",
+          missing.getCause().getMessage());
+
+      Class<?> cache = loader.loadClass("project.packed.utils.AnswerCache");
+      Method solve =
+          cache.getMethod("solve", Class.class, int.class, String.class, LongSupplier.class);
+      AtomicInteger solved = new AtomicInteger();
+      LongSupplier solver = () -> solved.incrementAndGet();
+      assertEquals(1L, solve.invoke(null, day, 1, "input.txt", solver));
+      assertEquals(1L, solve.invoke(null, day, 1, "input.txt", solver));
+    } finally {
+      System.clearProperty("aoc.cache.file");
+    }
+  }
+
+  @Test
+  public void testParallelScaffold() throws Exception {
+    MavenProject mockProject = Mockito.mock(MavenProject.class);
+    Build mockBuild = Mockito.mock(Build.class);
+    Log mockLog = Mockito.mock(Log.class);
+    Resource mockResource = Mockito.mock(Resource.class);
+    List<Resource> resources = new ArrayList<>();
+    resources.add(mockResource);
+    when(mockProject.getBuild()).thenReturn(mockBuild);
+    when(mockBuild.getSourceDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getTestSourceDirectory()).thenReturn(resourceRoot);
+    when(mockResource.getDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getResources()).thenReturn(resources);
+    when(mockBuild.getTestResources()).thenReturn(resources);
+
+    List<String> shapes = Arrays.asList("lines", "grid", "ints", "longs", "blocks", "stream");
+    for (String shape : shapes) {
+      when(mockProject.getGroupId()).thenReturn("project." + shape);
+      AocGeneratorMojo mojo = new AocGeneratorMojo(mockProject, 0, false, true);
+      mojo.setGenerateInputUtils(true);
+      mojo.setParallelScaffold(true);
+      mojo.setInputShape(shape);
+      mojo.setLog(mockLog);
+      try {
+        mojo.execute();
+      } catch (MojoExecutionException | MojoFailureException e) {
+        fail();
+      }
+      assertTrue(mojo.isParallelScaffold());
+    }
+    Path project = Paths.get(resourceRoot, "project");
+    File linesFile = dayFile(project, "lines", "Day00.java");
+    String lines = FileUtils.readFileToString(linesFile, UTF_8);
+    assertTrue(lines.contains("return Parallel.sum(lines, Day00::part1Line);"));
+    assertTrue(lines.contains("static long part1Line(String line) {"));
+    String grid = FileUtils.readFileToString(dayFile(project, "grid", "Day00.java"), UTF_8);
+    assertTrue(
+        grid.contains("return Parallel.sumRange(grid.height, row -> Day00.part2Row(grid, row));"));
+    assertTrue(grid.contains("static long part2Row(InputUtils.Grid grid, int row) {"));
+    String longs = FileUtils.readFileToString(dayFile(project, "longs", "Day00.java"), UTF_8);
+    assertTrue(longs.contains("static long part1Value(long value) {"));
+    String streamTest =
+        FileUtils.readFileToString(dayFile(project, "stream", "Day00Test.java"), UTF_8);
+    assertTrue(
+        streamTest.contains("sequential = Parallel.sequentialSum(lines, Day00::part1Line);"));
+    Path parallel =
+        project.resolve(Paths.get("grid", "utils", ParallelGenerator.CLASS_NAME + ".java"));
+    assertTrue(Files.exists(parallel));
+    // RecursiveTask is serializable, without a serialVersionUID -Xlint:serial warns in the project
+    assertTrue(
+        FileUtils.readFileToString(parallel.toFile(), UTF_8)
+            .contains("private static final long serialVersionUID = 1L;"));
+
+    // give the lines stub an answer so the parallel and sequential sums are not trivially zero
+    FileUtils.writeStringToFile(
+        linesFile,
+        lines.replaceFirst(
+            "(part1Line\\(String line\\) \\{\\s*)return 0L;", "$1return line.length();"),
+        UTF_8);
+    StringBuilder example = new StringBuilder();
+    for (int i = 0; i < 1_000; i++) {
+      example.append("x".repeat(i % 7)).append('\n');
+    }
+    for (String shape : shapes) {
+      Files.write(
+          dayFile(project, shape, "example.txt").toPath(),
+          (shape.equals("grid") ? "ab\ncd\n" : example.toString()).getBytes(UTF_8));
+    }
+    Path classes = project.resolve("classes");
+    CompilerTestUtils.compile(classes, shapes.stream().map(project::resolve).toArray(Path[]::new));
+    try (URLClassLoader loader = new URLClassLoader(new URL[] {classes.toUri().toURL()})) {
+      for (String shape : shapes) {
+        Class<?> test = loader.loadClass("project." + shape + ".day00.Day00Test");
+        Constructor<?> constructor = test.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        Object instance = constructor.newInstance();
+        test.getMethod("parallelMatchesSequentialPart1").invoke(instance);
+        test.getMethod("parallelMatchesSequentialPart2").invoke(instance);
+      }
+      Class<?> day = loader.loadClass("project.lines.day00.Day00");
+      assertEquals(2_997L, day.getMethod("part1", String.class).invoke(null, "example.txt"));
+    }
+  }
+
+  @Test
+  public void testParallelTestsAndParameterizedExamples() throws Exception {
+    MavenProject mockProject = Mockito.mock(MavenProject.class);
+    Build mockBuild = Mockito.mock(Build.class);
+    Log mockLog = Mockito.mock(Log.class);
+    Resource mockResource = Mockito.mock(Resource.class);
+    Resource mockTestResource = Mockito.mock(Resource.class);
+    AocGeneratorMojo mojo = new AocGeneratorMojo(mockProject, 0, false, true);
+    mojo.setGenerateInputUtils(true);
+    mojo.setParallelTests(true);
+    mojo.setTestParallelism(3);
+    mojo.setParameterizedExamples(true);
+    mojo.setLog(mockLog);
+    Path project = Paths.get(resourceRoot, "project");
+    Path testResources = project.resolve("test-resources");
+    Path properties = testResources.resolve(JunitPlatformProperties.FILE_NAME);
+    Path day = Paths.get("project", "params", "day00");
+    Path answers = testResources.resolve(day).resolve("example.answers");
+
+    when(mockProject.getGroupId()).thenReturn("project.params");
+    when(mockProject.getBuild()).thenReturn(mockBuild);
+    when(mockBuild.getSourceDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getTestSourceDirectory()).thenReturn(resourceRoot);
+    when(mockResource.getDirectory()).thenReturn(project.resolve("resources").toString());
+    when(mockTestResource.getDirectory()).thenReturn(testResources.toString());
+    when(mockBuild.getResources()).thenReturn(Collections.singletonList(mockResource));
+    when(mockBuild.getTestResources()).thenReturn(Collections.singletonList(mockTestResource));
+    Files.createDirectories(testResources);
+    Files.write(
+        properties,
+        ("junit.jupiter.testinstance.lifecycle.default = per_class\n"
+                + "junit.jupiter.execution.parallel.enabled: false\n")
+            .getBytes(UTF_8));
+
+    try {
+      mojo.execute();
+      Files.write(answers, "part1=0\npart2=5\n".getBytes(UTF_8));
+      mojo.setForce(true);
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    assertTrue(mojo.isParallelTests());
+    assertEquals(3, mojo.getTestParallelism());
+    assertTrue(mojo.isParameterizedExamples());
+    String expected =
+        "junit.jupiter.testinstance.lifecycle.default = per_class\n"
+            + "junit.jupiter.execution.parallel.enabled=true\n"
+            + "\n"
+            + JunitPlatformProperties.COMMENT
+            + "\n"
+            + "junit.jupiter.execution.parallel.mode.default=same_thread\n"
+            + "junit.jupiter.execution.parallel.mode.classes.default=concurrent\n"
+            + "junit.jupiter.execution.parallel.config.strategy=fixed\n"
+            + "junit.jupiter.execution.parallel.config.fixed.parallelism=3\n";
+    assertEquals(expected, new String(Files.readAllBytes(properties), UTF_8));
+    verify(mockLog, times(1)).info("File is unchanged at: " + properties + ". Skipping write");
+    assertEquals("part1=0\npart2=5\n", new String(Files.readAllBytes(answers), UTF_8));
+    verify(mockLog, times(1))
+        .info("Example answers file already exists at: " + answers + ". Skipping creation");
+    assertEquals(
+        expected.replace("config.strategy=fixed", "config.strategy=dynamic")
+            + "junit.jupiter.execution.parallel.config.dynamic.factor=1\n",
+        JunitPlatformProperties.merge(expected, JunitPlatformProperties.settings(0)));
+
+    String test =
+        FileUtils.readFileToString(
+            Paths.get(resourceRoot).resolve(day).resolve("Day00Test.java").toFile(), UTF_8);
+    assertTrue(test.contains("@MethodSource(\"examples\")"));
+    assertTrue(test.contains("@Execution(ExecutionMode.CONCURRENT)"));
+    assertTrue(test.contains("assertEquals(expected.getAsLong(), Day00.part2(example));"));
+
+    Files.write(testResources.resolve(day).resolve("example2.txt"), "c\n".getBytes(UTF_8));
+    InputArchive archive = InputArchive.in(testResources.toString());
+    archive.put("project/params/day00/example3.txt", "d\n".getBytes(UTF_8));
+    archive.put("project/params/day01/example4.txt", "e\n".getBytes(UTF_8));
+    archive.save();
+    Path classes = project.resolve("classes");
+    CompilerTestUtils.compile(classes, project.resolve("params"));
+    try (URLClassLoader loader =
+        new URLClassLoader(new URL[] {classes.toUri().toURL(), testResources.toUri().toURL()})) {
+      Class<?> testClass = loader.loadClass("project.params.day00.Day00Test");
+      Method examples = testClass.getDeclaredMethod("examples");
+      examples.setAccessible(true);
+      assertEquals(
+          Arrays.asList("example.txt", "example2.txt", "example3.txt"), examples.invoke(null));
+      Constructor<?> constructor = testClass.getDeclaredConstructor();
+      constructor.setAccessible(true);
+      Object instance = constructor.newInstance();
+      Method part1 = testClass.getMethod("providedInputTestPart1", String.class);
+      Method part2 = testClass.getMethod("providedInputTestPart2", String.class);
+      part1.invoke(instance, "example.txt");
+      InvocationTargetException wrong =
+          assertThrows(
+              InvocationTargetException.class, () -> part2.invoke(instance, "example.txt"));
+      assertTrue(wrong.getCause() instanceof AssertionError);
+      InvocationTargetException skipped =
+          assertThrows(
+              InvocationTargetException.class, () -> part1.invoke(instance, "example2.txt"));
+      assertEquals(
+          "Assumption failed: No part 1 answer for example2.txt", skipped.getCause().getMessage());
+    }
+  }
+
+  @Test
+  public void testDryRun() throws IOException {
+    MavenProject mockProject = Mockito.mock(MavenProject.class);
+    Build mockBuild = Mockito.mock(Build.class);
+    Log mockLog = Mockito.mock(Log.class);
+    Resource mockResource = Mockito.mock(Resource.class);
+    List<Resource> resources = new ArrayList<>();
+    resources.add(mockResource);
+    AocGeneratorMojo mojo = new AocGeneratorMojo(mockProject, 0, false, true);
+    mojo.setGenerateInputUtils(true);
+    mojo.setDryRun(true);
+    mojo.setLog(mockLog);
+    Path dayDirectory = Paths.get(resourceRoot, "project", "ignored", "day00");
+    Path sourceFile = dayDirectory.resolve("Day00.java");
+    Path inputFile = dayDirectory.resolve("input.txt");
+    File manifestFile =
+        Paths.get(resourceRoot, "project", "target", "aoc-generator", "manifest.properties")
+            .toFile();
+
+    when(mockProject.getGroupId()).thenReturn("project.ignored");
+    when(mockProject.getBuild()).thenReturn(mockBuild);
+    when(mockBuild.getDirectory())
+        .thenReturn(Paths.get(resourceRoot, "project", "target").toString());
+    when(mockBuild.getSourceDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getTestSourceDirectory()).thenReturn(resourceRoot);
+    when(mockResource.getDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getResources()).thenReturn(resources);
+    when(mockBuild.getTestResources()).thenReturn(resources);
+
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    assertTrue(mojo.isDryRun());
+    assertFalse(Files.exists(Paths.get(resourceRoot, "project")));
+    verify(mockLog, times(1)).info("Dry run, 5 file(s) would be written:");
+    verify(mockLog, times(1))
+        .info(Mockito.matches("  write  \\Q" + sourceFile + "\\E \\(\\d+ bytes\\)"));
+    verify(mockLog, times(1)).info("  create " + inputFile + " (0 bytes)");
+
+    mojo.setDryRun(false);
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    assertTrue(Files.isRegularFile(sourceFile));
+    assertTrue(Files.isRegularFile(inputFile));
+    assertTrue(manifestFile.isFile());
+    try (Stream<Path> files = Files.walk(Paths.get(resourceRoot, "project"))) {
+      assertEquals(
+          Collections.emptyList(),
+          files.filter(file -> file.toString().endsWith(".tmp")).collect(Collectors.toList()));
+    }
+    verify(mockLog, times(1)).info(Mockito.startsWith("Dry run"));
+  }
+
+  @Test
+  public void testTemplates() throws IOException {
+    MavenProject mockProject = Mockito.mock(MavenProject.class);
+    Build mockBuild = Mockito.mock(Build.class);
+    Log mockLog = Mockito.mock(Log.class);
+    Resource mockResource = Mockito.mock(Resource.class);
+    List<Resource> resources = new ArrayList<>();
+    resources.add(mockResource);
+    Path templates = Paths.get(resourceRoot, "project", "templates");
+    Files.createDirectories(templates.resolve(TemplateSet.UTILS));
+    Files.write(
+        templates.resolve(TemplateSet.SOURCE),
+        ("package ${package};\n\n/** Day ${day} of ${year}, $${day} stays as is. */\npublic class"
+                + " ${className} {\n  static final String DAY = \"${paddedDay}\";\n}\n")
+            .getBytes(UTF_8));
+    Files.write(
+        templates.resolve(TemplateSet.TEST),
+        "package ${package};\n\nimport ${utilsPackage}.Strings;\n\nclass ${className}Test {}\n"
+            .getBytes(UTF_8));
+    Files.write(
+        templates.resolve(TemplateSet.UTILS).resolve("Strings" + TemplateSet.EXTENSION),
+        "package ${package};\n\n/** Shared by ${groupId}. */\npublic final class ${className} {}\n"
+            .getBytes(UTF_8));
+    AocGeneratorMojo mojo = new AocGeneratorMojo(mockProject, 3, false, true);
+    mojo.setTemplateDirectory(templates.toFile());
+    mojo.setLog(mockLog);
+    Path dayDirectory = Paths.get(resourceRoot, "project", "ignored", "day03");
+    Path utilsFile = Paths.get(resourceRoot, "project", "ignored", "utils", "Strings.java");
+
+    when(mockProject.getGroupId()).thenReturn("project.ignored");
+    when(mockProject.getBuild()).thenReturn(mockBuild);
+    when(mockBuild.getSourceDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getTestSourceDirectory()).thenReturn(resourceRoot);
+    when(mockResource.getDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getResources()).thenReturn(resources);
+    when(mockBuild.getTestResources()).thenReturn(resources);
+
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    assertEquals(templates.toFile(), mojo.getTemplateDirectory());
+    assertEquals(
+        "package project.ignored.day03;\n\n/** Day 3 of 0, ${day} stays as is. */\npublic class"
+            + " Day03 {\n  static final String DAY = \"03\";\n}\n",
+        new String(Files.readAllBytes(dayDirectory.resolve("Day03.java")), UTF_8));
+    assertEquals(
+        "package project.ignored.day03;\n\nimport project.ignored.utils.Strings;\n\nclass"
+            + " Day03Test {}\n",
+        new String(Files.readAllBytes(dayDirectory.resolve("Day03Test.java")), UTF_8));
+    assertEquals(
+        "package project.ignored.utils;\n\n/** Shared by project.ignored. */\npublic final class"
+            + " Strings {}\n",
+        new String(Files.readAllBytes(utilsFile), UTF_8));
+    CompilerTestUtils.compile(
+        Paths.get(resourceRoot, "project", "classes"), dayDirectory.getParent());
+
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    verify(mockLog, times(1))
+        .info("Strings file already exists at: " + utilsFile + ". Skipping creation");
+
+    byte[] content = Files.readAllBytes(templates.resolve(TemplateSet.SOURCE));
+    assertSame(Template.compile("first", content), Template.compile("second", content));
+    for (int i = 0; i <= Template.CACHE_LIMIT; i++) {
+      Template.compile("filler", ("${day}" + i).getBytes(UTF_8));
+    }
+    Map<String, String> values = new HashMap<>();
+    values.put("day", "7");
+    values.put("year", "2023");
+    assertEquals(
+        "7 of 2023", Template.compile("again", "${day} of ${year}".getBytes(UTF_8)).render(values));
+  }
+
+  @Test
+  public void testTemplateErrors() throws IOException {
+    MavenProject mockProject = Mockito.mock(MavenProject.class);
+    when(mockProject.getBuild()).thenReturn(Mockito.mock(Build.class));
+    Path templates = Paths.get(resourceRoot, "project", "templates");
+    Path utils = templates.resolve(TemplateSet.UTILS);
+    Files.createDirectories(utils);
+    AocGeneratorMojo mojo = new AocGeneratorMojo(mockProject, 3, false, true);
+    mojo.setTemplateDirectory(templates.toFile());
+    Path source = templates.resolve(TemplateSet.SOURCE);
+
+    Files.write(source, "class ${className} {\n  ${input}\n}\n".getBytes(UTF_8));
+    MojoExecutionException exception = assertThrows(MojoExecutionException.class, mojo::execute);
+    assertEquals(
+        "Unknown variable ${input} in "
+            + source
+            + ", expected one of [groupId, utilsPackage, package, className, day, paddedDay,"
+            + " year]",
+        exception.getMessage());
+
+    Files.write(source, "class ${className} {\n  ${day\n}\n".getBytes(UTF_8));
+    exception = assertThrows(MojoExecutionException.class, mojo::execute);
+    assertEquals("Unterminated variable at line 2 of " + source, exception.getMessage());
+
+    Files.write(source, "class ${class-name} {}\n".getBytes(UTF_8));
+    exception = assertThrows(MojoExecutionException.class, mojo::execute);
+    assertEquals("Invalid variable ${class-name} at line 1 of " + source, exception.getMessage());
+    Files.delete(source);
+
+    Path util = utils.resolve("Helper" + TemplateSet.EXTENSION);
+    Files.write(util, "class ${className}${paddedDay} {}\n".getBytes(UTF_8));
+    exception = assertThrows(MojoExecutionException.class, mojo::execute);
+    assertEquals(
+        "Unknown variable ${paddedDay} in "
+            + util
+            + ", expected one of [groupId, utilsPackage, package, className]",
+        exception.getMessage());
+    Files.delete(util);
+
+    for (String name : Arrays.asList("class", "two-words")) {
+      Path invalid = utils.resolve(name + TemplateSet.EXTENSION);
+      Files.write(invalid, "class X {}\n".getBytes(UTF_8));
+      exception = assertThrows(MojoExecutionException.class, mojo::execute);
+      assertEquals(
+          "Template " + invalid + " does not name a valid class: " + name, exception.getMessage());
+      Files.delete(invalid);
+    }
+  }
 }
@@ -0,0 +1,235 @@
+package net.ddellspe;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Resource;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class AocInputArchiveMojoTest {
+  String resourceRoot = "";
+  Path project;
+  Path resources;
+  Path testResources;
+  MavenProject mockProject;
+  Log mockLog;
+
+  @BeforeEach
+  public void before() {
+    File rootFile = new File(Objects.requireNonNull(getClass().getResource("/root.txt")).getFile());
+    resourceRoot = rootFile.getParent();
+    project = Paths.get(resourceRoot, "project");
+    resources = project.resolve("resources");
+    testResources = project.resolve("test-resources");
+    mockProject = Mockito.mock(MavenProject.class);
+    mockLog = Mockito.mock(Log.class);
+    Build mockBuild = Mockito.mock(Build.class);
+    Resource mockResource = Mockito.mock(Resource.class);
+    Resource mockTestResource = Mockito.mock(Resource.class);
+    when(mockProject.getGroupId()).thenReturn("archive.inputs");
+    when(mockProject.getBuild()).thenReturn(mockBuild);
+    when(mockBuild.getResources()).thenReturn(Collections.singletonList(mockResource));
+    when(mockBuild.getTestResources()).thenReturn(Collections.singletonList(mockTestResource));
+    when(mockResource.getDirectory()).thenReturn(resources.toString());
+    when(mockTestResource.getDirectory()).thenReturn(testResources.toString());
+  }
+
+  @AfterEach
+  public void after() throws IOException {
+    FileUtils.deleteDirectory(project.toFile());
+  }
+
+  private static void write(Path file, String content) throws IOException {
+    Files.createDirectories(file.getParent());
+    Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String read(Path file) throws IOException {
+    return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+  }
+
+  private void execute(AocInputArchiveMojo mojo) {
+    mojo.setLog(mockLog);
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail(e);
+    }
+  }
+
+  @Test
+  public void testDefaults() {
+    AocInputArchiveMojo mojo = new AocInputArchiveMojo();
+    assertEquals("import", mojo.getAction());
+    assertFalse(mojo.isDeleteSource());
+    assertFalse(mojo.isForce());
+  }
+
+  @Test
+  public void testImportAndExport() throws IOException {
+    Path input = resources.resolve(Paths.get("archive", "inputs", "day01", "input.txt"));
+    Path example = testResources.resolve(Paths.get("archive", "inputs", "day01", "example.txt"));
+    Path other = resources.resolve(Paths.get("other", "input.txt"));
+    write(input, "1\n2\n");
+    write(example, "3\n");
+    write(other, "ignored\n");
+
+    AocInputArchiveMojo importMojo = new AocInputArchiveMojo(mockProject, "import");
+    importMojo.setDeleteSource(true);
+    execute(importMojo);
+    execute(new AocInputArchiveMojo(mockProject, "IMPORT"));
+
+    InputArchive inputs = new InputArchive(resources.resolve(InputArchive.FILE_NAME));
+    assertEquals(Collections.singleton("archive/inputs/day01/input.txt"), inputs.names());
+    assertEquals(
+        "1\n2\n", new String(inputs.get("archive/inputs/day01/input.txt"), StandardCharsets.UTF_8));
+    assertFalse(Files.exists(input));
+    assertFalse(Files.exists(example));
+    assertTrue(Files.exists(other));
+    verify(mockLog, times(1))
+        .info(
+            "Imported 1 file(s) into " + resources.resolve(InputArchive.FILE_NAME) + ", 1 changed");
+    verify(mockLog, times(1))
+        .info(
+            "Imported 0 file(s) into " + resources.resolve(InputArchive.FILE_NAME) + ", 0 changed");
+
+    write(example, "changed\n");
+    AocInputArchiveMojo exportMojo = new AocInputArchiveMojo(mockProject, "export");
+    execute(exportMojo);
+    assertEquals("1\n2\n", read(input));
+    assertEquals("changed\n", read(example));
+    verify(mockLog, times(1))
+        .warn(
+            "File already exists with different content at: "
+                + example
+                + ". Skipping export, use force to overwrite");
+
+    exportMojo.setForce(true);
+    exportMojo.setDeleteSource(true);
+    execute(exportMojo);
+    assertEquals("3\n", read(example));
+    assertFalse(Files.exists(resources.resolve(InputArchive.FILE_NAME)));
+    assertFalse(Files.exists(testResources.resolve(InputArchive.FILE_NAME)));
+    verify(mockLog, times(1))
+        .info("Exported 1 of 1 entries from " + testResources.resolve(InputArchive.FILE_NAME));
+
+    execute(exportMojo);
+    verify(mockLog, times(1))
+        .info(
+            "No input archive found at: "
+                + resources.resolve(InputArchive.FILE_NAME)
+                + ". Skipping export");
+  }
+
+  @Test
+  public void testUnknownAction() {
+    AocInputArchiveMojo mojo = new AocInputArchiveMojo(mockProject, "zip");
+    MojoExecutionException exception = assertThrows(MojoExecutionException.class, mojo::execute);
+    assertEquals("Unknown archive action: zip, expected import or export", exception.getMessage());
+  }
+
+  @Test
+  public void testInvalidArchive() throws IOException {
+    write(resources.resolve(InputArchive.FILE_NAME), "not an archive");
+    AocInputArchiveMojo mojo = new AocInputArchiveMojo(mockProject, "export");
+    MojoExecutionException exception = assertThrows(MojoExecutionException.class, mojo::execute);
+    assertEquals(
+        "Unable to export inputs of " + resources.resolve(InputArchive.FILE_NAME),
+        exception.getMessage());
+    assertEquals(
+        "Not an input archive: " + resources.resolve(InputArchive.FILE_NAME),
+        exception.getCause().getMessage());
+  }
+
+  @Test
+  public void testEncodeAndDecode() throws IOException {
+    Map<String, byte[]> entries = new TreeMap<>();
+    entries.put("a/input.txt", "12".getBytes(StandardCharsets.UTF_8));
+    entries.put("b/example.txt", new byte[0]);
+    byte[] encoded = InputArchive.encode(entries);
+    Map<String, byte[]> decoded = InputArchive.decode(ByteBuffer.wrap(encoded), "test");
+    assertEquals(entries.keySet(), decoded.keySet());
+    assertArrayEquals(entries.get("a/input.txt"), decoded.get("a/input.txt"));
+    assertEquals(0, decoded.get("b/example.txt").length);
+
+    IOException truncated =
+        assertThrows(
+            IOException.class,
+            () ->
+                InputArchive.decode(
+                    ByteBuffer.wrap(Arrays.copyOf(encoded, encoded.length - 1)), "test"));
+    assertEquals("Truncated input archive: test", truncated.getMessage());
+    ByteBuffer version = ByteBuffer.wrap(encoded.clone());
+    version.putInt(4, 2);
+    IOException unsupported =
+        assertThrows(IOException.class, () -> InputArchive.decode(version, "test"));
+    assertEquals("Unsupported input archive version 2 in test", unsupported.getMessage());
+  }
+
+  @Test
+  public void testFindReadsTheIndexOncePerArchive() throws IOException {
+    Map<String, byte[]> entries = new TreeMap<>();
+    entries.put("a/input.txt", "12".getBytes(StandardCharsets.UTF_8));
+    entries.put("b/input.txt", "345".getBytes(StandardCharsets.UTF_8));
+    byte[] encoded = InputArchive.encode(entries);
+    Path archive = resources.resolve(InputArchive.FILE_NAME);
+    Files.createDirectories(resources);
+    Files.write(archive, encoded);
+    Map<String, Map<String, int[]>> indexes = new HashMap<>();
+    try (URLClassLoader loader = new URLClassLoader(new URL[] {resources.toUri().toURL()}, null)) {
+      assertArrayEquals(
+          entries.get("b/input.txt"), InputArchive.find(loader, "b/input.txt", indexes));
+      assertEquals(1, indexes.size());
+      assertNull(InputArchive.find(loader, "c/input.txt", indexes));
+
+      // with the index kept, only the entry is read, so a broken header goes unnoticed
+      byte[] broken = encoded.clone();
+      ByteBuffer.wrap(broken).putInt(0, 0);
+      Files.write(archive, broken);
+      assertArrayEquals(
+          entries.get("a/input.txt"), InputArchive.find(loader, "a/input.txt", indexes));
+      IOException header =
+          assertThrows(
+              IOException.class, () -> InputArchive.find(loader, "a/input.txt", new HashMap<>()));
+      assertTrue(header.getMessage().startsWith("Not an input archive: "));
+
+      Files.write(archive, Arrays.copyOf(encoded, encoded.length - 1));
+      IOException truncated =
+          assertThrows(
+              IOException.class, () -> InputArchive.find(loader, "b/input.txt", new HashMap<>()));
+      assertTrue(truncated.getMessage().startsWith("Truncated input archive: "));
+    }
+  }
+}
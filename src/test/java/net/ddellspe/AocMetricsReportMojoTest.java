@@ -0,0 +1,138 @@
+package net.ddellspe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.model.Build;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class AocMetricsReportMojoTest {
+  String resourceRoot = "";
+  MavenProject mockProject;
+  Build mockBuild;
+  Log mockLog;
+
+  @BeforeEach
+  public void before() {
+    File rootFile = new File(Objects.requireNonNull(getClass().getResource("/root.txt")).getFile());
+    resourceRoot = rootFile.getParent();
+    mockProject = Mockito.mock(MavenProject.class);
+    mockBuild = Mockito.mock(Build.class);
+    mockLog = Mockito.mock(Log.class);
+    when(mockProject.getBuild()).thenReturn(mockBuild);
+    when(mockBuild.getDirectory()).thenReturn(Paths.get(resourceRoot, "project").toString());
+  }
+
+  @AfterEach
+  public void after() throws IOException {
+    FileUtils.deleteDirectory(Paths.get(resourceRoot, "project").toFile());
+  }
+
+  @Test
+  public void testAggregatesRuns() throws IOException {
+    Path metrics = Paths.get(resourceRoot, "project", "aoc-generator", "metrics");
+    Files.createDirectories(metrics);
+    Files.write(
+        metrics.resolve("metrics-1-100.csv"),
+        Arrays.asList(
+            SolutionMetricsGenerator.HEADER,
+            "org.aoc.year2023.day02.Day02,1,7,3000000,2000000,2048,0,0,10",
+            "org.aoc.year2023.day01.Day01,2,5,1000000,900000,3145728,1,4,10",
+            "org.aoc.year2023.day01.Day01,1,4,1000000,-1,-1,0,0,10"));
+    Files.write(
+        metrics.resolve("metrics-2-200.csv"),
+        Arrays.asList(
+            SolutionMetricsGenerator.HEADER,
+            "org.aoc.year2023.day01.Day01,2,6,3000000,2900000,5368709120,2,10,20",
+            "org.aoc.year2023.day01.Day01,2,6,2000000,1900000,1048576,0,0,30",
+            "org.aoc.utils.InputUtils,1,0,1,1,1,0,0,30",
+            "not,a,measurement"));
+    Files.write(metrics.resolve("ignored.txt"), Arrays.asList("ignored"));
+    AocMetricsReportMojo mojo = new AocMetricsReportMojo(mockProject);
+    mojo.setLog(mockLog);
+
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    verify(mockLog, times(1)).info("Aggregated metrics of 3 part(s) from 2 run file(s)");
+    verify(mockLog, times(1))
+        .info(Mockito.matches("2023 Day 01 +1 +4 +1 +1.000 ms +n/a +n/a +n/a +0/0 ms"));
+    verify(mockLog, times(1))
+        .info(
+            Mockito.matches("2023 Day 01 +2 +6 +3 +2.000 ms +1.900 ms +3.0 MiB +5.0 GiB +3/14 ms"));
+    verify(mockLog, times(1)).info(Mockito.matches("2023 Day 02 +1 +7 +1 .* +2.0 KiB .*"));
+    Path summary = Paths.get(resourceRoot, "project", "aoc-generator", "metrics-summary.csv");
+    List<String> csv = Files.readAllLines(summary, StandardCharsets.UTF_8);
+    assertEquals(MetricsReport.SUMMARY_HEADER, csv.get(0));
+    assertEquals(
+        "2023,1,org.aoc.year2023.day01.Day01,2,3,6,2000000,1900000,3145728,5368709120,3,14",
+        csv.get(2));
+    verify(mockLog, times(1)).info("Metrics summary written to: " + summary);
+  }
+
+  @Test
+  public void testNoMetrics() {
+    AocMetricsReportMojo mojo = new AocMetricsReportMojo(mockProject);
+    mojo.setLog(mockLog);
+
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    verify(mockLog, times(1)).warn(Mockito.startsWith("No solution metrics found in "));
+  }
+
+  @Test
+  public void testUnwritableSummary() throws IOException {
+    Path metrics = Paths.get(resourceRoot, "project", "metrics");
+    Files.createDirectories(metrics);
+    Files.write(
+        metrics.resolve("metrics-1-100.csv"),
+        Arrays.asList("org.aoc.day01.Day01,1,4,1000000,1,1,0,0,10"));
+    Path blocked = Paths.get(resourceRoot, "project", "blocked");
+    Files.write(blocked, Arrays.asList("not a directory"));
+    AocMetricsReportMojo mojo = new AocMetricsReportMojo();
+    mojo.setProject(mockProject);
+    mojo.setMetricsDirectory(metrics.toFile());
+    mojo.setReportDirectory(blocked.toFile());
+    mojo.setLog(mockLog);
+
+    assertThrows(MojoExecutionException.class, mojo::execute);
+    assertEquals(blocked.toFile(), mojo.getReportDirectory());
+    assertEquals(mockProject, mojo.getProject());
+  }
+
+  @Test
+  public void testFormatBytes() {
+    assertEquals("n/a", MetricsReport.formatBytes(-1L));
+    assertEquals("512 B", MetricsReport.formatBytes(512L));
+    assertEquals("1.5 KiB", MetricsReport.formatBytes(1536L));
+    assertEquals("2.0 GiB", MetricsReport.formatBytes(2L * 1024 * 1024 * 1024));
+    assertTrue(MetricsReport.formatBytes(Long.MAX_VALUE).endsWith("TiB"));
+  }
+}
@@ -0,0 +1,254 @@
+package net.ddellspe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Objects;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.model.Build;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class AocPerformanceCheckMojoTest {
+  String resourceRoot = "";
+  MavenProject mockProject;
+  Log mockLog;
+  Path report;
+  Path baseline;
+
+  @BeforeEach
+  public void before() throws IOException {
+    File rootFile = new File(Objects.requireNonNull(getClass().getResource("/root.txt")).getFile());
+    resourceRoot = rootFile.getParent();
+    mockProject = Mockito.mock(MavenProject.class);
+    mockLog = Mockito.mock(Log.class);
+    report = Paths.get(resourceRoot, "project", "aoc-generator", "solutions.csv");
+    baseline = Paths.get(resourceRoot, "project", "aoc-baseline.csv");
+    Files.createDirectories(report.getParent());
+    Files.write(
+        report,
+        Arrays.asList(
+            SolutionReport.CSV_HEADER,
+            "2023,1,org.aoc.year2023.day01.Day01,1,6,10,2000000,2500000,4096,1,false,",
+            "2023,1,org.aoc.year2023.day01.Day01,2,3,10,1000000,1500000,-1,1,false,",
+            "2023,2,org.aoc.year2023.day02.Day02,1,42,0,0,0,-1,1,true,",
+            "2023,2,org.aoc.year2023.day02.Day02,2,,0,0,0,-1,1,false,\"failed\""));
+  }
+
+  @AfterEach
+  public void after() throws IOException {
+    FileUtils.deleteDirectory(Paths.get(resourceRoot, "project").toFile());
+  }
+
+  private AocPerformanceCheckMojo mojo() {
+    AocPerformanceCheckMojo mojo =
+        new AocPerformanceCheckMojo(mockProject, report.toFile(), baseline.toFile());
+    mojo.setLog(mockLog);
+    return mojo;
+  }
+
+  private void writeBaseline(String... lines) throws IOException {
+    Files.write(baseline, Arrays.asList(lines));
+  }
+
+  @Test
+  public void testDefaults() {
+    Build mockBuild = Mockito.mock(Build.class);
+    when(mockProject.getBuild()).thenReturn(mockBuild);
+    when(mockBuild.getDirectory()).thenReturn("target");
+    when(mockProject.getBasedir()).thenReturn(new File("base"));
+    AocPerformanceCheckMojo mojo = new AocPerformanceCheckMojo();
+    mojo.setProject(mockProject);
+    assertEquals(
+        Paths.get("target", "aoc-generator", "solutions.csv").toFile(), mojo.getReportFile());
+    assertEquals(new File("base", "aoc-baseline.csv"), mojo.getBaselineFile());
+    assertEquals(1.25, mojo.getMaxTimeRatio());
+    assertEquals(0, mojo.getMaxTimeIncreaseMillis());
+    assertEquals(1.25, mojo.getMaxAllocationRatio());
+    assertEquals(0L, mojo.getMaxAllocationIncreaseBytes());
+    assertTrue(mojo.isFailOnRegression());
+    assertFalse(mojo.isUpdateBaseline());
+    assertEquals(mockProject, mojo.getProject());
+  }
+
+  @Test
+  public void testNoReport() throws IOException {
+    Files.delete(report);
+    try {
+      mojo().execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    verify(mockLog, times(1)).warn(Mockito.startsWith("No measured solutions found in "));
+  }
+
+  @Test
+  public void testNoBaseline() {
+    try {
+      mojo().execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    verify(mockLog, times(1)).warn(Mockito.startsWith("No performance baseline found at "));
+  }
+
+  @Test
+  public void testUpdateBaselineKeepsUnmeasuredParts() throws IOException {
+    writeBaseline(
+        PerformanceBaseline.HEADER,
+        "org.aoc.year2023.day01.Day01,1,1000000,1024,1",
+        "org.aoc.year2023.day02.Day02,1,5000000,2048,1");
+    AocPerformanceCheckMojo mojo = mojo();
+    mojo.setUpdateBaseline(true);
+
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    verify(mockLog, times(1)).info("Baseline updated with 2 part(s) at: " + baseline);
+    assertEquals(
+        Arrays.asList(
+            PerformanceBaseline.HEADER,
+            "org.aoc.year2023.day01.Day01,1,2000000,4096,1",
+            "org.aoc.year2023.day01.Day01,2,1000000,-1,1",
+            "org.aoc.year2023.day02.Day02,1,5000000,2048,1"),
+        Files.readAllLines(baseline, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testWithinThresholds() throws IOException {
+    writeBaseline(
+        PerformanceBaseline.HEADER,
+        "org.aoc.year2023.day01.Day01,1,1900000,4000,1",
+        "org.aoc.year2023.day01.Day01,2,1000000,100,1",
+        "org.aoc.year2023.day02.Day02,1,1,1,1");
+    try {
+      mojo().execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    verify(mockLog, times(1))
+        .info("No performance regressions in 2 part(s) compared with the baseline");
+  }
+
+  @Test
+  public void testRegressionFailsBuild() throws IOException {
+    writeBaseline(
+        PerformanceBaseline.HEADER,
+        "org.aoc.year2023.day01.Day01,1,1000000,1024,1",
+        "org.aoc.year2023.day01.Day01,2,1000000,1024,1");
+    MojoFailureException e = assertThrows(MojoFailureException.class, mojo()::execute);
+    assertEquals("2 performance regression(s) against the baseline at " + baseline, e.getMessage());
+    verify(mockLog, times(1))
+        .error("2023 Day 01 part 1 median time regressed to 2.000 ms from 1.000 ms (2.00x)");
+    verify(mockLog, times(1))
+        .error(
+            "2023 Day 01 part 1 allocations regressed to 4.0 KiB from 1.0 KiB per operation"
+                + " (4.00x)");
+  }
+
+  @Test
+  public void testRegressionOnlyWarns() throws IOException {
+    writeBaseline(PerformanceBaseline.HEADER, "org.aoc.year2023.day01.Day01,1,1000000,1024,1");
+    AocPerformanceCheckMojo mojo = mojo();
+    mojo.setFailOnRegression(false);
+    mojo.setMaxAllocationRatio(0);
+
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    verify(mockLog, times(1)).warn(Mockito.startsWith("2023 Day 01 part 1 median time regressed"));
+    verify(mockLog, never()).warn(Mockito.contains("allocations"));
+  }
+
+  @Test
+  public void testAbsoluteThresholds() throws IOException {
+    writeBaseline(PerformanceBaseline.HEADER, "org.aoc.year2023.day01.Day01,1,1900000,4000,1");
+    AocPerformanceCheckMojo mojo = mojo();
+    mojo.setMaxTimeRatio(0);
+    mojo.setMaxTimeIncreaseMillis(0.05);
+    mojo.setMaxAllocationRatio(0);
+    mojo.setMaxAllocationIncreaseBytes(64L);
+
+    assertThrows(MojoFailureException.class, mojo::execute);
+    verify(mockLog, times(1)).error(Mockito.startsWith("2023 Day 01 part 1 median time"));
+    verify(mockLog, times(1)).error(Mockito.startsWith("2023 Day 01 part 1 allocations"));
+
+    mojo.setMaxTimeIncreaseMillis(0.5);
+    mojo.setMaxAllocationIncreaseBytes(1024L);
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+  }
+
+  @Test
+  public void testConcurrentlyMeasuredReportIsRejected() throws IOException {
+    Files.write(
+        report,
+        Arrays.asList(
+            SolutionReport.CSV_HEADER,
+            "2023,1,org.aoc.year2023.day01.Day01,1,6,10,1000000,1500000,1024,8,false,",
+            "2023,1,org.aoc.year2023.day01.Day01,2,3,10,1000000,1500000,1024,8,false,"));
+    writeBaseline(
+        PerformanceBaseline.HEADER,
+        "org.aoc.year2023.day01.Day01,1,1000000,1024,1",
+        "org.aoc.year2023.day01.Day01,2,1000000,1024,0");
+
+    MojoFailureException e = assertThrows(MojoFailureException.class, mojo()::execute);
+    assertTrue(
+        e.getMessage().startsWith("Refusing to compare 2 part(s) measured with a different"));
+    verify(mockLog, times(1))
+        .error(
+            "2023 Day 01 part 1 was measured with parallelism 8, the baseline with parallelism 1");
+    verify(mockLog, times(1))
+        .error(
+            "2023 Day 01 part 2 was measured with parallelism 8, the baseline with the default"
+                + " parallelism");
+    verify(mockLog, never()).info(Mockito.startsWith("No performance regressions"));
+
+    AocPerformanceCheckMojo mojo = mojo();
+    mojo.setFailOnRegression(false);
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException ex) {
+      fail();
+    }
+    verify(mockLog, times(1)).warn(Mockito.startsWith("Refusing to compare 2 part(s)"));
+    verify(mockLog, never()).info(Mockito.startsWith("No performance regressions"));
+  }
+
+  @Test
+  public void testMalformedBaseline() throws IOException {
+    writeBaseline(PerformanceBaseline.HEADER, "org.aoc.year2023.day01.Day01,1,fast");
+    assertThrows(MojoExecutionException.class, mojo()::execute);
+    writeBaseline(PerformanceBaseline.HEADER, "org.aoc.year2023.day01.Day01,1,fast,1,1");
+    assertThrows(MojoExecutionException.class, mojo()::execute);
+    writeBaseline(PerformanceBaseline.HEADER, "org.aoc.year2023.day01.Day01,1,1000000,1024");
+    assertThrows(MojoExecutionException.class, mojo()::execute);
+  }
+}
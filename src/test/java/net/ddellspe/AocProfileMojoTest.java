@@ -0,0 +1,141 @@
+package net.ddellspe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Objects;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.model.Build;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class AocProfileMojoTest {
+  String resourceRoot = "";
+  MavenProject mockProject;
+  Build mockBuild;
+  Log mockLog;
+
+  @BeforeEach
+  public void before() throws DependencyResolutionRequiredException {
+    File rootFile = new File(Objects.requireNonNull(getClass().getResource("/root.txt")).getFile());
+    resourceRoot = rootFile.getParent();
+    mockProject = Mockito.mock(MavenProject.class);
+    mockBuild = Mockito.mock(Build.class);
+    mockLog = Mockito.mock(Log.class);
+    when(mockProject.getGroupId()).thenReturn("net.ddellspe.fixtures");
+    when(mockProject.getBuild()).thenReturn(mockBuild);
+    when(mockProject.getRuntimeClasspathElements())
+        .thenReturn(Collections.singletonList(resourceRoot));
+    when(mockBuild.getDirectory()).thenReturn(Paths.get(resourceRoot, "project").toString());
+  }
+
+  @AfterEach
+  public void after() throws IOException {
+    FileUtils.deleteDirectory(Paths.get(resourceRoot, "project").toFile());
+  }
+
+  @Test
+  public void testDefaults() {
+    AocProfileMojo mojo = new AocProfileMojo();
+    assertEquals(-1, mojo.getDay());
+    assertEquals(0, mojo.getYear());
+    assertTrue(mojo.isUseDayPackage());
+    assertEquals(1, mojo.getPart());
+    assertEquals("input.txt", mojo.getInputName());
+    assertEquals(5000L, mojo.getDurationMillis());
+    assertEquals(10L, mojo.getSamplePeriodMillis());
+    assertEquals(10, mojo.getTop());
+    assertNull(mojo.getProject());
+  }
+
+  @Test
+  public void testProfilesBothParts() throws IOException {
+    AocProfileMojo mojo = new AocProfileMojo(mockProject, 1, 0, 200L);
+    mojo.setSamplePeriodMillis(1L);
+    mojo.setLog(mockLog);
+
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail(e);
+    }
+    Path profiles = Paths.get(resourceRoot, "project", "aoc-generator", "profile");
+    assertEquals(profiles.toFile(), mojo.getProfileDirectory());
+    verify(mockLog, times(1)).info("Profiling Day 01 part 1 on input.txt for 200 ms");
+    verify(mockLog, times(1)).info(Mockito.matches("Day 01 part 1 answer 6, \\d+ invocation.*"));
+    verify(mockLog, times(1)).info(Mockito.matches("Day 01 part 2 answer 3, \\d+ invocation.*"));
+    verify(mockLog, times(2)).info(Mockito.startsWith("Top sampled methods ("));
+    verify(mockLog, times(2)).info(Mockito.startsWith("Top allocation sites ("));
+    verify(mockLog, times(2)).info(Mockito.startsWith("GC pauses: "));
+    Path recording = profiles.resolve("Day01-part1.jfr");
+    verify(mockLog, times(1)).info("Recording written to: " + recording);
+    assertTrue(Files.isRegularFile(recording));
+    assertTrue(Files.isRegularFile(profiles.resolve("Day01-part2.jfr")));
+
+    SolutionProfiler.Summary summary = SolutionProfiler.summarize(recording);
+    assertTrue(summary.getSamples() > 0);
+    assertTrue(summary.topMethods(3).size() <= 3);
+    assertEquals(summary.getCollections() == 0, summary.getLongestPause().isZero());
+  }
+
+  @Test
+  public void testFailingPart() {
+    AocProfileMojo mojo = new AocProfileMojo(mockProject, 2, 2, 10L);
+    mojo.setLog(mockLog);
+
+    MojoFailureException exception = assertThrows(MojoFailureException.class, mojo::execute);
+    assertEquals(
+        "Profiled part(s) failed: Day 02 part 2: java.lang.IllegalStateException: Part 2 is not"
+            + " solved yet",
+        exception.getMessage());
+    verify(mockLog, times(1)).info(Mockito.startsWith("Top sampled methods ("));
+  }
+
+  @Test
+  public void testMissingDay() {
+    AocProfileMojo mojo = new AocProfileMojo(mockProject, 5, 1, 10L);
+    mojo.setLog(mockLog);
+
+    MojoFailureException exception = assertThrows(MojoFailureException.class, mojo::execute);
+    assertTrue(exception.getMessage().contains("Day 05 part 1: Unable to load part1"));
+    verify(mockLog, times(0)).info(Mockito.startsWith("Top sampled methods ("));
+    assertFalse(
+        Files.exists(
+            Paths.get(resourceRoot, "project", "aoc-generator", "profile", "Day05-part1.jfr")));
+  }
+
+  @Test
+  public void testInvalidPart() {
+    AocProfileMojo mojo = new AocProfileMojo(mockProject, 1, 3, 10L);
+    MojoExecutionException exception = assertThrows(MojoExecutionException.class, mojo::execute);
+    assertEquals("Unknown part: 3, expected 1, 2 or 0 for both", exception.getMessage());
+  }
+
+  @Test
+  public void testUnresolvedClasspath() throws DependencyResolutionRequiredException {
+    AocProfileMojo mojo = new AocProfileMojo(mockProject, 1, 1, 10L);
+    when(mockProject.getRuntimeClasspathElements())
+        .thenThrow(new DependencyResolutionRequiredException(null));
+    assertThrows(MojoExecutionException.class, mojo::execute);
+  }
+}
@@ -0,0 +1,156 @@
+package net.ddellspe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Resource;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class AocSeasonGeneratorMojoTest {
+  String resourceRoot = "";
+  MavenProject mockProject;
+  Log mockLog;
+
+  @BeforeEach
+  public void before() {
+    File rootFile = new File(Objects.requireNonNull(getClass().getResource("/root.txt")).getFile());
+    resourceRoot = rootFile.getParent();
+    mockProject = Mockito.mock(MavenProject.class);
+    Build mockBuild = Mockito.mock(Build.class);
+    mockLog = Mockito.mock(Log.class);
+    Resource mockResource = Mockito.mock(Resource.class);
+    List<Resource> resources = new ArrayList<>();
+    resources.add(mockResource);
+    when(mockProject.getGroupId()).thenReturn("project.season");
+    when(mockProject.getBuild()).thenReturn(mockBuild);
+    when(mockBuild.getSourceDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getTestSourceDirectory()).thenReturn(resourceRoot);
+    when(mockResource.getDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getResources()).thenReturn(resources);
+    when(mockBuild.getTestResources()).thenReturn(resources);
+  }
+
+  @AfterEach
+  public void after() throws IOException {
+    FileUtils.deleteDirectory(Paths.get(resourceRoot, "project").toFile());
+  }
+
+  @Test
+  public void testDefaults() {
+    AocSeasonGeneratorMojo mojo = new AocSeasonGeneratorMojo();
+    assertFalse(mojo.isForce());
+    assertTrue(mojo.isUseDayPackage());
+    assertEquals(1, mojo.getStartDay());
+    assertEquals(25, mojo.getEndDay());
+    assertTrue(mojo.getYears().isEmpty());
+    assertEquals(0, mojo.getThreads());
+    assertNull(mojo.getProject());
+  }
+
+  @Test
+  public void testGeneratesAllDays() {
+    AocSeasonGeneratorMojo mojo = new AocSeasonGeneratorMojo();
+    mojo.setProject(mockProject);
+    mojo.setLog(mockLog);
+    mojo.setThreads(4);
+
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    for (int d = 1; d <= 25; d++) {
+      String pkg = String.format("day%02d", d);
+      String cls = String.format("Day%02d", d);
+      assertTrue(
+          Paths.get(resourceRoot, "project", "season", pkg, cls + ".java").toFile().isFile());
+      assertTrue(
+          Paths.get(resourceRoot, "project", "season", pkg, cls + "Test.java").toFile().isFile());
+      assertTrue(Paths.get(resourceRoot, "project", "season", pkg, "input.txt").toFile().isFile());
+      assertTrue(
+          Paths.get(resourceRoot, "project", "season", pkg, "example.txt").toFile().isFile());
+    }
+    verify(mockLog, times(1))
+        .info("Generating Advent of Code files for 25 day(s) under package: project.season");
+    verify(mockLog, times(2)).info(anyString());
+    verify(mockLog, never()).error(anyString());
+  }
+
+  @Test
+  public void testGeneratesYearsAndSkipsExisting() {
+    AocSeasonGeneratorMojo mojo = new AocSeasonGeneratorMojo(mockProject, 1, 2, false, true);
+    mojo.setYears(Arrays.asList(2022, 2023));
+    mojo.setLog(mockLog);
+    File existing =
+        Paths.get(resourceRoot, "project", "season", "year2023", "day02", "Day02.java").toFile();
+    existing.mkdirs();
+
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    assertTrue(
+        Paths.get(resourceRoot, "project", "season", "year2022", "day01", "Day01.java")
+            .toFile()
+            .isFile());
+    assertTrue(existing.isDirectory());
+    verify(mockLog, never())
+        .info("Source file already exists at: " + existing.getPath() + ". Skipping creation");
+    verify(mockLog, times(1))
+        .info(Mockito.matches("Generated 4 day\\(s\\) in \\d+ ms: .*1 skipped.*"));
+  }
+
+  @Test
+  public void testForceReportsErrors() {
+    AocSeasonGeneratorMojo mojo = new AocSeasonGeneratorMojo(mockProject, 3, 3, true, true);
+    mojo.setLog(mockLog);
+    Paths.get(resourceRoot, "project", "season", "day03", "Day03.java").toFile().mkdirs();
+
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    verify(mockLog, times(1)).error("Unable to create new java file: Day03.java");
+  }
+
+  @Test
+  public void testInvalidRange() {
+    AocSeasonGeneratorMojo mojo = new AocSeasonGeneratorMojo(mockProject, 5, 4, false, true);
+    mojo.setLog(mockLog);
+    assertThrows(MojoExecutionException.class, mojo::execute);
+  }
+
+  @Test
+  public void testMultipleDaysRequireDayPackage() {
+    AocSeasonGeneratorMojo mojo = new AocSeasonGeneratorMojo(mockProject, 1, 2, false, false);
+    mojo.setLog(mockLog);
+    assertThrows(MojoExecutionException.class, mojo::execute);
+  }
+}
@@ -0,0 +1,341 @@
+package net.ddellspe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.model.Build;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class AocSolutionRunnerMojoTest {
+  String resourceRoot = "";
+  MavenProject mockProject;
+  Build mockBuild;
+  Log mockLog;
+
+  @BeforeEach
+  public void before() throws DependencyResolutionRequiredException {
+    File rootFile = new File(Objects.requireNonNull(getClass().getResource("/root.txt")).getFile());
+    resourceRoot = rootFile.getParent();
+    mockProject = Mockito.mock(MavenProject.class);
+    mockBuild = Mockito.mock(Build.class);
+    mockLog = Mockito.mock(Log.class);
+    when(mockProject.getGroupId()).thenReturn("net.ddellspe.fixtures");
+    when(mockProject.getBuild()).thenReturn(mockBuild);
+    when(mockProject.getRuntimeClasspathElements())
+        .thenReturn(Collections.singletonList(resourceRoot));
+    when(mockBuild.getOutputDirectory()).thenReturn(resourceRoot);
+    when(mockBuild.getDirectory()).thenReturn(Paths.get(resourceRoot, "project").toString());
+  }
+
+  @AfterEach
+  public void after() throws IOException {
+    FileUtils.deleteDirectory(Paths.get(resourceRoot, "project").toFile());
+  }
+
+  @Test
+  public void testDefaults() {
+    AocSolutionRunnerMojo mojo = new AocSolutionRunnerMojo();
+    assertEquals(-1, mojo.getDay());
+    assertEquals(3, mojo.getWarmupIterations());
+    assertEquals(10, mojo.getMeasurementIterations());
+    assertEquals("input.txt", mojo.getInputName());
+    assertEquals(0, mojo.getParallelism());
+    assertTrue(mojo.isLongestFirst());
+    assertEquals(0L, mojo.getTimeoutMillis());
+    assertFalse(mojo.isBypassCache());
+    assertEquals(30, mojo.getCacheMaxAgeDays());
+    assertEquals(1000, mojo.getCacheMaxEntries());
+    assertNull(mojo.getProject());
+  }
+
+  @Test
+  public void testRunsAllSolutions() throws IOException {
+    AocSolutionRunnerMojo mojo = new AocSolutionRunnerMojo(mockProject, 1, 5);
+    mojo.setLog(mockLog);
+
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    verify(mockLog, times(1))
+        .info("Running 2 solution(s) with 1 warmup and 5 measurement iteration(s)");
+    verify(mockLog, times(1)).info(Mockito.matches("Day 01 +1 +6 .*"));
+    verify(mockLog, times(1)).info(Mockito.matches("Day 01 +2 +3 .*"));
+    verify(mockLog, times(1)).info(Mockito.matches("Day 02 +1 +42 .*"));
+    verify(mockLog, times(1)).info(Mockito.matches("Day 02 +2 +FAILED .*Part 2 is not solved yet"));
+    Path reports = Paths.get(resourceRoot, "project", "aoc-generator");
+    List<String> csv = Files.readAllLines(reports.resolve("solutions.csv"), StandardCharsets.UTF_8);
+    assertEquals(5, csv.size());
+    assertEquals(SolutionReport.CSV_HEADER, csv.get(0));
+    assertTrue(csv.get(1).startsWith("0,1,net.ddellspe.fixtures.day01.Day01,1,6,5,"));
+    // the default parallelism depends on the machine, so it is recorded as 0
+    assertTrue(csv.get(1).endsWith(",0,false,"));
+    assertTrue(
+        csv.get(4).endsWith("\"java.lang.IllegalStateException: Part 2 is not solved yet\""));
+    String json = FileUtils.readFileToString(reports.resolve("solutions.json").toFile(), "UTF-8");
+    assertTrue(
+        json.contains(
+            "\"class\": \"net.ddellspe.fixtures.day02.Day02\", \"part\": 1, \"answer\": 42"));
+    assertTrue(json.contains("\"answer\": null"));
+  }
+
+  @Test
+  public void testRunsSingleDay() {
+    AocSolutionRunnerMojo mojo = new AocSolutionRunnerMojo(mockProject, 0, 1);
+    mojo.setDay(2);
+    mojo.setReportDirectory(Paths.get(resourceRoot, "project", "reports").toFile());
+    mojo.setLog(mockLog);
+
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    verify(mockLog, times(1))
+        .info("Running 1 solution(s) with 0 warmup and 1 measurement iteration(s)");
+    assertTrue(Paths.get(resourceRoot, "project", "reports", "solutions.csv").toFile().isFile());
+  }
+
+  @Test
+  public void testNoSolutions() {
+    AocSolutionRunnerMojo mojo = new AocSolutionRunnerMojo(mockProject, 0, 1);
+    when(mockProject.getGroupId()).thenReturn("project.missing");
+    mojo.setLog(mockLog);
+
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    verify(mockLog, times(1)).warn(Mockito.startsWith("No compiled solutions found in "));
+  }
+
+  @Test
+  public void testUnresolvedClasspath() throws DependencyResolutionRequiredException {
+    AocSolutionRunnerMojo mojo = new AocSolutionRunnerMojo(mockProject, 0, 1);
+    when(mockProject.getRuntimeClasspathElements())
+        .thenThrow(new DependencyResolutionRequiredException(null));
+    mojo.setLog(mockLog);
+    assertThrows(MojoExecutionException.class, mojo::execute);
+  }
+
+  @Test
+  public void testTimesOutRunawayParts() {
+    AocSolutionRunnerMojo mojo = new AocSolutionRunnerMojo(mockProject, 0, 1);
+    when(mockProject.getGroupId()).thenReturn("net.ddellspe.timeouts");
+    mojo.setTimeoutMillis(200L);
+    mojo.setParallelism(2);
+    mojo.setLog(mockLog);
+
+    long start = System.nanoTime();
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    assertTrue(System.nanoTime() - start < 30_000_000_000L);
+    verify(mockLog, times(1)).info(Mockito.matches("Day 01 +1 +FAILED Timed out after 200 ms"));
+    verify(mockLog, times(1)).info(Mockito.matches("Day 01 +2 +7 .*"));
+  }
+
+  @Test
+  public void testAbandonsPartsIgnoringInterrupts() throws InterruptedException {
+    AocSolutionRunnerMojo mojo = new AocSolutionRunnerMojo(mockProject, 0, 1);
+    when(mockProject.getGroupId()).thenReturn("net.ddellspe.timeouts");
+    mojo.setDay(2);
+    mojo.setTimeoutMillis(100L);
+    mojo.setParallelism(1);
+    mojo.setLog(mockLog);
+
+    System.setProperty("net.ddellspe.timeouts.spin", "true");
+    try {
+      mojo.execute();
+      verify(mockLog, times(1)).info(Mockito.matches("Day 02 +1 +FAILED Timed out after 100 ms"));
+      // the abandoned part gives its slot to the next one
+      verify(mockLog, times(1)).info(Mockito.matches("Day 02 +2 +2 .*"));
+      verify(mockLog, times(1))
+          .warn(
+              "Day 02 part 1 timed out and is still running, it cannot be stopped until it returns"
+                  + " or Maven exits");
+      assertEquals(Collections.singletonList("Day 02 part 1"), SolutionRunner.runawayParts());
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    } finally {
+      System.clearProperty("net.ddellspe.timeouts.spin");
+    }
+    long deadline = System.nanoTime() + 10_000_000_000L;
+    while (!SolutionRunner.runawayParts().isEmpty() && System.nanoTime() < deadline) {
+      Thread.sleep(10L);
+    }
+    assertTrue(SolutionRunner.runawayParts().isEmpty());
+  }
+
+  @Test
+  public void testLongestFirstWithUnreadablePreviousReport() throws IOException {
+    AocSolutionRunnerMojo mojo = new AocSolutionRunnerMojo(mockProject, 0, 1);
+    mojo.setParallelism(1);
+    mojo.setLog(mockLog);
+    Path previous = Paths.get(resourceRoot, "project", "aoc-generator", "solutions.csv");
+    Files.createDirectories(previous.getParent());
+    Files.write(
+        previous,
+        Arrays.asList(
+            SolutionReport.CSV_HEADER,
+            "0,2,net.ddellspe.fixtures.day02.Day02,1,42,1,5000,5000,64,1,false,",
+            "0,1,net.ddellspe.fixtures.day01.Day01,1,6,1,oops,5000,64,1,false,"));
+
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    verify(mockLog, times(1)).warn(Mockito.startsWith("Unable to read previous solution timings"));
+    verify(mockLog, times(1)).info(Mockito.matches("Day 01 +1 +6 .*"));
+    List<String> csv = Files.readAllLines(previous, StandardCharsets.UTF_8);
+    assertTrue(
+        csv.get(1)
+            .matches(
+                "0,1,net\\.ddellspe\\.fixtures\\.day01\\.Day01,1,6,1,[0-9]+,[0-9]+,-?[0-9]+,1,false,"));
+  }
+
+  @Test
+  public void testPreviousMedians() throws IOException {
+    Path previous = Paths.get(resourceRoot, "project", "solutions.csv");
+    Files.createDirectories(previous.getParent());
+    Files.write(
+        previous,
+        Arrays.asList(
+            SolutionReport.CSV_HEADER,
+            "0,2,net.ddellspe.fixtures.day02.Day02,1,42,1,5000,5000,64,1,false,",
+            "0,2,net.ddellspe.fixtures.day02.Day02,2,,0,0,0,-1,1,false,\"failed, badly\"",
+            "0,1,net.ddellspe.fixtures.day01.Day01,1,6,0,0,0,-1,1,true,"));
+    Map<String, Long> medians = SolutionReport.medians(SolutionReport.readTimings(previous));
+    assertEquals(1, medians.size());
+    assertEquals(5000L, medians.get("net.ddellspe.fixtures.day02.Day02#1"));
+    assertTrue(SolutionReport.readTimings(previous.resolveSibling("missing.csv")).isEmpty());
+  }
+
+  @Test
+  public void testCachedAnswersSkipExecution() throws IOException {
+    Path reports = Paths.get(resourceRoot, "project", "aoc-generator");
+    AocSolutionRunnerMojo first = new AocSolutionRunnerMojo(mockProject, 0, 2);
+    first.setLog(mockLog);
+    AocSolutionRunnerMojo second = new AocSolutionRunnerMojo(mockProject, 0, 2);
+    Log secondLog = Mockito.mock(Log.class);
+    second.setLog(secondLog);
+
+    List<String> measured = null;
+    try {
+      first.execute();
+      measured = Files.readAllLines(reports.resolve("solutions.csv"), StandardCharsets.UTF_8);
+      second.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    verify(mockLog, times(1)).info(Mockito.matches("Day 01 +1 +6 +[0-9.]+ ms .*"));
+    verify(secondLog, times(1)).info(Mockito.matches("Day 01 +1 +6 +cached +cached +cached"));
+    verify(secondLog, times(1)).info(Mockito.matches("Day 02 +1 +42 +cached +cached +cached"));
+    verify(secondLog, times(1))
+        .info(Mockito.matches("Day 02 +2 +FAILED .*Part 2 is not solved yet"));
+    List<String> csv = Files.readAllLines(reports.resolve("solutions.csv"), StandardCharsets.UTF_8);
+    // cached parts keep the timings of the run that solved them
+    assertEquals(measured.get(1).replace(",false,", ",true,"), csv.get(1));
+    assertEquals(
+        Long.valueOf(measured.get(1).split(",")[6]),
+        SolutionReport.medians(SolutionReport.readTimings(reports.resolve("solutions.csv")))
+            .get("net.ddellspe.fixtures.day01.Day01#1"));
+    assertTrue(Files.isRegularFile(reports.resolve(AnswerCache.FILE)));
+  }
+
+  @Test
+  public void testBypassCache() throws IOException {
+    Path reports = Paths.get(resourceRoot, "project", "aoc-generator");
+    for (int run = 0; run < 2; run++) {
+      AocSolutionRunnerMojo mojo = new AocSolutionRunnerMojo(mockProject, 0, 1);
+      mojo.setBypassCache(true);
+      mojo.setLog(mockLog);
+      try {
+        mojo.execute();
+      } catch (MojoExecutionException | MojoFailureException e) {
+        fail();
+      }
+    }
+    verify(mockLog, times(2)).info(Mockito.matches("Day 01 +1 +6 +[0-9.]+ ms .*"));
+    assertFalse(Files.exists(reports.resolve(AnswerCache.FILE)));
+  }
+
+  @Test
+  public void testUnreadableAnswerCache() throws IOException {
+    Path cacheFile = Paths.get(resourceRoot, "project", "aoc-generator", AnswerCache.FILE);
+    Files.createDirectories(cacheFile);
+    AocSolutionRunnerMojo mojo = new AocSolutionRunnerMojo(mockProject, 0, 1);
+    mojo.setLog(mockLog);
+
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    verify(mockLog, times(1)).warn(Mockito.startsWith("Unable to write the answer cache: "));
+    verify(mockLog, times(1)).info(Mockito.matches("Day 01 +1 +6 +[0-9.]+ ms .*"));
+  }
+
+  @Test
+  public void testAnswerCacheInvalidationAndEviction() throws IOException, InterruptedException {
+    Path cacheFile = Paths.get(resourceRoot, "project", AnswerCache.FILE);
+    DaySolution day01 = new DaySolution("net.ddellspe.fixtures.day01.Day01", 0, 1);
+    DaySolution missing = new DaySolution("net.ddellspe.fixtures.day09.Day09", 0, 9);
+    ClassLoader loader = getClass().getClassLoader();
+    AnswerCache cache = AnswerCache.load(cacheFile, 60_000L, 2);
+    String hashes = cache.hashes(loader, day01, "input.txt");
+    assertEquals(129, hashes.length());
+    assertNull(cache.hashes(loader, day01, "missing.txt"));
+    assertNull(cache.hashes(loader, missing, "input.txt"));
+
+    cache.store("a#1", hashes, 1L);
+    cache.store("b#1", hashes, 2L);
+    cache.store("c#1", hashes, 3L);
+    Thread.sleep(5L);
+    assertEquals(3L, cache.lookup("c#1", hashes));
+    assertNull(cache.lookup("c#1", "other:" + hashes));
+    cache.save();
+
+    AnswerCache reloaded = AnswerCache.load(cacheFile, 60_000L, 2);
+    assertEquals(2, reloaded.size());
+    assertEquals(3L, reloaded.lookup("c#1", hashes));
+    reloaded.save();
+    assertEquals(2, AnswerCache.load(cacheFile, -1L, 10).size());
+
+    AnswerCache expired = AnswerCache.load(cacheFile, -1L, 10);
+    expired.save();
+    assertEquals(0, AnswerCache.load(cacheFile, 60_000L, 10).size());
+  }
+}
@@ -0,0 +1,271 @@
+package net.ddellspe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Resource;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class AocWatchMojoTest {
+  private static final String SOURCE =
+      "package watch.day01;\n"
+          + "\n"
+          + "import java.io.IOException;\n"
+          + "import java.io.InputStream;\n"
+          + "import java.io.UncheckedIOException;\n"
+          + "import java.nio.charset.StandardCharsets;\n"
+          + "import java.util.List;\n"
+          + "import java.util.stream.Collectors;\n"
+          + "\n"
+          + "public class Day01 {\n"
+          + "  public static long part1(String filename) {\n"
+          + "    return PART1;\n"
+          + "  }\n"
+          + "\n"
+          + "  public static long part2(String filename) {\n"
+          + "    return lines(filename).size();\n"
+          + "  }\n"
+          + "\n"
+          + "  private static List<String> lines(String filename) {\n"
+          + "    try (InputStream in = Day01.class.getResourceAsStream(filename)) {\n"
+          + "      return new String(in.readAllBytes(), StandardCharsets.UTF_8)\n"
+          + "          .lines()\n"
+          + "          .collect(Collectors.toList());\n"
+          + "    } catch (IOException e) {\n"
+          + "      throw new UncheckedIOException(e);\n"
+          + "    }\n"
+          + "  }\n"
+          + "}\n";
+
+  String resourceRoot = "";
+  Path project;
+  MavenProject mockProject;
+  Build mockBuild;
+  Log mockLog;
+
+  @BeforeEach
+  public void before() throws IOException, DependencyResolutionRequiredException {
+    File rootFile = new File(Objects.requireNonNull(getClass().getResource("/root.txt")).getFile());
+    resourceRoot = rootFile.getParent();
+    project = Paths.get(resourceRoot, "project");
+    mockProject = Mockito.mock(MavenProject.class);
+    mockBuild = Mockito.mock(Build.class);
+    mockLog = Mockito.mock(Log.class);
+    Resource resources = Mockito.mock(Resource.class);
+    Resource testResources = Mockito.mock(Resource.class);
+    when(mockProject.getGroupId()).thenReturn("watch");
+    when(mockProject.getBuild()).thenReturn(mockBuild);
+    when(mockProject.getCompileClasspathElements())
+        .thenReturn(Collections.singletonList(project.resolve("classes").toString()));
+    when(mockBuild.getSourceDirectory()).thenReturn(project.resolve("src").toString());
+    when(mockBuild.getDirectory()).thenReturn(project.resolve("target").toString());
+    when(mockBuild.getResources()).thenReturn(Collections.singletonList(resources));
+    when(mockBuild.getTestResources()).thenReturn(Collections.singletonList(testResources));
+    when(resources.getDirectory()).thenReturn(project.resolve("resources").toString());
+    when(testResources.getDirectory()).thenReturn(project.resolve("test-resources").toString());
+    writeSource("lines(filename).stream().mapToLong(Long::parseLong).sum()");
+    write(project.resolve(Paths.get("resources", "watch", "day01", "input.txt")), "10\n20\n30\n");
+    write(project.resolve(Paths.get("test-resources", "watch", "day01", "example.txt")), "1\n2\n");
+    Files.createDirectories(project.resolve("classes"));
+  }
+
+  @AfterEach
+  public void after() throws IOException {
+    FileUtils.deleteDirectory(project.toFile());
+  }
+
+  private void writeSource(String part1) throws IOException {
+    write(
+        project.resolve(Paths.get("src", "watch", "day01", "Day01.java")),
+        SOURCE.replace("PART1", part1));
+  }
+
+  private static void write(Path file, String content) throws IOException {
+    Files.createDirectories(file.getParent());
+    Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testDefaults() {
+    AocWatchMojo mojo = new AocWatchMojo();
+    assertEquals(-1, mojo.getDay());
+    assertEquals(0, mojo.getYear());
+    assertTrue(mojo.isUseDayPackage());
+    assertEquals(10000L, mojo.getTimeoutMillis());
+    assertEquals(0, mojo.getMaxRuns());
+    assertNull(mojo.getProject());
+  }
+
+  @Test
+  public void testSingleRun() {
+    AocWatchMojo mojo = new AocWatchMojo(mockProject, 1, true);
+    mojo.setMaxRuns(1);
+    mojo.setLog(mockLog);
+
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    verify(mockLog, times(1)).info("Watching watch.day01.Day01");
+    verify(mockLog, times(1)).info(Mockito.startsWith("Compiled Day 01 in "));
+    verify(mockLog, times(1)).info(Mockito.matches("Day 01 part 1 on example.txt: 3 in .* ms"));
+    verify(mockLog, times(1)).info(Mockito.matches("Day 01 part 2 on example.txt: 2 in .* ms"));
+    verify(mockLog, times(1)).info(Mockito.matches("Day 01 part 1 on input.txt: 60 in .* ms"));
+    verify(mockLog, times(1)).info(Mockito.matches("Day 01 part 2 on input.txt: 3 in .* ms"));
+  }
+
+  @Test
+  public void testRerunsOnChange() throws Exception {
+    AocWatchMojo mojo = new AocWatchMojo(mockProject, 1, true);
+    mojo.setMaxRuns(3);
+    mojo.setLog(mockLog);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> watching =
+          executor.submit(
+              () -> {
+                mojo.execute();
+                return null;
+              });
+      verify(mockLog, timeout(30_000)).info("Watching Day 01 for changes");
+
+      writeSource("42L");
+      verify(mockLog, timeout(30_000))
+          .info(Mockito.matches("Day 01 part 1 on input.txt: 42 in .* ms"));
+
+      write(project.resolve(Paths.get("resources", "watch", "day01", "input.txt")), "1\n");
+      verify(mockLog, timeout(30_000))
+          .info(Mockito.matches("Day 01 part 2 on input.txt: 1 in .* ms"));
+      watching.get(30, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testCompilationErrorsAndFailures() throws IOException {
+    writeSource("missing()");
+    DayWatcher watcher =
+        new DayWatcher(
+            new DayLayout("watch", 0, 1, true),
+            project.resolve("src"),
+            Collections.singletonList(project.resolve("resources")),
+            Collections.singletonList(project.resolve("classes")),
+            project.resolve("out"),
+            0L,
+            mockLog);
+    assertFalse(watcher.runOnce());
+    verify(mockLog, times(1)).error(Mockito.matches("(?s).*Day01.java:12: .*missing.*"));
+    verify(mockLog, times(1)).error("Compilation of Day 01 failed, waiting for changes");
+
+    writeSource("Long.parseLong(\"x\")");
+    assertTrue(watcher.runOnce());
+    verify(mockLog, times(1))
+        .error(Mockito.startsWith("Day 01 part 1 on input.txt failed: java.lang.NumberFormat"));
+    // the example lives in the test resources, which this watcher was not given
+    verify(mockLog, times(1))
+        .error(Mockito.startsWith("Day 01 part 2 on example.txt failed: java.lang.NullPointer"));
+    verify(mockLog, never()).info(Mockito.startsWith("Day 01 part 1 on input.txt"));
+
+    assertTrue(DayWatcher.isRelevant("Day01.java"));
+    assertTrue(DayWatcher.isRelevant("example.txt"));
+    assertFalse(DayWatcher.isRelevant("notes.md"));
+  }
+
+  @Test
+  public void testRefusesToRunWhileAPartIsRunningAway() throws Exception {
+    // spins without checking for interrupts while the property is set
+    writeSource(
+        "java.util.stream.LongStream.iterate(0L, i -> i + 1)"
+            + ".filter(i -> !Boolean.getBoolean(\"net.ddellspe.watch.spin\"))"
+            + ".findFirst().getAsLong()");
+    DayWatcher watcher =
+        new DayWatcher(
+            new DayLayout("watch", 0, 1, true),
+            project.resolve("src"),
+            Collections.singletonList(project.resolve("resources")),
+            Collections.singletonList(project.resolve("classes")),
+            project.resolve("out"),
+            100L,
+            mockLog);
+    String refused =
+        "while timed out Day 01 part 1 is still running, it cannot be stopped until it returns or"
+            + " Maven exits";
+    System.setProperty("net.ddellspe.watch.spin", "true");
+    try {
+      assertFalse(watcher.runOnce());
+      verify(mockLog, times(1))
+          .error("Day 01 part 1 on example.txt failed: Timed out after 100 ms");
+      verify(mockLog, times(1)).error("Not running Day 01 on input.txt " + refused);
+
+      assertFalse(watcher.runOnce());
+      verify(mockLog, times(1)).error("Not running Day 01 on example.txt " + refused);
+      verify(mockLog, times(1)).error(Mockito.startsWith("Day 01 part 1 on example.txt failed"));
+    } finally {
+      System.clearProperty("net.ddellspe.watch.spin");
+    }
+    long deadline = System.nanoTime() + 10_000_000_000L;
+    while (!SolutionRunner.runawayParts().isEmpty() && System.nanoTime() < deadline) {
+      Thread.sleep(10L);
+    }
+    assertTrue(watcher.runOnce());
+    verify(mockLog, times(1)).info(Mockito.startsWith("Day 01 part 1 on input.txt: 0 in "));
+  }
+
+  @Test
+  public void testNoSources() throws IOException {
+    FileUtils.deleteDirectory(project.resolve("src").toFile());
+    Files.createDirectories(project.resolve(Paths.get("src", "watch", "day01")));
+    AocWatchMojo mojo = new AocWatchMojo(mockProject, 1, true);
+    mojo.setMaxRuns(1);
+    mojo.setLog(mockLog);
+
+    try {
+      mojo.execute();
+    } catch (MojoExecutionException | MojoFailureException e) {
+      fail();
+    }
+    verify(mockLog, times(1)).error(Mockito.startsWith("No sources found for Day 01 in "));
+  }
+
+  @Test
+  public void testUnresolvedClasspath() throws DependencyResolutionRequiredException {
+    AocWatchMojo mojo = new AocWatchMojo(mockProject, 1, true);
+    when(mockProject.getCompileClasspathElements())
+        .thenThrow(new DependencyResolutionRequiredException(null));
+    mojo.setLog(mockLog);
+    assertThrows(MojoExecutionException.class, mojo::execute);
+  }
+}
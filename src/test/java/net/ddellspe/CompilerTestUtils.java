@@ -0,0 +1,51 @@
+package net.ddellspe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+/**
+ * Compiles generated sources during tests so their behaviour, not just their presence, is checked.
+ */
+public final class CompilerTestUtils {
+  private CompilerTestUtils() {}
+
+  /** Compiles every java file under the given roots into the output directory. */
+  public static void compile(Path output, Path... sourceRoots) throws IOException {
+    List<String> sources = new ArrayList<>();
+    for (Path root : sourceRoots) {
+      try (Stream<Path> files = Files.walk(root)) {
+        sources.addAll(
+            files
+                .filter(file -> file.toString().endsWith(".java"))
+                .map(Path::toString)
+                .collect(Collectors.toList()));
+      }
+    }
+    Files.createDirectories(output);
+    List<String> args =
+        new ArrayList<>(
+            Arrays.asList(
+                "-d",
+                output.toString(),
+                "-classpath",
+                System.getProperty("java.class.path") + File.pathSeparator + output));
+    args.addAll(sources);
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    ByteArrayOutputStream errors = new ByteArrayOutputStream();
+    int status = compiler.run(null, null, errors, args.toArray(new String[0]));
+    assertEquals(0, status, errors.toString(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,33 @@
+package net.ddellspe.fixtures.day01;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/** Solved day used as a fixture for the solution runner tests. */
+public class Day01 {
+  private Day01() {}
+
+  public static long part1(String filename) {
+    return lines(filename).stream().mapToLong(Long::parseLong).sum();
+  }
+
+  public static long part2(String filename) {
+    return lines(filename).size();
+  }
+
+  private static List<String> lines(String filename) {
+    try (BufferedReader reader =
+        new BufferedReader(
+            new InputStreamReader(
+                Day01.class.getResourceAsStream(filename), StandardCharsets.UTF_8))) {
+      return reader.lines().collect(Collectors.toList());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
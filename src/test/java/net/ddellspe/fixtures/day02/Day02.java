@@ -0,0 +1,14 @@
+package net.ddellspe.fixtures.day02;
+
+/** Partially solved day used as a fixture for the solution runner tests. */
+public class Day02 {
+  private Day02() {}
+
+  public static long part1(String filename) {
+    return 42L;
+  }
+
+  public static long part2(String filename) {
+    throw new IllegalStateException("Part 2 is not solved yet");
+  }
+}
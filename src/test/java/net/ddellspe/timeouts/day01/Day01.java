@@ -0,0 +1,15 @@
+package net.ddellspe.timeouts.day01;
+
+/** Day with a runaway first part used as a fixture for the solution runner timeout tests. */
+public class Day01 {
+  private Day01() {}
+
+  public static long part1(String filename) throws InterruptedException {
+    Thread.sleep(60_000L);
+    return 1L;
+  }
+
+  public static long part2(String filename) {
+    return 7L;
+  }
+}
@@ -0,0 +1,21 @@
+package net.ddellspe.timeouts.day02;
+
+/**
+ * Day whose first part spins without checking for interrupts while the {@code
+ * net.ddellspe.timeouts.spin} system property is set, used as a fixture for runaway part tests.
+ */
+public class Day02 {
+  private Day02() {}
+
+  public static long part1(String filename) {
+    long spins = 0L;
+    while (Boolean.getBoolean("net.ddellspe.timeouts.spin")) {
+      spins++;
+    }
+    return spins;
+  }
+
+  public static long part2(String filename) {
+    return 2L;
+  }
+}